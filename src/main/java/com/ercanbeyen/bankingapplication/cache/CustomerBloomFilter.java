@@ -0,0 +1,169 @@
+package com.ercanbeyen.bankingapplication.cache;
+
+import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over the unique fields of customers (national id, phone number and email).
+ * A negative answer means that none of the values has ever been stored, so the database probe can be skipped.
+ * Deleted customers are never removed from the filter, which only leads to additional database probes.
+ */
+@Slf4j
+@Component
+public class CustomerBloomFilter {
+    private static final int KEYS_PER_CUSTOMER = 3;
+    private static final int WARM_UP_CHUNK_SIZE = 1_000;
+    private static final char NATIONAL_ID_PREFIX = 'n';
+    private static final char PHONE_NUMBER_PREFIX = 'p';
+    private static final char EMAIL_PREFIX = 'e';
+    private final CustomerRepository customerRepository;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctionCount;
+    private volatile boolean warmedUp = false;
+
+    public CustomerBloomFilter(
+            CustomerRepository customerRepository,
+            @Value("${customer.bloom-filter.expected-customers:1000000}") long expectedCustomers,
+            @Value("${customer.bloom-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.customerRepository = customerRepository;
+
+        long expectedKeys = Math.max(1, expectedCustomers * KEYS_PER_CUSTOMER);
+        long optimalBitCount = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.words = new AtomicLongArray(Math.toIntExact((optimalBitCount + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+
+        log.info("Customer bloom filter is allocated. Bits: {}, Hash functions: {}", bitCount, hashFunctionCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        log.info("Customer bloom filter warm up is started");
+
+        int cursor = 0;
+        long customerCount = 0;
+        List<CustomerRepository.UniqueFields> chunk;
+
+        do {
+            chunk = customerRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(WARM_UP_CHUNK_SIZE));
+
+            for (CustomerRepository.UniqueFields customer : chunk) {
+                put(customer.getNationalId(), customer.getPhoneNumber(), customer.getEmail());
+                cursor = customer.getId();
+            }
+
+            customerCount += chunk.size();
+        } while (chunk.size() == WARM_UP_CHUNK_SIZE);
+
+        warmedUp = true;
+        log.info("Customer bloom filter warm up is completed. Customers: {}", customerCount);
+    }
+
+    /***
+     * @param nationalId is national identity of the customer
+     * @param phoneNumber is phone number of the customer
+     * @param email is email of the customer
+     */
+    public void put(String nationalId, String phoneNumber, String email) {
+        put(NATIONAL_ID_PREFIX, nationalId);
+        put(PHONE_NUMBER_PREFIX, phoneNumber);
+        put(EMAIL_PREFIX, email);
+    }
+
+    /***
+     * @param nationalId is national identity of the customer
+     * @param phoneNumber is phone number of the customer
+     * @param email is email of the customer
+     * @return false if none of the values definitely belongs to any customer, true otherwise
+     */
+    public boolean mightContain(String nationalId, String phoneNumber, String email) {
+        if (!warmedUp) {
+            return true;
+        }
+
+        return mightContain(NATIONAL_ID_PREFIX, nationalId)
+                || mightContain(PHONE_NUMBER_PREFIX, phoneNumber)
+                || mightContain(EMAIL_PREFIX, email);
+    }
+
+    private void put(char prefix, String value) {
+        if (value == null) {
+            return;
+        }
+
+        long hash = hash(prefix, value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctionCount; i++) {
+            long bitIndex = index(hash1, hash2, i);
+            int wordIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long word;
+
+            do {
+                word = words.get(wordIndex);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(wordIndex, word, word | mask));
+        }
+    }
+
+    private boolean mightContain(char prefix, String value) {
+        if (value == null) {
+            return false;
+        }
+
+        long hash = hash(prefix, value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctionCount; i++) {
+            long bitIndex = index(hash1, hash2, i);
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /* Kirsch-Mitzenmacher double hashing derives every hash function from two halves of a single 64-bit hash */
+    private long index(int hash1, int hash2, int i) {
+        int combinedHash = hash1 + i * hash2;
+        if (combinedHash < 0) {
+            combinedHash = ~combinedHash;
+        }
+        return Long.remainderUnsigned(combinedHash * 0x9E3779B97F4A7C15L, bitCount);
+    }
+
+    /* 64-bit FNV-1a followed by the MurmurHash3 finalizer */
+    private static long hash(char prefix, String value) {
+        long hash = 0xCBF29CE484222325L;
+        hash = (hash ^ prefix) * 0x100000001B3L;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE66AEC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,247 @@
+package com.ercanbeyen.bankingapplication.cache;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.enums.Entity;
+import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
+import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.bankingapplication.repository.ExchangeViewRepository;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import com.ercanbeyen.bankingapplication.view.ExchangeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dense matrices of the bank buy and sell rates, indexed by {@link Currency#ordinal()} of the base and the target currencies.
+ * Pairs without an exchange are converted through the intermediate currencies which give the customer the most,
+ * so only one exchange per currency needs to be maintained. Best paths of all pairs are computed when the rates change.
+ * Readers take the current snapshot without locking. Every rate change builds a new snapshot, which replaces the old one at once,
+ * so a reader never sees a half updated matrix.
+ * Snapshot is also refreshed periodically to pick up the rate changes made by other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateMatrix {
+    private static final int CURRENCY_COUNT = Currency.values().length;
+    private static final int NO_PATH = -1;
+    private final ExchangeViewRepository exchangeViewRepository;
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${exchange.rate-matrix.refresh-interval-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /***
+     * Builds the matrices from the current exchanges and publishes them.
+     * @return published snapshot
+     */
+    public synchronized Snapshot rebuild() {
+        List<ExchangeView> exchangeViews = exchangeViewRepository.findAll();
+
+        double[][] buyRates = newRateMatrix();
+        double[][] sellRates = newRateMatrix();
+
+        for (ExchangeView exchangeView : exchangeViews) {
+            int base = exchangeView.getBaseCurrency().ordinal();
+            int target = exchangeView.getTargetCurrency().ordinal();
+
+            buyRates[base][target] = exchangeView.getBuyRate();
+            sellRates[base][target] = exchangeView.getSellRate();
+        }
+
+        Snapshot rebuiltSnapshot = Snapshot.of(buyRates, sellRates);
+        snapshot = rebuiltSnapshot;
+        log.info("Exchange rate matrix is rebuilt from {} exchanges", exchangeViews.size());
+
+        return rebuiltSnapshot;
+    }
+
+    /***
+     * @param minorUnits is amount in minor units of the from currency
+     * @param from is currency which is sold by the customer
+     * @param to is currency which is bought by the customer
+     * @return converted amount in minor units of the to currency
+     */
+    public long convert(long minorUnits, Currency from, Currency to) {
+        return getSnapshot().convert(minorUnits, from.ordinal(), to.ordinal());
+    }
+
+    /***
+     * @param from is currency which is sold by the customer
+     * @param to is currency which is bought by the customer
+     * @return units of the to currency which are bought by one unit of the from currency, NaN if the pair cannot be converted
+     */
+    public double getCrossRate(Currency from, Currency to) {
+        return getSnapshot().crossRates()[from.ordinal()][to.ordinal()];
+    }
+
+    public double getBuyRate(Currency base, Currency target) {
+        return getSnapshot().buyRates()[base.ordinal()][target.ordinal()];
+    }
+
+    public double getSellRate(Currency base, Currency target) {
+        return getSnapshot().sellRates()[base.ordinal()][target.ordinal()];
+    }
+
+    /***
+     * Callers which convert several amounts take the snapshot once, so that every amount is converted with the same rates.
+     * @return current snapshot of the rates
+     */
+    public Snapshot getSnapshot() {
+        Snapshot currentSnapshot = snapshot;
+        return currentSnapshot != null ? currentSnapshot : rebuild();
+    }
+
+    /* Floyd-Warshall on the products of the rates. Direct pairs keep the rates of their exchanges. */
+    private static void calculateBestPaths(long[][] multipliers, long[][] divisors, double[][] crossRates, int[][] nextHops) {
+        boolean[][] direct = new boolean[CURRENCY_COUNT][CURRENCY_COUNT];
+
+        for (int from = 0; from < CURRENCY_COUNT; from++) {
+            for (int to = 0; to < CURRENCY_COUNT; to++) {
+                if (from == to) {
+                    crossRates[from][to] = 1;
+                    nextHops[from][to] = to;
+                } else if (divisors[from][to] != 0) {
+                    crossRates[from][to] = (double) MoneyUtils.RATE_SCALE / divisors[from][to];
+                    nextHops[from][to] = to;
+                    direct[from][to] = true;
+                } else if (multipliers[from][to] != 0) {
+                    crossRates[from][to] = (double) multipliers[from][to] / MoneyUtils.RATE_SCALE;
+                    nextHops[from][to] = to;
+                    direct[from][to] = true;
+                } else {
+                    crossRates[from][to] = Double.NaN;
+                    nextHops[from][to] = NO_PATH;
+                }
+            }
+        }
+
+        for (int via = 0; via < CURRENCY_COUNT; via++) {
+            for (int from = 0; from < CURRENCY_COUNT; from++) {
+                if (from == via || nextHops[from][via] == NO_PATH) {
+                    continue;
+                }
+
+                for (int to = 0; to < CURRENCY_COUNT; to++) {
+                    if (to == from || to == via || direct[from][to] || nextHops[via][to] == NO_PATH) {
+                        continue;
+                    }
+
+                    double crossRate = crossRates[from][via] * crossRates[via][to];
+
+                    if (nextHops[from][to] == NO_PATH || crossRate > crossRates[from][to]) {
+                        crossRates[from][to] = crossRate;
+                        nextHops[from][to] = nextHops[from][via];
+                    }
+                }
+            }
+        }
+    }
+
+    /***
+     * @return buy or sell rate matrix in which every pair is absent
+     */
+    public static double[][] newRateMatrix() {
+        double[][] rates = new double[CURRENCY_COUNT][CURRENCY_COUNT];
+
+        for (double[] row : rates) {
+            Arrays.fill(row, Double.NaN);
+        }
+
+        return rates;
+    }
+
+    /***
+     * Immutable after publication, arrays are never written once the snapshot is assigned.
+     * @param buyRates are bank buy rates of the exchanges, NaN if there is no exchange from the base to the target currency
+     * @param sellRates are bank sell rates of the exchanges, NaN if there is no exchange from the base to the target currency
+     * @param multipliers are scaled rates which an amount is multiplied by while it is converted from row to column currency
+     * @param divisors are scaled rates which an amount is divided by while it is converted from row to column currency
+     * @param crossRates are units of column currency which are bought by one unit of row currency through the best path
+     * @param nextHops are first currencies on the best paths from row to column currency, -1 if there is no path
+     */
+    public record Snapshot(double[][] buyRates, double[][] sellRates, long[][] multipliers, long[][] divisors, double[][] crossRates, int[][] nextHops) {
+
+        /***
+         * @param buyRates are bank buy rates of the exchanges, NaN if there is no exchange from the base to the target currency
+         * @param sellRates are bank sell rates of the exchanges, NaN if there is no exchange from the base to the target currency
+         * @return snapshot whose conversion rates and best paths are calculated from the given rates
+         */
+        public static Snapshot of(double[][] buyRates, double[][] sellRates) {
+            long[][] multipliers = new long[CURRENCY_COUNT][CURRENCY_COUNT];
+            long[][] divisors = new long[CURRENCY_COUNT][CURRENCY_COUNT];
+
+            for (int base = 0; base < CURRENCY_COUNT; base++) {
+                for (int target = 0; target < CURRENCY_COUNT; target++) {
+                    if (!Double.isNaN(sellRates[base][target])) {
+                        divisors[base][target] = MoneyUtils.toScaledRate(sellRates[base][target]); // Bank sells target currency
+                    }
+
+                    if (!Double.isNaN(buyRates[base][target])) {
+                        multipliers[target][base] = MoneyUtils.toScaledRate(buyRates[base][target]); // Bank buys target currency
+                    }
+                }
+            }
+
+            double[][] crossRates = new double[CURRENCY_COUNT][CURRENCY_COUNT];
+            int[][] nextHops = new int[CURRENCY_COUNT][CURRENCY_COUNT];
+            calculateBestPaths(multipliers, divisors, crossRates, nextHops);
+
+            return new Snapshot(buyRates, sellRates, multipliers, divisors, crossRates, nextHops);
+        }
+
+        public boolean isConvertible(int from, int to) {
+            return nextHops[from][to] != NO_PATH;
+        }
+
+        /***
+         * @param minorUnits is amount in minor units of the from currency
+         * @param from is ordinal of the currency which is sold by the customer
+         * @param to is ordinal of the currency which is bought by the customer
+         * @return converted amount in minor units of the to currency
+         */
+        public long convert(long minorUnits, int from, int to) {
+            if (!isConvertible(from, to)) {
+                throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.EXCHANGE.getValue()));
+            }
+
+            int current = from;
+            long convertedMinorUnits = minorUnits;
+
+            /* A best path visits every currency at most once. Rates whose cycle has product above 1 may loop the hops instead. */
+            for (int hopCount = 0; current != to; hopCount++) {
+                if (hopCount == CURRENCY_COUNT) {
+                    log.warn("Exchange path from {} to {} does not end within {} hops", Currency.values()[from], Currency.values()[to], CURRENCY_COUNT);
+                    throw new ResourceConflictException(ResponseMessages.EXCHANGE_PATH_CYCLE);
+                }
+
+                int hop = nextHops[current][to];
+                convertedMinorUnits = convertDirectly(convertedMinorUnits, current, hop); // Each leg is rounded as if it was exchanged separately
+                current = hop;
+            }
+
+            return convertedMinorUnits;
+        }
+
+        private long convertDirectly(long minorUnits, int from, int to) {
+            long divisor = divisors[from][to];
+
+            if (divisor != 0) { // Bank sells foreign currency & Customer buys foreign currency
+                return MoneyUtils.divide(minorUnits, divisor);
+            }
+
+            // Bank buys foreign currency & Customer sells foreign currency
+            return MoneyUtils.multiply(minorUnits, multipliers[from][to]);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ercanbeyen.bankingapplication.cache;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.entity.ExchangeRateHistory;
+import com.ercanbeyen.bankingapplication.repository.ExchangeRateHistoryRepository;
+import com.ercanbeyen.bankingapplication.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only history of the bank buy and sell rates. Rates of each currency pair are kept in columns of primitive arrays
+ * which are sorted by their effective times, so the rates at any moment are found by binary search without a database round trip.
+ * The history is persisted to the exchange_rate_history table. Memory is loaded from the table on startup, after the commit of every local change
+ * and periodically to pick up the changes made by other instances.
+ */
+@Slf4j
+@Component
+public class ExchangeRateTimeSeries {
+    private static final int CURRENCY_COUNT = Currency.values().length;
+    private static final int LOAD_CHUNK_SIZE = 1_000;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final Duration gracePeriod;
+    private final AtomicReferenceArray<Series> pairs = new AtomicReferenceArray<>(CURRENCY_COUNT * CURRENCY_COUNT);
+    private final Map<Long, LocalDateTime> recentlyLoadedIds = new HashMap<>(); // records of the grace period, which are read again by each load
+    private LocalDateTime lastEffectiveFrom = BEGINNING;
+
+    public ExchangeRateTimeSeries(
+            ExchangeRateHistoryRepository exchangeRateHistoryRepository,
+            @Value("${exchange.rate-history.grace-period:5m}") Duration gracePeriod) {
+        this.exchangeRateHistoryRepository = exchangeRateHistoryRepository;
+        this.gracePeriod = gracePeriod;
+    }
+
+    /***
+     * Adds the records which are not loaded yet. Ids and effective times of concurrent changes are not committed in their order,
+     * so the records are read again from the grace period before the last effective time and the ones which are already loaded are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${exchange.rate-history.refresh-interval-ms:60000}")
+    public synchronized void load() {
+        LocalDateTime lowWaterMark = lastEffectiveFrom.minus(gracePeriod);
+        recentlyLoadedIds.values().removeIf(effectiveFrom -> effectiveFrom.isBefore(lowWaterMark));
+
+        LocalDateTime cursorEffectiveFrom = lowWaterMark;
+        long cursorId = 0;
+        long recordCount = 0;
+        List<ExchangeRateHistory> chunk;
+
+        do {
+            chunk = exchangeRateHistoryRepository.findNextRecords(cursorEffectiveFrom, cursorId, Limit.of(LOAD_CHUNK_SIZE));
+
+            for (ExchangeRateHistory exchangeRateHistory : chunk) {
+                cursorEffectiveFrom = exchangeRateHistory.getEffectiveFrom();
+                cursorId = exchangeRateHistory.getId();
+
+                if (recentlyLoadedIds.putIfAbsent(cursorId, cursorEffectiveFrom) == null) {
+                    add(exchangeRateHistory);
+                    recordCount++;
+                }
+            }
+        } while (chunk.size() == LOAD_CHUNK_SIZE);
+
+        if (cursorEffectiveFrom.isAfter(lastEffectiveFrom)) {
+            lastEffectiveFrom = cursorEffectiveFrom;
+        }
+
+        if (recordCount > 0) {
+            log.info("Exchange rate history is loaded. Records: {}, Last effective time: {}", recordCount, lastEffectiveFrom);
+        }
+    }
+
+    /***
+     * Persists the rates of the pair in the current transaction. They are appended to the memory after the commit.
+     * @param baseCurrency is base currency of the exchange
+     * @param targetCurrency is target currency of the exchange
+     * @param buyRate is bank buy rate, null if the exchange is deleted
+     * @param sellRate is bank sell rate, null if the exchange is deleted
+     * @param effectiveFrom is time from which the rates are valid
+     */
+    public void record(Currency baseCurrency, Currency targetCurrency, Double buyRate, Double sellRate, LocalDateTime effectiveFrom) {
+        exchangeRateHistoryRepository.save(new ExchangeRateHistory(baseCurrency, targetCurrency, buyRate, sellRate, effectiveFrom));
+        TransactionUtils.runAfterCommit(this::load);
+    }
+
+    /***
+     * @param at is the moment whose rates are returned
+     * @return snapshot of the rates which were valid at the given moment
+     */
+    public ExchangeRateMatrix.Snapshot getSnapshot(LocalDateTime at) {
+        long timestamp = toEpochMillis(at);
+        double[][] buyRates = ExchangeRateMatrix.newRateMatrix();
+        double[][] sellRates = ExchangeRateMatrix.newRateMatrix();
+
+        for (int base = 0; base < CURRENCY_COUNT; base++) {
+            for (int target = 0; target < CURRENCY_COUNT; target++) {
+                Series series = pairs.get(index(base, target));
+
+                if (series == null) {
+                    continue;
+                }
+
+                int position = series.indexAt(timestamp);
+
+                if (position >= 0) {
+                    buyRates[base][target] = series.buyRates[position];
+                    sellRates[base][target] = series.sellRates[position];
+                }
+            }
+        }
+
+        return ExchangeRateMatrix.Snapshot.of(buyRates, sellRates);
+    }
+
+    private void add(ExchangeRateHistory exchangeRateHistory) {
+        int index = index(exchangeRateHistory.getBaseCurrency().ordinal(), exchangeRateHistory.getTargetCurrency().ordinal());
+        Series series = pairs.get(index);
+
+        if (series == null) {
+            series = new Series(new long[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], 0);
+        }
+
+        pairs.set(index, series.add(toEpochMillis(exchangeRateHistory.getEffectiveFrom()), toRate(exchangeRateHistory.getBuyRate()), toRate(exchangeRateHistory.getSellRate())));
+    }
+
+    private static int index(int base, int target) {
+        return base * CURRENCY_COUNT + target;
+    }
+
+    private static double toRate(Double rate) {
+        return rate == null ? Double.NaN : rate;
+    }
+
+    private static long toEpochMillis(LocalDateTime localDateTime) {
+        return localDateTime.atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    /**
+     * Columns of a single pair. Appending writes beyond the size of the published series, so readers of a published series
+     * never see a partially written record. Arrays are copied when the capacity is exceeded or a record which was committed late
+     * is inserted before the last record.
+     */
+    private static final class Series {
+        private final long[] timestamps;
+        private final double[] buyRates;
+        private final double[] sellRates;
+        private final int size;
+
+        private Series(long[] timestamps, double[] buyRates, double[] sellRates, int size) {
+            this.timestamps = timestamps;
+            this.buyRates = buyRates;
+            this.sellRates = sellRates;
+            this.size = size;
+        }
+
+        /* Timestamps stay sorted for binary search, so the record is placed after the records which are not later than it */
+        private Series add(long timestamp, double buyRate, double sellRate) {
+            int position = indexAt(timestamp) + 1;
+
+            if (position < size) {
+                int capacity = Math.max(size + 1, timestamps.length);
+                long[] addedTimestamps = new long[capacity];
+                double[] addedBuyRates = new double[capacity];
+                double[] addedSellRates = new double[capacity];
+                copyAround(timestamps, addedTimestamps, position);
+                copyAround(buyRates, addedBuyRates, position);
+                copyAround(sellRates, addedSellRates, position);
+                addedTimestamps[position] = timestamp;
+                addedBuyRates[position] = buyRate;
+                addedSellRates[position] = sellRate;
+
+                return new Series(addedTimestamps, addedBuyRates, addedSellRates, size + 1);
+            }
+
+            long[] appendedTimestamps = timestamps;
+            double[] appendedBuyRates = buyRates;
+            double[] appendedSellRates = sellRates;
+
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                appendedTimestamps = Arrays.copyOf(timestamps, capacity);
+                appendedBuyRates = Arrays.copyOf(buyRates, capacity);
+                appendedSellRates = Arrays.copyOf(sellRates, capacity);
+            }
+
+            appendedTimestamps[size] = timestamp;
+            appendedBuyRates[size] = buyRate;
+            appendedSellRates[size] = sellRate;
+
+            return new Series(appendedTimestamps, appendedBuyRates, appendedSellRates, size + 1);
+        }
+
+        /* Copies the elements of the published size and leaves a gap at the given position */
+        private void copyAround(Object source, Object destination, int position) {
+            System.arraycopy(source, 0, destination, 0, position);
+            System.arraycopy(source, position, destination, position + 1, size - position);
+        }
+
+        /* Position of the last record which is effective at the given time, -1 if the pair did not exist yet */
+        private int indexAt(long timestamp) {
+            int low = 0;
+            int high = size - 1;
+            int position = -1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+
+                if (timestamps[middle] <= timestamp) {
+                    position = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return position;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ercanbeyen.bankingapplication.cache;
+
+import com.ercanbeyen.bankingapplication.entity.IdempotentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of the stored responses of idempotent requests.
+ * The least recently used response is evicted when the cache is full and a response expires after the time to live.
+ */
+@Slf4j
+@Component
+public class IdempotencyCache {
+    private final Map<String, CachedResponse> responses;
+    private final long timeToLiveMillis;
+
+    public IdempotencyCache(
+            @Value("${idempotency.cache.maximum-size:10000}") int maximumSize,
+            @Value("${idempotency.time-to-live:24h}") Duration timeToLive) {
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maximumSize;
+            }
+        };
+
+        log.info("Idempotency cache is allocated. Maximum size: {}, Time to live: {}", maximumSize, timeToLive);
+    }
+
+    public synchronized Optional<IdempotentResponse> get(String idempotencyKey) {
+        CachedResponse cachedResponse = responses.get(idempotencyKey);
+
+        if (cachedResponse == null) {
+            return Optional.empty();
+        }
+
+        if (cachedResponse.expiresAt() < System.currentTimeMillis()) {
+            responses.remove(idempotencyKey);
+            return Optional.empty();
+        }
+
+        return Optional.of(cachedResponse.response());
+    }
+
+    public synchronized void put(IdempotentResponse response) {
+        long createdAt = response.getCreatedAt()
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        responses.put(response.getIdempotencyKey(), new CachedResponse(response, createdAt + timeToLiveMillis));
+    }
+
+    public Duration getTimeToLive() {
+        return Duration.ofMillis(timeToLiveMillis);
+    }
+
+    private record CachedResponse(IdempotentResponse response, long expiresAt) {
+
+    }
+}
@@ -0,0 +1,132 @@
+package com.ercanbeyen.bankingapplication.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-process cache of the unread notification counts of the customers.
+ * A count is loaded once and then maintained by the changes of this instance. It expires after the time to live,
+ * so the changes which are made by other instances are picked up without querying the table on each poll.
+ * Loads run outside the lock. A load which overlaps a change of its customer is returned but not cached,
+ * since it may have counted the table before the change.
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounter {
+    private final Map<String, CachedCount> counts;
+    private final Map<String, PendingLoad> pendingLoads = new HashMap<>();
+    private final long timeToLiveMillis;
+
+    public UnreadNotificationCounter(
+            @Value("${notification.unread-counter.maximum-size:100000}") int maximumSize,
+            @Value("${notification.unread-counter.time-to-live:1m}") Duration timeToLive) {
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maximumSize;
+            }
+        };
+
+        log.info("Unread notification counter is allocated. Maximum size: {}, Time to live: {}", maximumSize, timeToLive);
+    }
+
+    /***
+     * @param nationalId is national identity of the customer
+     * @param loader counts the unread notifications in the database if the count is not cached or it is expired
+     * @return number of unread notifications of the customer
+     */
+    public long get(String nationalId, ToLongFunction<String> loader) {
+        PendingLoad pendingLoad;
+        long version;
+
+        synchronized (this) {
+            CachedCount cachedCount = counts.get(nationalId);
+
+            if (cachedCount != null && cachedCount.expiresAt() >= System.currentTimeMillis()) {
+                return cachedCount.count();
+            }
+
+            pendingLoad = pendingLoads.computeIfAbsent(nationalId, key -> new PendingLoad());
+            pendingLoad.loaders++;
+            version = pendingLoad.version;
+        }
+
+        /* Loaded outside the lock, so a slow count does not block the other customers */
+        long count;
+
+        try {
+            count = loader.applyAsLong(nationalId);
+        } catch (RuntimeException exception) {
+            synchronized (this) {
+                release(nationalId, pendingLoad);
+            }
+
+            throw exception;
+        }
+
+        synchronized (this) {
+            if (pendingLoad.version == version) {
+                counts.put(nationalId, new CachedCount(count, System.currentTimeMillis() + timeToLiveMillis));
+            } else {
+                log.info("Unread notification count is not cached, since it is changed while it is loaded");
+            }
+
+            release(nationalId, pendingLoad);
+        }
+
+        return count;
+    }
+
+    /***
+     * Counts which are not cached are left to the loader, so that a partial count is never cached.
+     * @param nationalId is national identity of the customer
+     * @param delta is positive for the created notifications and negative for the read or deleted ones
+     */
+    public synchronized void add(String nationalId, long delta) {
+        counts.computeIfPresent(nationalId, (key, cachedCount) -> new CachedCount(Math.max(0, cachedCount.count() + delta), cachedCount.expiresAt()));
+        invalidatePendingLoad(nationalId);
+    }
+
+    public synchronized void evict(String nationalId) {
+        counts.remove(nationalId);
+        invalidatePendingLoad(nationalId);
+    }
+
+    /* Set based inserts do not report their customers, so every count is loaded again */
+    public synchronized void evictAll() {
+        counts.clear();
+        pendingLoads.values().forEach(pendingLoad -> pendingLoad.version++);
+    }
+
+    private void invalidatePendingLoad(String nationalId) {
+        PendingLoad pendingLoad = pendingLoads.get(nationalId);
+
+        if (pendingLoad != null) {
+            pendingLoad.version++;
+        }
+    }
+
+    private void release(String nationalId, PendingLoad pendingLoad) {
+        if (--pendingLoad.loaders == 0) {
+            pendingLoads.remove(nationalId);
+        }
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+
+    }
+
+    /* Guarded by the counter. Version is increased by every change of the customer while it is loaded */
+    private static final class PendingLoad {
+        private int loaders;
+        private long version;
+    }
+}
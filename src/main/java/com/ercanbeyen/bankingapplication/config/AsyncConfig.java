@@ -0,0 +1,80 @@
+package com.ercanbeyen.bankingapplication.config;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.metric.AsyncExecutorMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Each kind of @Async work runs on its own bounded executor, so a burst of one kind cannot starve the others.
+ * When an executor is full, the task is counted as rejected and run by the caller, which slows the caller down instead of dropping the task.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+    public static final String NOTIFICATION_EXECUTOR = "notificationTaskExecutor";
+    public static final String FILE_STORAGE_EXECUTOR = "fileStorageTaskExecutor";
+    private final AsyncExecutorMetrics asyncExecutorMetrics;
+    private final int notificationPoolSize;
+    private final int notificationQueueCapacity;
+    private final int fileStoragePoolSize;
+    private final int fileStorageQueueCapacity;
+
+    public AsyncConfig(
+            AsyncExecutorMetrics asyncExecutorMetrics,
+            @Value("${async.notification.pool-size:8}") int notificationPoolSize,
+            @Value("${async.notification.queue-capacity:1000}") int notificationQueueCapacity,
+            @Value("${async.file-storage.pool-size:4}") int fileStoragePoolSize,
+            @Value("${async.file-storage.queue-capacity:50}") int fileStorageQueueCapacity) {
+        this.asyncExecutorMetrics = asyncExecutorMetrics;
+        this.notificationPoolSize = notificationPoolSize;
+        this.notificationQueueCapacity = notificationQueueCapacity;
+        this.fileStoragePoolSize = fileStoragePoolSize;
+        this.fileStorageQueueCapacity = fileStorageQueueCapacity;
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationTaskExecutor() {
+        return createTaskExecutor(NOTIFICATION_EXECUTOR, "notification-", notificationPoolSize, notificationQueueCapacity);
+    }
+
+    @Bean(name = FILE_STORAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor fileStorageTaskExecutor() {
+        return createTaskExecutor(FILE_STORAGE_EXECUTOR, "file-storage-", fileStoragePoolSize, fileStorageQueueCapacity);
+    }
+
+    /* Methods annotated by @Async without a qualifier run on the notification executor */
+    @Override
+    public Executor getAsyncExecutor() {
+        return notificationTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (exception, method, parameters) -> log.error(LogMessages.EXCEPTION, exception.getMessage());
+    }
+
+    private ThreadPoolTaskExecutor createTaskExecutor(String name, String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix(threadNamePrefix);
+        taskExecutor.setCorePoolSize(poolSize);
+        taskExecutor.setMaxPoolSize(poolSize);
+        taskExecutor.setQueueCapacity(queueCapacity);
+        taskExecutor.setRejectedExecutionHandler((task, executor) -> {
+            asyncExecutorMetrics.incrementRejections(name);
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(task, executor);
+        });
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        taskExecutor.setAwaitTerminationSeconds(30);
+        asyncExecutorMetrics.monitor(name, taskExecutor);
+        return taskExecutor;
+    }
+}
@@ -0,0 +1,220 @@
+package com.ercanbeyen.bankingapplication.config;
+
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.job.IdRangePartitioner;
+import com.ercanbeyen.bankingapplication.job.SenderHashPartitioner;
+import com.ercanbeyen.bankingapplication.job.reader.KeysetItemReader;
+import com.ercanbeyen.bankingapplication.job.tasklet.NotificationBroadcastTasklet;
+import com.ercanbeyen.bankingapplication.job.writer.DepositInterestWriter;
+import com.ercanbeyen.bankingapplication.job.writer.RegularTransferWriter;
+import com.ercanbeyen.bankingapplication.listener.JobCompletionNotificationListener;
+import com.ercanbeyen.bankingapplication.listener.StepCompletionNotificationListener;
+import com.ercanbeyen.bankingapplication.metric.NotificationBroadcastMetrics;
+import com.ercanbeyen.bankingapplication.metric.RegularTransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository.DueOrder;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import com.ercanbeyen.bankingapplication.service.impl.TransactionService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Scheduled jobs read their entities page by page in partitions and apply the changes in chunk transactions.
+ * Notifications are broadcast by set based inserts over slices of customer ids, whose progress is saved after each slice.
+ * Partitions are processed in parallel by virtual threads, so the jobs do not occupy servlet threads.
+ * Regular transfer orders are partitioned into lanes by their senders instead of id ranges, so that orders of a sender are never executed concurrently.
+ */
+@Configuration
+public class ScheduledJobConfig {
+    public static final String DATE = "date";
+    public static final String MESSAGE = "message";
+    public static final String BIRTH_DATE = "birthDate";
+    private static final int MAXIMUM_WRITE_ATTEMPTS = 3;
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final int gridSize;
+    private final int chunkSize;
+    private final int notificationSliceSize;
+    private final int laneCount;
+    private final SimpleAsyncTaskExecutor partitionTaskExecutor;
+    private final SimpleAsyncTaskExecutor laneTaskExecutor;
+
+    public ScheduledJobConfig(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${scheduled-job.grid-size:4}") int gridSize,
+            @Value("${scheduled-job.chunk-size:100}") int chunkSize,
+            @Value("${scheduled-job.notification-slice-size:10000}") int notificationSliceSize,
+            @Value("${scheduled-job.regular-transfer.lanes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int laneCount) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.gridSize = gridSize;
+        this.chunkSize = chunkSize;
+        this.notificationSliceSize = notificationSliceSize;
+        this.laneCount = laneCount;
+
+        /* Not exposed as beans, so they are never picked by @Async methods or other executor lookups.
+           Concurrency limits bound the number of chunks in flight. */
+        this.partitionTaskExecutor = createTaskExecutor("scheduled-job-", gridSize);
+        this.laneTaskExecutor = createTaskExecutor("regular-transfer-lane-", laneCount);
+    }
+
+    @Bean
+    @StepScope
+    public KeysetItemReader<Integer> readerMaturedDepositAccounts(
+            AccountRepository accountRepository,
+            @Value("#{jobParameters['" + DATE + "']}") LocalDate maturityDate,
+            @Value("#{stepExecutionContext['" + IdRangePartitioner.MINIMUM_ID + "']}") Integer minimumId,
+            @Value("#{stepExecutionContext['" + IdRangePartitioner.MAXIMUM_ID + "']}") Integer maximumId) {
+        return new KeysetItemReader<>(
+                "readerMaturedDepositAccounts",
+                (fromId, limit) -> accountRepository.findIdsOfMaturedDepositAccounts(maturityDate, Math.max(fromId, minimumId), maximumId, limit),
+                Integer::intValue,
+                chunkSize);
+    }
+
+    @Bean
+    @StepScope
+    public DepositInterestWriter writerDepositInterests(
+            TransactionService transactionService,
+            NotificationService notificationService,
+            @Value("#{jobParameters['" + DATE + "']}") LocalDate maturityDate) {
+        return new DepositInterestWriter(transactionService, notificationService, maturityDate);
+    }
+
+    @Bean
+    @StepScope
+    public KeysetItemReader<DueOrder> readerDueRegularTransferOrders(
+            RegularTransferOrderRepository regularTransferOrderRepository,
+            @Value("#{jobParameters['" + DATE + "']}") LocalDate executionDate,
+            @Value("#{stepExecutionContext['" + SenderHashPartitioner.LANE + "']}") Integer lane,
+            @Value("#{stepExecutionContext['" + SenderHashPartitioner.LANE_COUNT + "']}") Integer laneCount) {
+        return new KeysetItemReader<>(
+                "readerDueRegularTransferOrders",
+                (fromId, limit) -> regularTransferOrderRepository.findDueOrders(executionDate, lane, laneCount, fromId, limit),
+                DueOrder::getId,
+                chunkSize);
+    }
+
+    @Bean
+    @StepScope
+    public RegularTransferWriter writerRegularTransfers(
+            TransactionService transactionService,
+            RegularTransferOrderRepository regularTransferOrderRepository,
+            RegularTransferMetrics regularTransferMetrics,
+            @Value("#{jobParameters['" + DATE + "']}") LocalDate executionDate,
+            @Value("#{stepExecutionContext['" + SenderHashPartitioner.LANE + "']}") Integer lane,
+            @Value("#{stepExecution.jobExecution.startTime}") LocalDateTime jobStartTime) {
+        return new RegularTransferWriter(transactionService, regularTransferOrderRepository, regularTransferMetrics, executionDate, lane, jobStartTime);
+    }
+
+    @Bean
+    @StepScope
+    public NotificationBroadcastTasklet notificationBroadcastTasklet(
+            NotificationRepository notificationRepository,
+            NotificationBroadcastMetrics notificationBroadcastMetrics,
+            UnreadNotificationCounter unreadNotificationCounter,
+            @Value("#{jobParameters['" + MESSAGE + "']}") String message,
+            @Value("#{jobParameters['" + BIRTH_DATE + "']}") LocalDate birthDate,
+            @Value("#{stepExecutionContext['" + IdRangePartitioner.MINIMUM_ID + "']}") Integer minimumId,
+            @Value("#{stepExecutionContext['" + IdRangePartitioner.MAXIMUM_ID + "']}") Integer maximumId) {
+        return new NotificationBroadcastTasklet(notificationRepository, notificationBroadcastMetrics, unreadNotificationCounter, message, birthDate, minimumId, maximumId, notificationSliceSize);
+    }
+
+    @Bean
+    public Step stepDepositInterest(@Qualifier("readerMaturedDepositAccounts") KeysetItemReader<Integer> itemReader, @Qualifier("writerDepositInterests") DepositInterestWriter itemWriter) {
+        return new StepBuilder("stepDepositInterest", jobRepository)
+                .<Integer, Integer>chunk(chunkSize, transactionManager)
+                .reader(itemReader)
+                .writer(itemWriter)
+                .faultTolerant()
+                .retry(PessimisticLockingFailureException.class)
+                .retryLimit(MAXIMUM_WRITE_ATTEMPTS)
+                .build();
+    }
+
+    @Bean
+    public Step stepRegularTransfer(@Qualifier("readerDueRegularTransferOrders") KeysetItemReader<DueOrder> itemReader, @Qualifier("writerRegularTransfers") RegularTransferWriter itemWriter) {
+        return new StepBuilder("stepRegularTransfer", jobRepository)
+                .<DueOrder, DueOrder>chunk(chunkSize, transactionManager)
+                .reader(itemReader)
+                .writer(itemWriter)
+                .faultTolerant()
+                .retry(PessimisticLockingFailureException.class)
+                .retryLimit(MAXIMUM_WRITE_ATTEMPTS)
+                .build();
+    }
+
+    @Bean
+    public Step stepCustomerNotification(@Qualifier("notificationBroadcastTasklet") NotificationBroadcastTasklet tasklet) {
+        return new StepBuilder("stepCustomerNotification", jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Job depositInterestJob(JobCompletionNotificationListener jobListener, StepCompletionNotificationListener stepListener, AccountRepository accountRepository, @Qualifier("stepDepositInterest") Step step) {
+        return new JobBuilder("depositInterestJob", jobRepository)
+                .listener(jobListener)
+                .start(partition("stepDepositInterestManager", step, new IdRangePartitioner(accountRepository), stepListener))
+                .build();
+    }
+
+    @Bean
+    public Job regularTransferJob(JobCompletionNotificationListener jobListener, StepCompletionNotificationListener stepListener, @Qualifier("stepRegularTransfer") Step step) {
+        Step managerStep = new StepBuilder("stepRegularTransferManager", jobRepository)
+                .partitioner(step.getName(), new SenderHashPartitioner())
+                .step(step)
+                .gridSize(laneCount)
+                .taskExecutor(laneTaskExecutor)
+                .listener(stepListener)
+                .build();
+
+        return new JobBuilder("regularTransferJob", jobRepository)
+                .listener(jobListener)
+                .start(managerStep)
+                .build();
+    }
+
+    @Bean
+    public Job customerNotificationJob(JobCompletionNotificationListener jobListener, StepCompletionNotificationListener stepListener, CustomerRepository customerRepository, @Qualifier("stepCustomerNotification") Step step) {
+        return new JobBuilder("customerNotificationJob", jobRepository)
+                .listener(jobListener)
+                .start(partition("stepCustomerNotificationManager", step, new IdRangePartitioner(customerRepository), stepListener))
+                .build();
+    }
+
+    private Step partition(String name, Step workerStep, IdRangePartitioner partitioner, StepCompletionNotificationListener listener) {
+        return new StepBuilder(name, jobRepository)
+                .partitioner(workerStep.getName(), partitioner)
+                .step(workerStep)
+                .gridSize(gridSize)
+                .taskExecutor(partitionTaskExecutor)
+                .listener(listener)
+                .build();
+    }
+
+    private static SimpleAsyncTaskExecutor createTaskExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        taskExecutor.setVirtualThreads(true);
+        taskExecutor.setConcurrencyLimit(concurrencyLimit);
+        return taskExecutor;
+    }
+}
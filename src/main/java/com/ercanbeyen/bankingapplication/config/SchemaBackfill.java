@@ -0,0 +1,170 @@
+package com.ercanbeyen.bankingapplication.config;
+
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Schema is managed by the Hibernate schema update, which only adds missing tables, columns and indexes.
+ * The steps which it cannot do are run here on every startup, each of them is idempotent.
+ * Scheduled tasks start after the context is refreshed, so they never see a schema which is not backfilled.
+ */
+@Slf4j
+@Component
+public class SchemaBackfill {
+    private static final String DECIMAL_TYPE = "decimal";
+    private static final String EXCHANGE_RATE_HISTORY_INDEX = "baseCurrency_targetCurrency_effectiveFrom_index";
+    private static final List<MoneyColumn> MONEY_COLUMNS = List.of(
+            new MoneyColumn("accounts", "balance", "NOT NULL"),
+            new MoneyColumn("account_activities", "amount", "NULL"),
+            new MoneyColumn("balance_snapshots", "balance", "NOT NULL"),
+            new MoneyColumn("regular_transfer_orders", "amount", "NULL")
+    );
+    private final JdbcTemplate jdbcTemplate;
+
+    private record MoneyColumn(String table, String column, String nullability) {}
+
+    /* Entity manager factory is only injected so that the Hibernate schema update is completed before the backfill */
+    public SchemaBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        convertMoneyColumnsToDecimal();
+        backfillNextExecutionDates();
+        startDepositTermsFromTermStartColumn();
+        backfillExchangeViews();
+        backfillAccountActivityViews();
+        makeExchangeRateHistoryIndexUnique();
+        seedExchangeRateHistory();
+    }
+
+    /* Schema update does not change types of the existing columns, so the columns which were created as double are converted */
+    private void convertMoneyColumnsToDecimal() {
+        for (MoneyColumn moneyColumn : MONEY_COLUMNS) {
+            String dataType = jdbcTemplate.queryForObject("""
+                    SELECT DATA_TYPE
+                    FROM information_schema.COLUMNS
+                    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?
+                    """, String.class, moneyColumn.table(), moneyColumn.column());
+
+            if (!DECIMAL_TYPE.equalsIgnoreCase(dataType)) {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s MODIFY %s DECIMAL(19,2) %s", moneyColumn.table(), moneyColumn.column(), moneyColumn.nullability()));
+                log.info("{}.{} is converted from {} to decimal", moneyColumn.table(), moneyColumn.column(), dataType);
+            }
+        }
+    }
+
+    /* First date on the weekly period grid from the creation date, which is not before today */
+    private void backfillNextExecutionDates() {
+        int numberOfUpdatedOrders = jdbcTemplate.update("""
+                UPDATE regular_transfer_orders
+                SET next_execution_date = DATE_ADD(DATE(created_at), INTERVAL GREATEST(1, CEIL(DATEDIFF(CURDATE(), DATE(created_at)) / (7 * period))) * 7 * period DAY)
+                WHERE next_execution_date IS NULL
+                """);
+
+        if (numberOfUpdatedOrders > 0) {
+            log.info("Next execution dates of {} regular transfer orders are backfilled", numberOfUpdatedOrders);
+        }
+    }
+
+    /* Maturity date was computed from the update time, so the terms are copied from it once, before the expression is changed */
+    private void startDepositTermsFromTermStartColumn() {
+        String generationExpression = jdbcTemplate.queryForObject("""
+                SELECT GENERATION_EXPRESSION
+                FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'accounts' AND COLUMN_NAME = 'maturity_date'
+                """, String.class);
+
+        if (generationExpression == null || !generationExpression.contains("updated_at")) {
+            return;
+        }
+
+        int numberOfAccounts = jdbcTemplate.update("UPDATE accounts SET term_started_at = updated_at");
+        jdbcTemplate.execute(String.format("ALTER TABLE accounts MODIFY maturity_date %s", Queries.DEPOSIT_MATURITY_DATE));
+        log.info("Terms of {} accounts are started from their update times and maturity date is computed from the term start", numberOfAccounts);
+    }
+
+    /* Projections are written with their sources, so they are only backfilled while they are still empty */
+    private void backfillExchangeViews() {
+        if (exists("exchange_views") || !exists("exchanges")) {
+            return;
+        }
+
+        int numberOfViews = jdbcTemplate.update("""
+                INSERT IGNORE INTO exchange_views (id, target_currency, base_currency, buy_rate, sell_rate)
+                SELECT e.id, e.target_currency, e.base_currency, e.rate * ((100 - e.buy_percentage) / 100), e.rate * ((100 + e.sell_percentage) / 100)
+                FROM exchanges e
+                """);
+        log.info("{} exchange views are backfilled", numberOfViews);
+    }
+
+    private void backfillAccountActivityViews() {
+        if (exists("account_activity_views") || !exists("account_activities")) {
+            return;
+        }
+
+        int numberOfViews = jdbcTemplate.update("""
+                INSERT IGNORE INTO account_activity_views (id, account_activity_id, type, currency, amount, sender_account_id, receiver_account_id, created_at)
+                SELECT UUID(), v.id, v.type, v.currency, v.amount, v.sender_account_id, v.receiver_account_id, v.created_at
+                FROM (
+                    SELECT t.id, t.type, a.currency, t.amount, t.sender_account_id, t.receiver_account_id, t.created_at
+                    FROM account_activities t JOIN accounts a ON a.id = t.sender_account_id
+                    UNION
+                    SELECT t.id, t.type, a.currency, t.amount, t.sender_account_id, t.receiver_account_id, t.created_at
+                    FROM account_activities t JOIN accounts a ON a.id = t.receiver_account_id
+                ) v
+                """);
+        log.info("{} account activity views are backfilled", numberOfViews);
+    }
+
+    /* Index was created before it became unique, so the records which were seeded by several instances are removed first */
+    private void makeExchangeRateHistoryIndexUnique() {
+        Integer nonUnique = jdbcTemplate.queryForObject("""
+                SELECT MIN(NON_UNIQUE)
+                FROM information_schema.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'exchange_rate_history' AND INDEX_NAME = ?
+                """, Integer.class, EXCHANGE_RATE_HISTORY_INDEX);
+
+        if (nonUnique == null || nonUnique == 0) {
+            return;
+        }
+
+        int numberOfDeletedRecords = jdbcTemplate.update("""
+                DELETE h1
+                FROM exchange_rate_history h1
+                JOIN exchange_rate_history h2 ON h2.base_currency = h1.base_currency AND h2.target_currency = h1.target_currency
+                    AND h2.effective_from = h1.effective_from AND h2.id < h1.id
+                """);
+        jdbcTemplate.execute(String.format("ALTER TABLE exchange_rate_history DROP INDEX %1$s, ADD UNIQUE INDEX %1$s (base_currency, target_currency, effective_from)", EXCHANGE_RATE_HISTORY_INDEX));
+        log.info("{} duplicate exchange rate history records are deleted and {} is made unique", numberOfDeletedRecords, EXCHANGE_RATE_HISTORY_INDEX);
+    }
+
+    /* Seed of each exchange starts from its last update, so the unique index ignores the same seed of the other instances */
+    private void seedExchangeRateHistory() {
+        int numberOfRecords = jdbcTemplate.update("""
+                INSERT IGNORE INTO exchange_rate_history (base_currency, target_currency, buy_rate, sell_rate, effective_from)
+                SELECT v.base_currency, v.target_currency, v.buy_rate, v.sell_rate, COALESCE(e.updated_at, e.created_at)
+                FROM exchanges e JOIN exchange_views v ON v.id = e.id
+                WHERE COALESCE(e.updated_at, e.created_at) IS NOT NULL AND NOT EXISTS (
+                    SELECT 1
+                    FROM exchange_rate_history h
+                    WHERE h.base_currency = v.base_currency AND h.target_currency = v.target_currency
+                )
+                """);
+
+        if (numberOfRecords > 0) {
+            log.info("Exchange rate history of {} exchanges is seeded", numberOfRecords);
+        }
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format("SELECT EXISTS(SELECT 1 FROM %s)", table), Boolean.class));
+    }
+}
@@ -16,17 +16,4 @@ public enum Entity {
     EXCHANGE("Exchange");
 
     private final String value;
-
-    public String getCollectionUrl() {
-        String resource = getResource();
-        return "http://localhost:8080/api/v1/" + resource + "s";
-    }
-
-    private String getResource() {
-        return switch (this) {
-            case REGULAR_TRANSFER_ORDER -> "regular-transfer-order";
-            case ACCOUNT_ACTIVITY -> "account-activitie";
-            default -> value.toLowerCase();
-        };
-    }
 }
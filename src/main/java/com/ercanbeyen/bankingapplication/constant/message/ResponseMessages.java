@@ -14,6 +14,12 @@ public final class ResponseMessages {
     public static final String INVALID_PHONE_NUMBER = "Invalid phone number";
     public static final String IMPROPER_ACCOUNT_ACTIVITY = "Account activity is improper";
     public static final String UNPAIRED_CURRENCIES = "Currencies must be %s";
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds";
+    public static final String CONCURRENT_TRANSACTION_CONFLICT = "Transaction could not be completed because of concurrent transactions. Please try again";
+    public static final String INVALID_IDEMPOTENCY_KEY = "Idempotency key must contain between 1 and %d characters";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key has already been used for a different request";
+    public static final String IDEMPOTENT_REQUEST_IN_PROGRESS = "Request with the same idempotency key is in progress";
+    public static final String EXCHANGE_PATH_CYCLE = "Exchange rates contain a cycle, so the currencies cannot be converted. Please try again later";
 
     private ResponseMessages() {}
 }
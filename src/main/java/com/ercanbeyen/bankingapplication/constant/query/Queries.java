@@ -2,6 +2,10 @@ package com.ercanbeyen.bankingapplication.constant.query;
 
 public class Queries {
     public static final String GET_NOW_TIMESTAMP = "TIMESTAMP DEFAULT NOW()";
+    public static final String MONEY_AMOUNT = "DECIMAL(19,2)";
+    public static final String DEPOSIT_MATURITY_DATE = "DATE AS (DATE_ADD(DATE(term_started_at), INTERVAL deposit_period MONTH)) STORED";
+    public static final String BIRTH_MONTH = "TINYINT AS (MONTH(birth_date)) STORED";
+    public static final String BIRTH_DAY = "TINYINT AS (DAYOFMONTH(birth_date)) STORED";
 
     private Queries() {}
 }
@@ -1,12 +1,15 @@
 package com.ercanbeyen.bankingapplication.controller;
 
 import com.ercanbeyen.bankingapplication.dto.AccountActivityDto;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.view.AccountActivityView;
 import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
 import com.ercanbeyen.bankingapplication.service.AccountActivityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,9 +20,17 @@ public class AccountActivityController {
     private final AccountActivityService accountActivityService;
 
     @GetMapping
-    public ResponseEntity<List<AccountActivityDto>> getAccountActivities(AccountActivityFilteringOptions options) {
-        List<AccountActivityDto> accountActivityDtos = accountActivityService.getAccountActivities(options);
-        return ResponseEntity.ok(accountActivityDtos);
+    public ResponseEntity<CursorPageResponse<AccountActivityDto>> getAccountActivities(AccountActivityFilteringOptions options) {
+        CursorPageResponse<AccountActivityDto> response = accountActivityService.getAccountActivities(options);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccountActivities(AccountActivityFilteringOptions options) {
+        StreamingResponseBody responseBody = outputStream -> accountActivityService.exportAccountActivities(options, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
     }
 
     @GetMapping("/{id}")
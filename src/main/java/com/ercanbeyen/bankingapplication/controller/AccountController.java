@@ -2,29 +2,38 @@ package com.ercanbeyen.bankingapplication.controller;
 
 import com.ercanbeyen.bankingapplication.constant.enums.*;
 import com.ercanbeyen.bankingapplication.dto.AccountDto;
+import com.ercanbeyen.bankingapplication.dto.request.BatchTransferRequest;
 import com.ercanbeyen.bankingapplication.dto.request.ExchangeRequest;
 import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.dto.response.BalanceResponse;
 import com.ercanbeyen.bankingapplication.option.AccountFilteringOptions;
 import com.ercanbeyen.bankingapplication.dto.response.MessageResponse;
 import com.ercanbeyen.bankingapplication.dto.response.CustomerStatisticsResponse;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
 import com.ercanbeyen.bankingapplication.service.impl.AccountService;
+import com.ercanbeyen.bankingapplication.service.impl.BalanceSnapshotService;
 import com.ercanbeyen.bankingapplication.util.AccountUtils;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 public class AccountController extends BaseController<AccountDto, AccountFilteringOptions> {
     private final AccountService accountService;
+    private final BalanceSnapshotService balanceSnapshotService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, BalanceSnapshotService balanceSnapshotService) {
         super(accountService);
         this.accountService = accountService;
+        this.balanceSnapshotService = balanceSnapshotService;
     }
 
     @PostMapping
@@ -41,11 +50,18 @@ public class AccountController extends BaseController<AccountDto, AccountFilteri
         return new ResponseEntity<>(accountService.updateEntity(id, request), HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<BalanceResponse> getBalance(
+            @PathVariable("id") Integer id,
+            @RequestParam(name = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return new ResponseEntity<>(balanceSnapshotService.getBalance(id, at), HttpStatus.OK);
+    }
+
     @PutMapping("/{id}/current")
     public ResponseEntity<MessageResponse<String>> updateBalanceOfCurrentAccount(
             @PathVariable("id") Integer id,
             @RequestParam("activityType") AccountActivityType activityType,
-            @RequestParam("amount") @Valid @Min(value = 1, message = "Minimum amount should be {value}") Double amount) {
+            @RequestParam("amount") @Valid @Min(value = 1, message = "Minimum amount should be {value}") BigDecimal amount) {
         AccountUtils.checkAccountActivityForCurrentAccount(activityType);
         MessageResponse<String> response = new MessageResponse<>(accountService.updateBalanceOfCurrentAccount(id, activityType, amount));
         return new ResponseEntity<>(response, HttpStatus.OK);
@@ -64,6 +80,12 @@ public class AccountController extends BaseController<AccountDto, AccountFilteri
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping("/transfers:batch")
+    public ResponseEntity<MessageResponse<List<TransferResult>>> transferMoneyInBatch(@RequestBody @Valid BatchTransferRequest request) {
+        MessageResponse<List<TransferResult>> response = new MessageResponse<>(accountService.transferMoneyInBatch(request));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PutMapping("/exchange")
     public ResponseEntity<MessageResponse<String>> exchangeMoney(@RequestBody @Valid ExchangeRequest request) {
         MessageResponse<String> response = new MessageResponse<>(accountService.exchangeMoney(request));
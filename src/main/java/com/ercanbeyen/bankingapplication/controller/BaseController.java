@@ -1,8 +1,10 @@
 package com.ercanbeyen.bankingapplication.controller;
 
 import com.ercanbeyen.bankingapplication.dto.BaseDto;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.option.BaseFilteringOptions;
 import com.ercanbeyen.bankingapplication.service.BaseService;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,16 +12,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RequiredArgsConstructor
 @Slf4j
 public abstract class BaseController<T extends BaseDto, V extends BaseFilteringOptions> {
     private final BaseService<T, V> baseService;
 
     @GetMapping
-    public ResponseEntity<List<T>> getEntities(V options) {
-        return new ResponseEntity<>(baseService.getEntities(options), HttpStatus.OK);
+    public ResponseEntity<CursorPageResponse<T>> getEntities(V options) {
+        CursorPageResponse<T> response = PaginationUtils.constructCursorPage(baseService.getEntities(options), options.getSize());
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
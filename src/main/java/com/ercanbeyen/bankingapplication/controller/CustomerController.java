@@ -5,6 +5,8 @@ import com.ercanbeyen.bankingapplication.entity.File;
 import com.ercanbeyen.bankingapplication.option.AccountFilteringOptions;
 import com.ercanbeyen.bankingapplication.option.CustomerFilteringOptions;
 import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
+import com.ercanbeyen.bankingapplication.option.NotificationFilteringOptions;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.dto.response.MessageResponse;
 import com.ercanbeyen.bankingapplication.service.impl.CustomerService;
 import com.ercanbeyen.bankingapplication.util.PhotoUtils;
@@ -58,13 +60,13 @@ public class CustomerController extends BaseController<CustomerDto, CustomerFilt
     }
 
     @GetMapping("/{id}/transactions")
-    public ResponseEntity<List<AccountActivityDto>> getAccountActivities(@PathVariable("id") Integer id, AccountActivityFilteringOptions options) {
+    public ResponseEntity<CursorPageResponse<AccountActivityDto>> getAccountActivities(@PathVariable("id") Integer id, AccountActivityFilteringOptions options) {
         return ResponseEntity.ok(customerService.getAccountActivities(id, options));
     }
 
     @GetMapping("/{id}/notifications")
-    public ResponseEntity<List<NotificationDto>> getNotifications(@PathVariable("id") Integer id) {
-        return ResponseEntity.ok(customerService.getNotifications(id));
+    public ResponseEntity<CursorPageResponse<NotificationDto>> getNotifications(@PathVariable("id") Integer id, NotificationFilteringOptions options) {
+        return ResponseEntity.ok(customerService.getNotifications(id, options));
     }
 
     @GetMapping("/{customerId}/accounts/{accountId}/regular-transfer-orders")
@@ -2,26 +2,35 @@ package com.ercanbeyen.bankingapplication.controller;
 
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.dto.ExchangeDto;
+import com.ercanbeyen.bankingapplication.dto.request.BatchExchangeQuoteRequest;
+import com.ercanbeyen.bankingapplication.dto.response.ExchangeQuote;
 import com.ercanbeyen.bankingapplication.dto.response.MessageResponse;
 import com.ercanbeyen.bankingapplication.view.ExchangeView;
 import com.ercanbeyen.bankingapplication.option.ExchangeFilteringOptions;
+import com.ercanbeyen.bankingapplication.service.impl.ExchangeRateStreamService;
 import com.ercanbeyen.bankingapplication.service.impl.ExchangeService;
 import com.ercanbeyen.bankingapplication.util.ExchangeUtils;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/exchanges")
 public class ExchangeController extends BaseController<ExchangeDto, ExchangeFilteringOptions> {
     private final ExchangeService exchangeService;
+    private final ExchangeRateStreamService exchangeRateStreamService;
 
-    public ExchangeController(ExchangeService exchangeService) {
+    public ExchangeController(ExchangeService exchangeService, ExchangeRateStreamService exchangeRateStreamService) {
         super(exchangeService);
         this.exchangeService = exchangeService;
+        this.exchangeRateStreamService = exchangeRateStreamService;
     }
 
     @GetMapping("/views")
@@ -29,13 +38,25 @@ public class ExchangeController extends BaseController<ExchangeDto, ExchangeFilt
         return ResponseEntity.ok(exchangeService.getExchangeViews());
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamExchangeRates() {
+        return exchangeRateStreamService.subscribe();
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<MessageResponse<List<ExchangeQuote>>> quoteMoneyExchanges(@RequestBody @Valid BatchExchangeQuoteRequest request) {
+        MessageResponse<List<ExchangeQuote>> response = new MessageResponse<>(exchangeService.quoteMoneyExchanges(request.quotes()));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{from}/{to}/{amount}")
     public ResponseEntity<MessageResponse<String>> exchangeMoney(
             @PathVariable("from") Currency fromCurrency,
             @PathVariable("to") Currency toCurrency,
-            @PathVariable("amount") @Valid @Min(value = 1, message = "Minimum amount should be {value}") Double amount) {
+            @PathVariable("amount") @Valid @Min(value = 1, message = "Minimum amount should be {value}") Double amount,
+            @RequestParam(name = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
         ExchangeUtils.checkCurrencies(fromCurrency, toCurrency);
-        MessageResponse<String> response = new MessageResponse<>(exchangeService.calculateMoneyExchange(fromCurrency, toCurrency, amount));
+        MessageResponse<String> response = new MessageResponse<>(exchangeService.calculateMoneyExchange(fromCurrency, toCurrency, amount, at));
         return ResponseEntity.ok(response);
     }
 }
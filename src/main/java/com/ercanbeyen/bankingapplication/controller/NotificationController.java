@@ -32,4 +32,21 @@ public class NotificationController {
         return ResponseEntity.noContent()
                 .build();
     }
+
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<NotificationDto> markNotificationAsRead(@PathVariable("id") String id) {
+        return ResponseEntity.ok(notificationService.markNotificationAsRead(id));
+    }
+
+    @PatchMapping("/read")
+    public ResponseEntity<MessageResponse<String>> markNotificationsAsRead(@RequestParam("of") String nationalId) {
+        MessageResponse<String> response = new MessageResponse<>(notificationService.markNotificationsAsRead(nationalId));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<MessageResponse<Long>> getUnreadNotificationCount(@RequestParam("of") String nationalId) {
+        MessageResponse<Long> response = new MessageResponse<>(notificationService.getUnreadNotificationCount(nationalId));
+        return ResponseEntity.ok(response);
+    }
 }
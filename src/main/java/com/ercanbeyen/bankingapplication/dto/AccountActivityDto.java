@@ -2,13 +2,15 @@ package com.ercanbeyen.bankingapplication.dto;
 
 import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public record AccountActivityDto(
+        String id,
         AccountActivityType type,
         Integer senderAccountId,
         Integer receiverAccountId,
-        Double amount,
+        BigDecimal amount,
         LocalDateTime createdAt,
         String explanation) {
 
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 import org.hibernate.validator.constraints.Range;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,7 +18,7 @@ public non-sealed class AccountDto extends BaseDto {
     private String customerNationalId;
     private City city;
     private Currency currency;
-    private Double balance;
+    private BigDecimal balance;
     private AccountType type;
     private LocalDateTime closedAt;
     /* Deposit Account fields */
@@ -3,11 +3,19 @@ package com.ercanbeyen.bankingapplication.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import java.time.LocalDateTime;
+
 public record NotificationDto(
+        String id,
         @NotBlank(message = "National identity should not be blank")
         @Pattern(regexp = "\\d{11}", message = "Length of national identity must be 11 characters")
         String customerNationalId,
         @NotBlank(message = "Message should not be blank")
-        String message) {
+        String message,
+        LocalDateTime createdAt,
+        LocalDateTime readAt) {
 
+    public NotificationDto(String customerNationalId, String message) {
+        this(null, customerNationalId, message, null, null);
+    }
 }
@@ -3,12 +3,14 @@ package com.ercanbeyen.bankingapplication.dto;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.math.BigDecimal;
+
 public record RegularTransferDto(
         @NotNull(message = "receiver account id should not be null")
         Integer receiverAccountId,
         @NotNull(message = "Amount should not be null")
         @Min(value = 1, message = "Minimum amount should be {value}")
-        Double amount,
+        BigDecimal amount,
         String explanation) {
 
 }
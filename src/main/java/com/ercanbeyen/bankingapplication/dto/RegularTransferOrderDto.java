@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Data
 public non-sealed class RegularTransferOrderDto extends BaseDto {
     private Integer senderAccountId;
@@ -13,4 +15,5 @@ public non-sealed class RegularTransferOrderDto extends BaseDto {
     private Integer period;
     @Valid
     private RegularTransferDto regularTransferDto;
+    private LocalDate nextExecutionDate;
 }
@@ -3,10 +3,17 @@ package com.ercanbeyen.bankingapplication.dto.request;
 import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
 import com.ercanbeyen.bankingapplication.entity.Account;
 
+import java.math.BigDecimal;
+
 public record AccountActivityRequest(
         AccountActivityType activityType,
         Account senderAccount,
         Account receiverAccount,
-        Double amount,
+        BigDecimal amount,
+        BigDecimal receivedAmount, // in currency of the receiver account, it differs from the amount only for exchanges
         String explanation) {
+
+    public AccountActivityRequest(AccountActivityType activityType, Account senderAccount, Account receiverAccount, BigDecimal amount, String explanation) {
+        this(activityType, senderAccount, receiverAccount, amount, amount, explanation);
+    }
 }
@@ -0,0 +1,14 @@
+package com.ercanbeyen.bankingapplication.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchExchangeQuoteRequest(
+        @NotEmpty(message = "Quotes should not be empty")
+        @Size(max = 1000, message = "Maximum number of quotes in a batch is {max}")
+        List<@Valid ExchangeQuoteRequest> quotes) {
+
+}
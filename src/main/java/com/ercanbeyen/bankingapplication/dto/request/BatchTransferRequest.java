@@ -0,0 +1,14 @@
+package com.ercanbeyen.bankingapplication.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransferRequest(
+        @NotEmpty(message = "Transfers should not be empty")
+        @Size(max = 1000, message = "Maximum number of transfers in a batch is {max}")
+        List<@Valid TransferRequest> transfers) {
+
+}
@@ -0,0 +1,12 @@
+package com.ercanbeyen.bankingapplication.dto.request;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record ExchangeQuoteRequest(
+        @NotNull(message = "From currency should not be null") Currency from,
+        @NotNull(message = "To currency should not be null") Currency to,
+        @NotNull(message = "Amount should not be null") @Min(value = 1, message = "Minimum amount is {value}") Double amount) {
+
+}
@@ -1,16 +1,21 @@
 package com.ercanbeyen.bankingapplication.dto.request;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.math.BigDecimal;
+
 public record TransferRequest(
         @NotNull(message = "Sender account id should not be null")
         Integer senderAccountId,
         @NotNull(message = "Receiver account id should not be null")
         Integer receiverAccountId,
+        @NotNull(message = "Amount should not be null")
         @Min(value = 1, message = "Minimum amount is {value}")
-        Double amount,
+        @Digits(integer = 17, fraction = 2, message = "Amount should have at most {fraction} fraction digits")
+        BigDecimal amount,
         @Size(max = 500, message = "Maximum length for explanation is {max} characters")
         String explanation) {
 
@@ -0,0 +1,10 @@
+package com.ercanbeyen.bankingapplication.dto.response;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BalanceResponse(Integer accountId, Currency currency, BigDecimal balance, LocalDateTime at, LocalDateTime snapshotTakenAt) {
+
+}
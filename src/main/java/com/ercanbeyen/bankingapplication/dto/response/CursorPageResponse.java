@@ -0,0 +1,7 @@
+package com.ercanbeyen.bankingapplication.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(List<T> content, String nextCursor) {
+
+}
@@ -0,0 +1,16 @@
+package com.ercanbeyen.bankingapplication.dto.response;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+
+/***
+ * @param convertedAmount is null if there is no exchange path between the currencies
+ * @param rate is units of the to currency which are bought by one unit of the from currency
+ */
+public record ExchangeQuote(
+        Currency from,
+        Currency to,
+        Double amount,
+        Double convertedAmount,
+        Double rate) {
+
+}
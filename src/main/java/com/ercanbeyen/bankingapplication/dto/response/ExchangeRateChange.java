@@ -0,0 +1,18 @@
+package com.ercanbeyen.bankingapplication.dto.response;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+
+import java.time.LocalDateTime;
+
+/***
+ * @param buyRate is bank buy rate, null if the exchange is deleted
+ * @param sellRate is bank sell rate, null if the exchange is deleted
+ */
+public record ExchangeRateChange(
+        Currency baseCurrency,
+        Currency targetCurrency,
+        Double buyRate,
+        Double sellRate,
+        LocalDateTime changedAt) {
+
+}
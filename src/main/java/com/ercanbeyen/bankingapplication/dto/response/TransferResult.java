@@ -0,0 +1,10 @@
+package com.ercanbeyen.bankingapplication.dto.response;
+
+public record TransferResult(
+        int index,
+        Integer senderAccountId,
+        Integer receiverAccountId,
+        boolean completed,
+        String message) {
+
+}
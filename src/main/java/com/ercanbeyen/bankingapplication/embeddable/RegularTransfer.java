@@ -1,6 +1,8 @@
 package com.ercanbeyen.bankingapplication.embeddable;
 
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
 import com.ercanbeyen.bankingapplication.entity.Account;
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -8,6 +10,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @Embeddable
 @AllArgsConstructor
@@ -16,6 +20,7 @@ public class RegularTransfer {
     @ManyToOne
     @JoinColumn(name = "receiver_account_id", referencedColumnName = "id")
     Account receiverAccount;
-    Double amount;
+    @Column(columnDefinition = Queries.MONEY_AMOUNT)
+    BigDecimal amount;
     String explanation;
 }
@@ -3,16 +3,24 @@ package com.ercanbeyen.bankingapplication.entity;
 import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
 import com.ercanbeyen.bankingapplication.constant.enums.City;
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "accounts")
+/* Pages are read in id order, so id follows the equality filters and the cursor is seeked inside the index */
+@Table(name = "accounts", indexes = {
+        @Index(name = "type_closedAt_id_index", columnList = "type, closed_at, id"),
+        @Index(name = "maturityDate_index", columnList = "maturity_date")
+})
 @NamedStoredProcedureQuery(
         name = "getTotalAccountsByCityAndTypeAndCurrency",
         procedureName = "get_total_accounts_by_city_and_type_and_currency",
@@ -32,11 +40,17 @@ public non-sealed class Account extends BaseEntity {
     private City city;
     @Enumerated(EnumType.STRING)
     private Currency currency;
-    private double balance;
+    @Column(columnDefinition = Queries.MONEY_AMOUNT)
+    private BigDecimal balance = BigDecimal.ZERO;
     private LocalDateTime closedAt;
     @OneToMany(mappedBy = "senderAccount", cascade = CascadeType.ALL)
     private List<RegularTransferOrder> regularTransferOrders = new ArrayList<>();
     /* Deposit Account fields */
     private Double interestRatio;
     private Integer depositPeriod;
+    @CreationTimestamp
+    @Column(name = "term_started_at", updatable = false, columnDefinition = Queries.GET_NOW_TIMESTAMP)
+    private LocalDateTime termStartedAt; // moved only by the renewal of the term, so updates of the account do not restart the term
+    @Column(name = "maturity_date", insertable = false, updatable = false, columnDefinition = Queries.DEPOSIT_MATURITY_DATE)
+    private LocalDate maturityDate; // computed by the database from the start of the term and the deposit period
 }
@@ -7,11 +7,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "account_activities")
+@Table(name = "account_activities", indexes = {
+        @Index(name = "senderAccountId_createdAt_index", columnList = "sender_account_id, created_at"),
+        @Index(name = "receiverAccountId_createdAt_index", columnList = "receiver_account_id, created_at")
+})
 @NoArgsConstructor
 public class AccountActivity {
     @Id
@@ -25,18 +29,22 @@ public class AccountActivity {
     @ManyToOne
     @JoinColumn(name = "receiver_account_id", referencedColumnName = "id")
     private Account receiverAccount;
-    private Double amount;
+    @Column(columnDefinition = Queries.MONEY_AMOUNT)
+    private BigDecimal amount; // in currency of the sender account if there is one
+    @Column(name = "received_amount", columnDefinition = Queries.MONEY_AMOUNT)
+    private BigDecimal receivedAmount; // in currency of the receiver account
     @CreationTimestamp
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", columnDefinition = Queries.GET_NOW_TIMESTAMP)
     private LocalDateTime createdAt;
     private String explanation;
 
-    public AccountActivity(AccountActivityType type, Account senderAccount, Account receiverAccount, Double amount, String explanation) {
+    public AccountActivity(AccountActivityType type, Account senderAccount, Account receiverAccount, BigDecimal amount, BigDecimal receivedAmount, String explanation) {
         this.type = type;
         this.senderAccount = senderAccount;
         this.receiverAccount = receiverAccount;
         this.amount = amount;
+        this.receivedAmount = receivedAmount;
         this.explanation = explanation;
     }
 }
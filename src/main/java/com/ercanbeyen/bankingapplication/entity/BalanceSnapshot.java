@@ -0,0 +1,29 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "balance_snapshots", indexes = {@Index(name = "accountId_takenAt_index", columnList = "account_id, taken_at", unique = true)})
+@NoArgsConstructor
+public class BalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", referencedColumnName = "id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Account account;
+    @Column(columnDefinition = Queries.MONEY_AMOUNT)
+    private BigDecimal balance;
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
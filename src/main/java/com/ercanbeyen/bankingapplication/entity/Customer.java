@@ -1,6 +1,7 @@
 package com.ercanbeyen.bankingapplication.entity;
 
 import com.ercanbeyen.bankingapplication.constant.enums.Gender;
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
 import com.ercanbeyen.bankingapplication.embeddable.Address;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -14,7 +15,10 @@ import java.util.Optional;
 
 @Setter
 @Entity
-@Table(name = "customers", indexes = {@Index(name = "nationalId_index", columnList = "nationalId")})
+@Table(name = "customers", indexes = {
+        @Index(name = "nationalId_index", columnList = "nationalId"),
+        @Index(name = "birthMonthAndDay_index", columnList = "birth_month, birth_day")
+})
 public non-sealed class Customer extends BaseEntity {
     @Getter
     @Column(nullable = false, length = 100)
@@ -37,6 +41,11 @@ public non-sealed class Customer extends BaseEntity {
     @Getter
     @Column(name = "birth_date")
     private LocalDate birthDate;
+    /* Generated from the birth date, so that birthdays are found by the index */
+    @Column(name = "birth_month", insertable = false, updatable = false, columnDefinition = Queries.BIRTH_MONTH)
+    private Integer birthMonth;
+    @Column(name = "birth_day", insertable = false, updatable = false, columnDefinition = Queries.BIRTH_DAY)
+    private Integer birthDay;
     @Getter
     @Embedded
     @AttributeOverride(name = "city", column = @Column(name = "city"))
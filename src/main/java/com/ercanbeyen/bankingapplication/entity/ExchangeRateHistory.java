@@ -0,0 +1,39 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "exchange_rate_history", indexes = {
+        @Index(name = "baseCurrency_targetCurrency_effectiveFrom_index", columnList = "base_currency, target_currency, effective_from", unique = true),
+        @Index(name = "effectiveFrom_index", columnList = "effective_from")
+})
+@NoArgsConstructor
+public class ExchangeRateHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "base_currency", nullable = false)
+    private Currency baseCurrency;
+    @Column(name = "target_currency", nullable = false)
+    private Currency targetCurrency;
+    @Column(name = "buy_rate")
+    private Double buyRate;  // null after the exchange is deleted
+    @Column(name = "sell_rate")
+    private Double sellRate; // null after the exchange is deleted
+    @Column(name = "effective_from", nullable = false)
+    private LocalDateTime effectiveFrom;
+
+    public ExchangeRateHistory(Currency baseCurrency, Currency targetCurrency, Double buyRate, Double sellRate, LocalDateTime effectiveFrom) {
+        this.baseCurrency = baseCurrency;
+        this.targetCurrency = targetCurrency;
+        this.buyRate = buyRate;
+        this.sellRate = sellRate;
+        this.effectiveFrom = effectiveFrom;
+    }
+}
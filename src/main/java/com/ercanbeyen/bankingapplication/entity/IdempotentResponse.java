@@ -0,0 +1,35 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "idempotent_responses", indexes = {@Index(name = "createdAt_index", columnList = "created_at")})
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponse {
+    public static final int PENDING_STATUS = 0; // key is claimed by a request which is still executing
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+    @Column(name = "request_hash", columnDefinition = "BINARY(32)", nullable = false)
+    private byte[] requestHash;
+    @Column(nullable = false)
+    private int status;
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    @Column(columnDefinition = "BLOB")
+    private byte[] body;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public boolean isPending() {
+        return status == PENDING_STATUS;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sequence of the last ledger entry whose balance delta and account activity are committed to the database.
+ * It is written in the same transaction as the entries, so recovery never applies an entry twice.
+ */
+@Data
+@Entity
+@Table(name = "ledger_checkpoints")
+@NoArgsConstructor
+public class LedgerCheckpoint {
+    @Id
+    private Integer id;
+    @Column(nullable = false)
+    private long sequence;
+}
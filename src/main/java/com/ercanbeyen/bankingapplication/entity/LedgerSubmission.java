@@ -0,0 +1,21 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Idempotency key of a ledger entry whose balance delta and account activity are committed to the database.
+ * It is written in the same transaction as the entry, so a repeated submission of the same operation is detected after the flush.
+ */
+@Data
+@Entity
+@Table(name = "ledger_submissions")
+@NoArgsConstructor
+public class LedgerSubmission {
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    @Column(nullable = false)
+    private long sequence;
+}
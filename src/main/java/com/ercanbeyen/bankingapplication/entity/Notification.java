@@ -1,11 +1,18 @@
 package com.ercanbeyen.bankingapplication.entity;
 
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "customerNationalId_createdAt_index", columnList = "customer_national_id, created_at"),
+        @Index(name = "createdAt_index", columnList = "created_at")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -14,4 +21,10 @@ public class Notification {
     @JoinColumn(name = "customer_national_id", referencedColumnName = "national_id")
     private Customer customer;
     private String message;
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", columnDefinition = Queries.GET_NOW_TIMESTAMP) // default of the set based inserts
+    private LocalDateTime createdAt;
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
 }
@@ -0,0 +1,25 @@
+package com.ercanbeyen.bankingapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "notification_outbox", indexes = {@Index(name = "createdAt_index", columnList = "created_at")})
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID) // not an identity column, so that entries are inserted in JDBC batches
+    private String id;
+    @Column(name = "customer_national_id", nullable = false, length = 11)
+    private String customerNationalId;
+    @Column(nullable = false)
+    private String message;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
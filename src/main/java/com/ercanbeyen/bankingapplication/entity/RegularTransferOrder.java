@@ -4,9 +4,11 @@ import com.ercanbeyen.bankingapplication.embeddable.RegularTransfer;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Data
 @Entity
-@Table(name = "regular_transfer_orders")
+@Table(name = "regular_transfer_orders", indexes = {@Index(name = "nextExecutionDate_index", columnList = "next_execution_date")})
 public non-sealed class RegularTransferOrder extends BaseEntity {
     private Integer id;
     @ManyToOne
@@ -14,4 +16,6 @@ public non-sealed class RegularTransferOrder extends BaseEntity {
     private Integer period;
     @Embedded
     private RegularTransfer regularTransfer;
+    @Column(name = "next_execution_date")
+    private LocalDate nextExecutionDate; // it is advanced by the period after each execution, orders which are older than the column are backfilled on startup
 }
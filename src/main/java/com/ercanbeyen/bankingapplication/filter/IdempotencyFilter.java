@@ -0,0 +1,247 @@
+package com.ercanbeyen.bankingapplication.filter;
+
+import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.bankingapplication.dto.response.ExceptionResponse;
+import com.ercanbeyen.bankingapplication.entity.IdempotentResponse;
+import com.ercanbeyen.bankingapplication.service.impl.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deduplicates retried balance mutations of accounts which carry an Idempotency-Key header.
+ * A request claims its key in the database with a pending response, so a duplicate on any instance is rejected while it is executing.
+ * The first response of a key is stored, and a retry with the same key and the same request gets the stored response
+ * without reaching the controller. Requests without the header are not affected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAXIMUM_KEY_LENGTH = 64;
+    private static final List<PathPattern> IDEMPOTENT_PATHS = List.of(
+            PathPatternParser.defaultInstance.parse("/api/v1/accounts/transfer"),
+            PathPatternParser.defaultInstance.parse("/api/v1/accounts/exchange"),
+            PathPatternParser.defaultInstance.parse("/api/v1/accounts/{id}/current")
+    );
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!HttpMethod.PUT.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAXIMUM_KEY_LENGTH) {
+            writeExceptionResponse(response, HttpStatus.BAD_REQUEST, String.format(ResponseMessages.INVALID_IDEMPOTENCY_KEY, MAXIMUM_KEY_LENGTH));
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        byte[] requestHash = hash(request, body);
+
+        Optional<IdempotentResponse> storedResponse = idempotencyService.getResponse(idempotencyKey);
+
+        if (storedResponse.isEmpty()) {
+            if (idempotencyService.tryClaim(idempotencyKey, requestHash)) {
+                execute(request, body, response, filterChain, idempotencyKey, requestHash);
+                return;
+            }
+
+            storedResponse = idempotencyService.getResponse(idempotencyKey); // Key is claimed by another request in the meantime
+        }
+
+        if (storedResponse.isEmpty()) { // Claim is released by its failed request, so the client should retry
+            writeExceptionResponse(response, HttpStatus.CONFLICT, ResponseMessages.IDEMPOTENT_REQUEST_IN_PROGRESS);
+            return;
+        }
+
+        replay(response, storedResponse.get(), requestHash);
+    }
+
+    private void execute(HttpServletRequest request, byte[] body, HttpServletResponse response, FilterChain filterChain, String idempotencyKey, byte[] requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+
+        try {
+            filterChain.doFilter(new CachedBodyRequestWrapper(request, body), responseWrapper);
+        } catch (ServletException | IOException | RuntimeException exception) {
+            idempotencyService.release(idempotencyKey);
+            throw exception;
+        }
+
+        int status = responseWrapper.getStatus();
+
+        if (isReplayable(status)) {
+            saveResponse(new IdempotentResponse(idempotencyKey, requestHash, status, responseWrapper.getContentType(), responseWrapper.getContentAsByteArray(), LocalDateTime.now()));
+        } else {
+            log.warn("Response of idempotency key {} is not stored. Status: {}", idempotencyKey, status);
+            idempotencyService.release(idempotencyKey);
+        }
+
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse storedResponse, byte[] requestHash) throws IOException {
+        if (!Arrays.equals(storedResponse.getRequestHash(), requestHash)) {
+            writeExceptionResponse(response, HttpStatus.CONFLICT, ResponseMessages.IDEMPOTENCY_KEY_REUSED);
+            return;
+        }
+
+        if (storedResponse.isPending()) {
+            writeExceptionResponse(response, HttpStatus.CONFLICT, ResponseMessages.IDEMPOTENT_REQUEST_IN_PROGRESS);
+            return;
+        }
+
+        log.info("Response of idempotency key {} is replayed", storedResponse.getIdempotencyKey());
+
+        response.setStatus(storedResponse.getStatus());
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+
+        if (storedResponse.getContentType() != null) {
+            response.setContentType(storedResponse.getContentType());
+        }
+
+        if (storedResponse.getBody() != null) {
+            response.setContentLength(storedResponse.getBody().length);
+            response.getOutputStream().write(storedResponse.getBody());
+        }
+    }
+
+    /* The money movement is already committed, so a failure of storing its response must not fail the request. Key stays claimed until the pending timeout */
+    private void saveResponse(IdempotentResponse idempotentResponse) {
+        try {
+            idempotencyService.saveResponse(idempotentResponse);
+        } catch (RuntimeException exception) {
+            log.error("Response of idempotency key {} could not be stored. Exception message: {}", idempotentResponse.getIdempotencyKey(), exception.getMessage());
+        }
+    }
+
+    private void writeExceptionResponse(HttpServletResponse response, HttpStatus httpStatus, String message) throws IOException {
+        response.setStatus(httpStatus.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ExceptionResponse(httpStatus.value(), message, LocalDateTime.now()));
+    }
+
+    /* Conflicts and server errors are transient, so a retry with the same key executes the request again */
+    private static boolean isReplayable(int status) {
+        return status < HttpStatus.INTERNAL_SERVER_ERROR.value()
+                && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static byte[] hash(HttpServletRequest request, byte[] body) {
+        MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        messageDigest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+
+        if (request.getQueryString() != null) {
+            messageDigest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return messageDigest.digest(body);
+    }
+
+    /* Request body is read once for hashing, so the controller reads it from memory */
+    private static class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /* Whole body is in memory, so it is available at once and the listener is notified immediately */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException exception) {
+                        readListener.onError(exception);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return inputStream.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ercanbeyen.bankingapplication.job;
+
+import com.ercanbeyen.bankingapplication.repository.BaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Splits the id space of the entity into contiguous ranges, so that each partition reads its own slice of the primary key index.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IdRangePartitioner implements Partitioner {
+    public static final String MINIMUM_ID = "minimumId";
+    public static final String MAXIMUM_ID = "maximumId";
+    private final BaseRepository<?> repository;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        Optional<Integer> minimumId = repository.findMinimumId();
+        Optional<Integer> maximumId = repository.findMaximumId();
+
+        if (minimumId.isEmpty() || maximumId.isEmpty()) {
+            log.info("There are no entities to partition");
+            return partitions;
+        }
+
+        int rangeSize = (maximumId.get() - minimumId.get()) / gridSize + 1;
+        int partition = 0;
+
+        for (int from = minimumId.get(); from <= maximumId.get(); from += rangeSize) {
+            ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putInt(MINIMUM_ID, from);
+            executionContext.putInt(MAXIMUM_ID, Math.min(from + rangeSize - 1, maximumId.get()));
+            partitions.put("partition" + partition++, executionContext);
+        }
+
+        log.info("Ids from {} to {} are split into {} partitions", minimumId.get(), maximumId.get(), partitions.size());
+
+        return partitions;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ercanbeyen.bankingapplication.job;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns each sender account to one lane by its id, so that orders of a sender are executed sequentially by the same lane
+ * while different senders are executed concurrently.
+ */
+public class SenderHashPartitioner implements Partitioner {
+    public static final String LANE = "lane";
+    public static final String LANE_COUNT = "laneCount";
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        for (int lane = 0; lane < gridSize; lane++) {
+            ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putInt(LANE, lane);
+            executionContext.putInt(LANE_COUNT, gridSize);
+            partitions.put(LANE + lane, executionContext);
+        }
+
+        return partitions;
+    }
+}
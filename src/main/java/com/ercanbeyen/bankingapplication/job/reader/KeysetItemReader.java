@@ -0,0 +1,39 @@
+package com.ercanbeyen.bankingapplication.job.reader;
+
+import org.springframework.batch.item.data.AbstractPaginatedDataItemReader;
+import org.springframework.data.domain.Limit;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reads the pages by seeking after the last read id. Processed items leave the result set of the scheduled jobs, so offset based paging would skip items.
+ * Its state is not saved, because a restarted execution finds the remaining items by the same query.
+ * @param <T> is type of the item
+ */
+public class KeysetItemReader<T> extends AbstractPaginatedDataItemReader<T> {
+    private final BiFunction<Integer, Limit, List<T>> pageQuery; // ids of the page are greater than or equal to the first parameter
+    private final ToIntFunction<T> idExtractor;
+    private int nextId = 0;
+
+    public KeysetItemReader(String name, BiFunction<Integer, Limit, List<T>> pageQuery, ToIntFunction<T> idExtractor, int pageSize) {
+        this.pageQuery = pageQuery;
+        this.idExtractor = idExtractor;
+        setPageSize(pageSize);
+        setName(name);
+        setSaveState(false);
+    }
+
+    @Override
+    protected Iterator<T> doPageRead() {
+        List<T> items = pageQuery.apply(nextId, Limit.of(pageSize));
+
+        if (!items.isEmpty()) {
+            nextId = idExtractor.applyAsInt(items.getLast()) + 1;
+        }
+
+        return items.iterator();
+    }
+}
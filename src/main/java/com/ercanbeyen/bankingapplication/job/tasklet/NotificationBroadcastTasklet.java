@@ -0,0 +1,63 @@
+package com.ercanbeyen.bankingapplication.job.tasklet;
+
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.metric.NotificationBroadcastMetrics;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
+import com.ercanbeyen.bankingapplication.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Inserts the notifications of the partition by an INSERT ... SELECT per slice of customer ids, so customers are never loaded into memory.
+ * Each slice is committed together with the next id in the execution context of the step, so a restarted execution resumes after the last committed slice.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationBroadcastTasklet implements Tasklet {
+    public static final String NEXT_ID = "nextId";
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcastMetrics notificationBroadcastMetrics;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final String message;
+    private final LocalDate birthDate; // only customers who were born on the same day and month are notified if it is present
+    private final int minimumId;
+    private final int maximumId;
+    private final int sliceSize;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+        String job = chunkContext.getStepContext().getJobName();
+        int fromId = executionContext.getInt(NEXT_ID, minimumId);
+
+        if (fromId > maximumId) {
+            return RepeatStatus.FINISHED;
+        }
+
+        int toId = Math.min(fromId + sliceSize - 1, maximumId);
+        long start = System.nanoTime();
+
+        int numberOfNotifications = (birthDate == null)
+                ? notificationRepository.insertForCustomers(message, fromId, toId)
+                : notificationRepository.insertForCustomersBornOn(message, birthDate.getMonthValue(), birthDate.getDayOfMonth(), fromId, toId);
+
+        notificationBroadcastMetrics.recordSlice(job, Duration.ofNanos(System.nanoTime() - start));
+        notificationBroadcastMetrics.incrementNotifications(job, numberOfNotifications);
+        notificationBroadcastMetrics.incrementCustomers(job, (long) toId - fromId + 1);
+
+        contribution.incrementWriteCount(numberOfNotifications);
+        TransactionUtils.runAfterCommit(unreadNotificationCounter::evictAll);
+        executionContext.putInt(NEXT_ID, toId + 1);
+        log.info("{} notifications are inserted for customers from {} to {}", numberOfNotifications, fromId, toId);
+
+        return (toId < maximumId) ? RepeatStatus.CONTINUABLE : RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ercanbeyen.bankingapplication.job.writer;
+
+import com.ercanbeyen.bankingapplication.dto.NotificationDto;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import com.ercanbeyen.bankingapplication.service.impl.TransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DepositInterestWriter implements ItemWriter<Integer> {
+    private final TransactionService transactionService;
+    private final NotificationService notificationService;
+    private final LocalDate maturityDate;
+
+    @Override
+    public void write(Chunk<? extends Integer> accountIds) {
+        /* Interests and notifications join the transaction of the chunk, so they are committed together */
+        List<NotificationDto> notificationDtos = transactionService.accrueDepositInterests(new ArrayList<>(accountIds.getItems()), maturityDate);
+        notificationService.createNotifications(notificationDtos);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ercanbeyen.bankingapplication.job.writer;
+
+import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
+import com.ercanbeyen.bankingapplication.metric.RegularTransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository.DueOrder;
+import com.ercanbeyen.bankingapplication.service.impl.TransactionService;
+import com.ercanbeyen.bankingapplication.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RegularTransferWriter implements ItemWriter<DueOrder> {
+    private final TransactionService transactionService;
+    private final RegularTransferOrderRepository regularTransferOrderRepository;
+    private final RegularTransferMetrics regularTransferMetrics;
+    private final LocalDate executionDate;
+    private final int lane;
+    private final LocalDateTime jobStartTime;
+
+    @Override
+    public void write(Chunk<? extends DueOrder> dueOrders) {
+        List<TransferRequest> transferRequests = new ArrayList<>(dueOrders.size());
+        List<Integer> orderIds = new ArrayList<>(dueOrders.size());
+        List<String> idempotencyKeys = new ArrayList<>(dueOrders.size());
+
+        for (DueOrder dueOrder : dueOrders) {
+            transferRequests.add(new TransferRequest(dueOrder.getSenderAccountId(), dueOrder.getReceiverAccountId(), dueOrder.getAmount(), dueOrder.getExplanation()));
+            orderIds.add(dueOrder.getId());
+            idempotencyKeys.add(String.format("regular-transfer:%d:%s", dueOrder.getId(), executionDate));
+        }
+
+        /* Transfers of the chunk lock their accounts together and join the transaction of the chunk, so do their notifications in the outbox.
+           Keys of the orders and the execution date keep a retried chunk from transferring twice when the ledger is enabled. */
+        List<TransferResult> transferResults = transactionService.transferMoneyInBatch(transferRequests, idempotencyKeys);
+
+        long numberOfCompletedTransfers = 0;
+
+        for (TransferResult transferResult : transferResults) {
+            if (transferResult.completed()) {
+                numberOfCompletedTransfers++;
+            } else {
+                log.warn("Regular transfer order {} is rejected. Reason: {}", orderIds.get(transferResult.index()), transferResult.message());
+            }
+        }
+
+        log.info("{} of {} regular transfers are completed in lane {}", numberOfCompletedTransfers, transferResults.size(), lane);
+
+        /* Rejected orders are advanced as well, so that they are tried again in their next period */
+        int numberOfAdvancedOrders = regularTransferOrderRepository.advanceNextExecutionDates(orderIds, executionDate);
+        log.info("Next execution dates of {} regular transfer orders are advanced", numberOfAdvancedOrders);
+
+        long numberOfRejectedTransfers = transferResults.size() - numberOfCompletedTransfers;
+
+        TransactionUtils.runAfterCommit(() -> {
+            regularTransferMetrics.incrementExecutions(lane, true, numberOfCompletedTransfers);
+            regularTransferMetrics.incrementExecutions(lane, false, numberOfRejectedTransfers);
+            regularTransferMetrics.recordLag(lane, Duration.between(jobStartTime, LocalDateTime.now()));
+        });
+    }
+}
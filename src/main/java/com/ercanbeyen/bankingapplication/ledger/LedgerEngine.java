@@ -0,0 +1,351 @@
+package com.ercanbeyen.bankingapplication.ledger;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+import com.ercanbeyen.bankingapplication.constant.enums.BalanceActivity;
+import com.ercanbeyen.bankingapplication.constant.enums.Entity;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.bankingapplication.dto.request.AccountActivityRequest;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.exception.ResourceExpectationFailedException;
+import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.bankingapplication.metric.TransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.LedgerCheckpointRepository;
+import com.ercanbeyen.bankingapplication.repository.LedgerSubmissionRepository;
+import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Optional in-memory ledger which takes balance mutations off MySQL row locks.
+ * <ul>
+ *     <li>Debits of an account are executed by the single-writer shard which owns the account id, so no locks are taken</li>
+ *     <li>Credits never fail, so they are applied by an atomic add on the balance of the receiver</li>
+ *     <li>Balances and entries are kept in minor units, so aggregated deltas do not drift</li>
+ *     <li>Each entry is durable in the write-ahead log before the caller returns</li>
+ *     <li>Aggregated balance deltas and account activities are flushed to MySQL asynchronously, together with the last flushed sequence</li>
+ *     <li>Write-ahead log is checkpointed after the flush commits, recovery skips the entries at or below the sequence in MySQL</li>
+ *     <li>Entries with idempotency keys are applied once, their keys are kept in memory until they are flushed together with the entries</li>
+ * </ul>
+ * Balances which are read from MySQL lag the ledger by at most one flush interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ledger.enabled", havingValue = "true")
+public class LedgerEngine {
+    private static final int MINIMUM_WAL_CAPACITY = 4 * 1024 * 1024;
+    private final AccountRepository accountRepository;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final LedgerSubmissionRepository ledgerSubmissionRepository;
+    private final AccountActivityService accountActivityService;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteAheadLog writeAheadLog;
+    private final ExecutorService[] shards;
+    private final ConcurrentMap<Integer, AtomicLong> balances = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Void>> submissions = new ConcurrentHashMap<>(); // Keys which are not flushed yet
+    private final Queue<LedgerEntry> committedEntries = new ConcurrentLinkedQueue<>();
+    private final List<LedgerEntry> unflushedEntries = new ArrayList<>();
+
+    public LedgerEngine(
+            AccountRepository accountRepository,
+            LedgerCheckpointRepository ledgerCheckpointRepository,
+            LedgerSubmissionRepository ledgerSubmissionRepository,
+            AccountActivityService accountActivityService,
+            TransferMetrics transferMetrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${ledger.shards:4}") int shardCount,
+            @Value("${ledger.wal.path:ledger/ledger.wal}") String walPath,
+            @Value("${ledger.wal.capacity:67108864}") int walCapacity) throws IOException {
+        this.accountRepository = accountRepository;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.ledgerSubmissionRepository = ledgerSubmissionRepository;
+        this.accountActivityService = accountActivityService;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // Checkpoint must follow a committed flush
+        this.writeAheadLog = new WriteAheadLog(Path.of(walPath), Math.max(walCapacity, MINIMUM_WAL_CAPACITY));
+        this.shards = new ExecutorService[shardCount];
+
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("ledger-shard-" + i).daemon(true).factory());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        long flushedSequence = ledgerCheckpointRepository.findSequenceById(LedgerCheckpointRepository.LEDGER_ID)
+                .orElse(0L);
+
+        /* Entries between the checkpoint of the log and the one in the database were flushed before a crash */
+        writeAheadLog.recover()
+                .stream()
+                .filter(entry -> entry.sequence() > flushedSequence)
+                .forEach(committedEntries::add);
+        writeAheadLog.advanceSequence(flushedSequence);
+
+        if (!flush()) {
+            throw new IllegalStateException("Recovered ledger entries could not be written to the database");
+        }
+
+        writeAheadLog.start(committedEntries::addAll, this::flush);
+        log.info("Ledger engine is started with {} shards", shards.length);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+
+        for (ExecutorService shard : shards) {
+            shard.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        writeAheadLog.close();
+        flush();
+        log.info("Ledger engine is stopped");
+    }
+
+    /***
+     * Applies the entry and waits until it is durable in the write-ahead log.
+     * @param type is type of the account activity
+     * @param senderAccountId is id of the account whose balance decreases, null for deposits
+     * @param senderAmount is amount in minor units which is withdrawn from the sender account
+     * @param receiverAccountId is id of the account whose balance increases, null for withdrawals
+     * @param receiverAmount is amount in minor units which is deposited to the receiver account
+     * @param explanation is explanation of the account activity
+     */
+    public void apply(AccountActivityType type, Integer senderAccountId, long senderAmount, Integer receiverAccountId, long receiverAmount, String explanation) {
+        try {
+            submit(type, senderAccountId, senderAmount, receiverAccountId, receiverAmount, explanation).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /***
+     * Non-blocking variant of apply, so that a batch of entries shares the same group commit.
+     * @return future which completes when the entry is durable
+     */
+    public CompletableFuture<Void> submit(AccountActivityType type, Integer senderAccountId, long senderAmount, Integer receiverAccountId, long receiverAmount, String explanation) {
+        return submit(new LedgerEntry(0, type, senderAccountId, senderAmount, receiverAccountId, receiverAmount, explanation, System.currentTimeMillis(), null));
+    }
+
+    /***
+     * Submits the entry unless an entry with the same key is already submitted, so a retried or restarted job does not apply its operation twice.
+     * Keys of the flushed entries are looked up in a new transaction, whose snapshot is not older than the flush.
+     * @param idempotencyKey identifies the operation, such as the account and the date of an interest
+     * @return future of the first submission of the key, which completes when the entry is durable
+     */
+    public CompletableFuture<Void> submit(String idempotencyKey, AccountActivityType type, Integer senderAccountId, long senderAmount, Integer receiverAccountId, long receiverAmount, String explanation) {
+        CompletableFuture<Void> submission = new CompletableFuture<>();
+        CompletableFuture<Void> previousSubmission = submissions.putIfAbsent(idempotencyKey, submission);
+
+        if (previousSubmission != null) {
+            log.info("Ledger entry {} is already submitted", idempotencyKey);
+            return previousSubmission;
+        }
+
+        try {
+            /* Keys are removed from the memory after their flush commits, so a key which is absent is either new or in the database */
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> ledgerSubmissionRepository.existsById(idempotencyKey)))) {
+                log.info("Ledger entry {} is already flushed", idempotencyKey);
+                submissions.remove(idempotencyKey, submission);
+                submission.complete(null);
+                return submission;
+            }
+
+            LedgerEntry entry = new LedgerEntry(0, type, senderAccountId, senderAmount, receiverAccountId, receiverAmount, explanation, System.currentTimeMillis(), idempotencyKey);
+
+            submit(entry).whenComplete((result, exception) -> {
+                if (exception != null) {
+                    reject(idempotencyKey, submission, exception);
+                } else {
+                    submission.complete(null);
+                }
+            });
+        } catch (RuntimeException exception) {
+            reject(idempotencyKey, submission, exception);
+        }
+
+        return submission;
+    }
+
+    /***
+     * @param accountId is id of the account
+     * @return balance of the account in minor units including the entries which are not flushed yet
+     */
+    public long readBalance(Integer accountId) {
+        return getBalance(accountId).get();
+    }
+
+    private CompletableFuture<Void> submit(LedgerEntry entry) {
+        Integer senderAccountId = entry.senderAccountId();
+
+        if (senderAccountId == null) { // Credits do not need the single writer of the account
+            return append(entry);
+        }
+
+        return CompletableFuture.supplyAsync(() -> append(entry), shards[Math.floorMod(senderAccountId, shards.length)])
+                .thenCompose(Function.identity());
+    }
+
+    /* Rejected entry has no effect, so the operation may be submitted again */
+    private void reject(String idempotencyKey, CompletableFuture<Void> submission, Throwable exception) {
+        submissions.remove(idempotencyKey, submission);
+        submission.completeExceptionally(exception);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.flush-interval-ms:1000}")
+    public void scheduleFlush() {
+        flush();
+    }
+
+    /***
+     * Writes every committed entry and the last flushed sequence to the database in a single transaction, then checkpoints the write-ahead log.
+     * @return true if there is no committed entry left to write
+     */
+    public synchronized boolean flush() {
+        LedgerEntry committedEntry;
+        while ((committedEntry = committedEntries.poll()) != null) {
+            unflushedEntries.add(committedEntry);
+        }
+
+        if (unflushedEntries.isEmpty()) {
+            return true;
+        }
+
+        long lastSequence = unflushedEntries.getLast().sequence();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeToDatabase(unflushedEntries);
+                ledgerCheckpointRepository.upsertSequence(LedgerCheckpointRepository.LEDGER_ID, lastSequence);
+            });
+            unflushedEntries.stream()
+                    .map(LedgerEntry::idempotencyKey)
+                    .filter(Objects::nonNull)
+                    .forEach(submissions::remove);
+        } catch (RuntimeException exception) {
+            log.error("{} ledger entries could not be flushed. Exception message: {}", unflushedEntries.size(), exception.getMessage());
+            return false;
+        }
+
+        writeAheadLog.checkpoint(lastSequence);
+        log.info("{} ledger entries are flushed", unflushedEntries.size());
+        unflushedEntries.clear();
+
+        return true;
+    }
+
+    private CompletableFuture<Void> append(LedgerEntry entry) {
+        /* Both accounts are resolved before any effect, so an unknown account cannot leave a debit or a logged entry behind */
+        AtomicLong senderBalance = entry.senderAccountId() == null ? null : getBalance(entry.senderAccountId());
+        AtomicLong receiverBalance = entry.receiverAccountId() == null ? null : getBalance(entry.receiverAccountId());
+
+        if (senderBalance != null) {
+            debit(senderBalance, entry.senderAmount());
+        }
+
+        /* The entry is queued before the credit is visible, so any entry which spends the credit gets a greater sequence */
+        CompletableFuture<Void> durable = writeAheadLog.append(entry);
+
+        if (receiverBalance != null) {
+            add(receiverBalance, entry.receiverAmount());
+        }
+
+        return durable.whenComplete((result, exception) -> {
+            if (exception != null) { // Entry is not logged, so its effects are reverted
+                log.error("Ledger entry could not be logged. Exception message: {}", exception.getMessage());
+                if (senderBalance != null) {
+                    add(senderBalance, entry.senderAmount());
+                }
+                if (receiverBalance != null) {
+                    add(receiverBalance, -entry.receiverAmount());
+                }
+            }
+        });
+    }
+
+    /* Only the owner shard decreases a balance, so the balance can only grow between the check and the update */
+    private void debit(AtomicLong balance, long amount) {
+        long current;
+
+        do {
+            current = balance.get();
+            if (current < amount) {
+                transferMetrics.incrementInsufficientFundsConflicts();
+                throw new ResourceExpectationFailedException(ResponseMessages.INSUFFICIENT_FUNDS);
+            }
+        } while (!balance.compareAndSet(current, current - amount));
+    }
+
+    private static void add(AtomicLong balance, long amount) {
+        balance.addAndGet(amount);
+    }
+
+    /* Balance is loaded once, every later mutation of the account goes through the ledger */
+    private AtomicLong getBalance(Integer accountId) {
+        return balances.computeIfAbsent(accountId, id -> {
+            BigDecimal balance = accountRepository.findById(id)
+                    .map(Account::getBalance)
+                    .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.ACCOUNT.getValue())));
+            return new AtomicLong(MoneyUtils.toMinorUnits(balance));
+        });
+    }
+
+    private void writeToDatabase(List<LedgerEntry> entries) {
+        Map<Integer, Long> balanceDeltas = new TreeMap<>(); // Rows are updated in ascending id order
+        List<AccountActivityRequest> accountActivityRequests = new ArrayList<>(entries.size());
+
+        for (LedgerEntry entry : entries) {
+            Account senderAccount = null;
+            Account receiverAccount = null;
+
+            if (entry.senderAccountId() != null) {
+                balanceDeltas.merge(entry.senderAccountId(), -entry.senderAmount(), Long::sum);
+                senderAccount = accountRepository.getReferenceById(entry.senderAccountId());
+            }
+
+            if (entry.receiverAccountId() != null) {
+                balanceDeltas.merge(entry.receiverAccountId(), entry.receiverAmount(), Long::sum);
+                receiverAccount = accountRepository.getReferenceById(entry.receiverAccountId());
+            }
+
+            accountActivityRequests.add(new AccountActivityRequest(entry.type(), senderAccount, receiverAccount, MoneyUtils.toDecimal(entry.activityAmount()), MoneyUtils.toDecimal(entry.receiverAmount()), entry.explanation()));
+
+            if (entry.idempotencyKey() != null) {
+                ledgerSubmissionRepository.insertSubmission(entry.idempotencyKey(), entry.sequence());
+            }
+        }
+
+        balanceDeltas.forEach((accountId, delta) -> {
+            int numberOfUpdatedEntities = accountRepository.updateBalanceById(accountId, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(delta));
+            log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+        });
+
+        accountActivityService.createAccountActivities(accountActivityRequests);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ercanbeyen.bankingapplication.ledger;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+
+/***
+ * Single balance mutation of the ledger. An absent sender or receiver means that the activity has only one side.
+ * @param sequence is assigned by the write-ahead log when the entry is appended
+ * @param senderAmount is withdrawn amount in minor units
+ * @param receiverAmount is deposited amount in minor units
+ * @param idempotencyKey identifies the business operation of the entry, null if the entry may be repeated
+ */
+public record LedgerEntry(
+        long sequence,
+        AccountActivityType type,
+        Integer senderAccountId,
+        long senderAmount,
+        Integer receiverAccountId,
+        long receiverAmount,
+        String explanation,
+        long createdAt,
+        String idempotencyKey) {
+
+    public LedgerEntry withSequence(long sequence) {
+        return new LedgerEntry(sequence, type, senderAccountId, senderAmount, receiverAccountId, receiverAmount, explanation, createdAt, idempotencyKey);
+    }
+
+    public long activityAmount() {
+        return senderAccountId != null ? senderAmount : receiverAmount;
+    }
+}
@@ -0,0 +1,307 @@
+package com.ercanbeyen.bankingapplication.ledger;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped write-ahead log of the ledger.
+ * Layout: checkpoint sequence (8 bytes) followed by records of [length][crc32][payload], terminated by a zero length.
+ * A single committer thread serializes the queued entries and forces them to disk together (group commit).
+ */
+@Slf4j
+class WriteAheadLog implements AutoCloseable {
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAXIMUM_GROUP_SIZE = 1_024;
+    private static final int NO_ACCOUNT = -1;
+    private static final long FULL_LOG_RETRY_MILLIS = 1_000;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final BlockingQueue<PendingAppend> appendQueue = new LinkedBlockingQueue<>();
+    private Thread committer;
+    private Consumer<List<LedgerEntry>> committedEntryConsumer;
+    private BooleanSupplier flushAll;
+    private int position = HEADER_SIZE;
+    private long lastSequence;
+    private volatile boolean running;
+
+    private record PendingAppend(LedgerEntry entry, CompletableFuture<Void> durable) {}
+
+    WriteAheadLog(Path path, int capacity) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /***
+     * @return entries which were durably appended but have not been checkpointed yet
+     */
+    List<LedgerEntry> recover() {
+        long checkpoint = buffer.getLong(0);
+        List<LedgerEntry> entries = new ArrayList<>();
+        int offset = HEADER_SIZE;
+        lastSequence = checkpoint;
+
+        while (offset + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length > capacity) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload);
+
+            if (buffer.getInt(offset + Integer.BYTES) != checksum(payload)) {
+                log.warn("Write-ahead log record at offset {} is torn, recovery stops there", offset);
+                break;
+            }
+
+            LedgerEntry entry = deserialize(ByteBuffer.wrap(payload));
+            if (entry.sequence() > checkpoint) {
+                entries.add(entry);
+                lastSequence = Math.max(lastSequence, entry.sequence());
+            }
+
+            offset += RECORD_HEADER_SIZE + length;
+        }
+
+        log.info("{} ledger entries are recovered after checkpoint {}", entries.size(), checkpoint);
+
+        return entries;
+    }
+
+    /***
+     * Keeps new sequences above the database checkpoint, for example when the log file is lost.
+     * @param sequence is the last sequence which is known to be used
+     */
+    void advanceSequence(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /***
+     * Starts the committer. Every recovered entry must have been checkpointed before, since the log is rewritten from the beginning.
+     * @param committedEntryConsumer receives the entries of each durable group in sequence order
+     * @param flushAll persists all consumed entries and checkpoints them, it is called when the log is full
+     */
+    void start(Consumer<List<LedgerEntry>> committedEntryConsumer, BooleanSupplier flushAll) {
+        this.committedEntryConsumer = committedEntryConsumer;
+        this.flushAll = flushAll;
+        this.position = HEADER_SIZE;
+        this.running = true;
+        this.committer = Thread.ofPlatform()
+                .name("ledger-wal-committer")
+                .daemon(true)
+                .start(this::commitLoop);
+    }
+
+    CompletableFuture<Void> append(LedgerEntry entry) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        if (!running) {
+            durable.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+            return durable;
+        }
+
+        appendQueue.add(new PendingAppend(entry, durable));
+
+        return durable;
+    }
+
+    void checkpoint(long sequence) {
+        buffer.putLong(0, sequence);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+
+        if (committer != null) {
+            try {
+                committer.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        channel.close();
+    }
+
+    private void commitLoop() {
+        List<PendingAppend> group = new ArrayList<>(MAXIMUM_GROUP_SIZE);
+
+        while (running || !appendQueue.isEmpty()) {
+            try {
+                PendingAppend first = appendQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                group.add(first);
+                appendQueue.drainTo(group, MAXIMUM_GROUP_SIZE - 1);
+                commit(group);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException exception) {
+                log.error("Write-ahead log group could not be committed. Exception message: {}", exception.getMessage());
+                group.forEach(pendingAppend -> pendingAppend.durable().completeExceptionally(exception));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingAppend> group) throws InterruptedException {
+        List<LedgerEntry> entries = new ArrayList<>(group.size());
+        List<byte[]> payloads = new ArrayList<>(group.size());
+        int groupSize = 0;
+
+        for (PendingAppend pendingAppend : group) {
+            LedgerEntry entry = pendingAppend.entry().withSequence(++lastSequence);
+            byte[] payload = serialize(entry);
+            entries.add(entry);
+            payloads.add(payload);
+            groupSize += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        if (HEADER_SIZE + groupSize + Integer.BYTES > capacity) {
+            throw new IllegalStateException("Group of " + group.size() + " entries does not fit into write-ahead log");
+        }
+
+        while (position + groupSize + Integer.BYTES > capacity) {
+            if (flushAll.getAsBoolean()) {
+                position = HEADER_SIZE;
+                log.info("Write-ahead log is full, it is rewritten from the beginning");
+            } else {
+                log.warn("Write-ahead log is full and could not be flushed, retrying in {} ms", FULL_LOG_RETRY_MILLIS);
+                Thread.sleep(FULL_LOG_RETRY_MILLIS);
+            }
+        }
+
+        int start = position;
+
+        for (byte[] payload : payloads) {
+            buffer.putInt(position, payload.length);
+            buffer.putInt(position + Integer.BYTES, checksum(payload));
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            position += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        buffer.putInt(position, 0); // Terminator, recovery does not read stale records after it
+        buffer.force(start, position + Integer.BYTES - start);
+
+        committedEntryConsumer.accept(entries);
+        group.forEach(pendingAppend -> pendingAppend.durable().complete(null));
+    }
+
+    private static byte[] serialize(LedgerEntry entry) {
+        byte[] type = entry.type().name().getBytes(StandardCharsets.UTF_8);
+        byte[] explanation = toBytes(entry.explanation());
+        byte[] idempotencyKey = toBytes(entry.idempotencyKey());
+        int size = 2 * Long.BYTES + 6 * Integer.BYTES + 2 * Long.BYTES + type.length + length(explanation) + length(idempotencyKey);
+
+        ByteBuffer payload = ByteBuffer.allocate(size)
+                .putLong(entry.sequence())
+                .putLong(entry.createdAt())
+                .putInt(type.length)
+                .put(type)
+                .putInt(entry.senderAccountId() == null ? NO_ACCOUNT : entry.senderAccountId())
+                .putLong(entry.senderAmount())
+                .putInt(entry.receiverAccountId() == null ? NO_ACCOUNT : entry.receiverAccountId())
+                .putLong(entry.receiverAmount())
+                .putInt(explanation == null ? -1 : explanation.length);
+
+        if (explanation != null) {
+            payload.put(explanation);
+        }
+
+        payload.putInt(idempotencyKey == null ? -1 : idempotencyKey.length);
+
+        if (idempotencyKey != null) {
+            payload.put(idempotencyKey);
+        }
+
+        return payload.array();
+    }
+
+    private static LedgerEntry deserialize(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long createdAt = payload.getLong();
+
+        byte[] type = new byte[payload.getInt()];
+        payload.get(type);
+
+        int senderAccountId = payload.getInt();
+        long senderAmount = payload.getLong();
+        int receiverAccountId = payload.getInt();
+        long receiverAmount = payload.getLong();
+
+        String explanation = readString(payload);
+        String idempotencyKey = payload.hasRemaining() ? readString(payload) : null; // Records which are logged before the keys have none
+
+        return new LedgerEntry(
+                sequence,
+                AccountActivityType.valueOf(new String(type, StandardCharsets.UTF_8)),
+                senderAccountId == NO_ACCOUNT ? null : senderAccountId,
+                senderAmount,
+                receiverAccountId == NO_ACCOUNT ? null : receiverAccountId,
+                receiverAmount,
+                explanation,
+                createdAt,
+                idempotencyKey
+        );
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /* Length prefixed string, negative length means null */
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
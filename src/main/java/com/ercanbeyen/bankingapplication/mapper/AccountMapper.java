@@ -9,5 +9,6 @@ import org.mapstruct.Mapping;
 public interface AccountMapper {
     @Mapping(target = "customerNationalId", source = "customer.nationalId")
     AccountDto entityToDto(Account account);
+    @Mapping(target = "balance", ignore = true) // Accounts are opened with zero balance
     Account dtoToEntity(AccountDto accountDto);
 }
@@ -9,5 +9,8 @@ import org.mapstruct.Mapping;
 public interface NotificationMapper {
     @Mapping(target = "customerNationalId", source = "customer.nationalId")
     NotificationDto entityToDto(Notification notification);
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "readAt", ignore = true)
     Notification dtoToEntity(NotificationDto notificationDto);
 }
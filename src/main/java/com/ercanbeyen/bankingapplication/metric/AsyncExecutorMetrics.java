@@ -0,0 +1,41 @@
+package com.ercanbeyen.bankingapplication.metric;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AsyncExecutorMetrics {
+    private static final String NAME = "name";
+    private final MeterRegistry meterRegistry;
+
+    public AsyncExecutorMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /* Gauges read the executor on each scrape, so they keep working after the executor is initialized by its lifecycle */
+    public void monitor(String name, ThreadPoolTaskExecutor taskExecutor) {
+        Gauge.builder("banking.async.executor.queued", taskExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Number of tasks waiting in the queue of the executor")
+                .tag(NAME, name)
+                .register(meterRegistry);
+        Gauge.builder("banking.async.executor.active", taskExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Number of threads of the executor which are running tasks")
+                .tag(NAME, name)
+                .register(meterRegistry);
+        Gauge.builder("banking.async.executor.pool.size", taskExecutor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("Number of threads of the executor")
+                .tag(NAME, name)
+                .register(meterRegistry);
+    }
+
+    public void incrementRejections(String name) {
+        Counter.builder("banking.async.executor.rejected")
+                .description("Number of tasks rejected by the full executor and run by the caller")
+                .tag(NAME, name)
+                .register(meterRegistry)
+                .increment();
+    }
+}
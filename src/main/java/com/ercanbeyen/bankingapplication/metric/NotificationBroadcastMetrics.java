@@ -0,0 +1,42 @@
+package com.ercanbeyen.bankingapplication.metric;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class NotificationBroadcastMetrics {
+    private static final String JOB = "job";
+    private final MeterRegistry meterRegistry;
+
+    public NotificationBroadcastMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void incrementNotifications(String job, long count) {
+        Counter.builder("banking.notification-broadcast.notifications")
+                .description("Number of notifications inserted by the broadcast job")
+                .tag(JOB, job)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void incrementCustomers(String job, long count) {
+        Counter.builder("banking.notification-broadcast.customers")
+                .description("Number of customer ids scanned by the broadcast job")
+                .tag(JOB, job)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void recordSlice(String job, Duration duration) {
+        Timer.builder("banking.notification-broadcast.slice")
+                .description("Time to insert the notifications of a slice of customer ids")
+                .tag(JOB, job)
+                .register(meterRegistry)
+                .record(duration);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ercanbeyen.bankingapplication.metric;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class RegularTransferMetrics {
+    private static final String LANE = "lane";
+    private final MeterRegistry meterRegistry;
+
+    public RegularTransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void incrementExecutions(int lane, boolean completed, long count) {
+        Counter.builder("banking.regular-transfer.executions")
+                .description("Number of regular transfer orders executed by the lane")
+                .tag(LANE, String.valueOf(lane))
+                .tag("outcome", completed ? "completed" : "rejected")
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void recordLag(int lane, Duration lag) {
+        Timer.builder("banking.regular-transfer.lag")
+                .description("Time between the start of the job and the commit of the lane's chunk")
+                .tag(LANE, String.valueOf(lane))
+                .register(meterRegistry)
+                .record(lag);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ercanbeyen.bankingapplication.metric;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class TransferMetrics {
+    private final Timer lockWaitTimer;
+    private final Counter retryCounter;
+    private final Counter deadlockCounter;
+    private final Counter insufficientFundsCounter;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.lockWaitTimer = Timer.builder("banking.transfer.lock.wait")
+                .description("Time spent on acquiring row locks and updating balances of accounts")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("banking.transfer.retries")
+                .description("Number of transfers retried after a deadlock or lock timeout")
+                .register(meterRegistry);
+        this.deadlockCounter = Counter.builder("banking.transfer.conflicts")
+                .description("Number of transfers rejected by the database")
+                .tag("reason", "lock")
+                .register(meterRegistry);
+        this.insufficientFundsCounter = Counter.builder("banking.transfer.conflicts")
+                .description("Number of transfers rejected by the database")
+                .tag("reason", "insufficient_funds")
+                .register(meterRegistry);
+    }
+
+    public <T> T recordLockWait(Supplier<T> balanceUpdate) {
+        return lockWaitTimer.record(balanceUpdate);
+    }
+
+    public void incrementRetries() {
+        retryCounter.increment();
+    }
+
+    public void incrementLockConflicts() {
+        deadlockCounter.increment();
+    }
+
+    public void incrementInsufficientFundsConflicts() {
+        insufficientFundsCounter.increment();
+    }
+}
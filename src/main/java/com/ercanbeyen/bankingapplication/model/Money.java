@@ -0,0 +1,69 @@
+package com.ercanbeyen.bankingapplication.model;
+
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.util.AccountUtils;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+
+import java.math.BigDecimal;
+
+/***
+ * Amount of money in minor units of its currency.
+ * @param minorUnits is amount in minor units, such as cents
+ * @param currency is currency of the amount
+ */
+public record Money(long minorUnits, Currency currency) {
+
+    public static Money of(double amount, Currency currency) {
+        return new Money(MoneyUtils.toMinorUnits(amount), currency);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        return new Money(MoneyUtils.toMinorUnits(amount), currency);
+    }
+
+    public Money plus(Money other) {
+        AccountUtils.checkCurrencies(currency, other.currency);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        AccountUtils.checkCurrencies(currency, other.currency);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isLessThan(Money other) {
+        AccountUtils.checkCurrencies(currency, other.currency);
+        return minorUnits < other.minorUnits;
+    }
+
+    /***
+     * @param scaledRate is rate which is scaled by {@link MoneyUtils#RATE_SCALE}
+     * @param targetCurrency is currency of the converted amount
+     * @return amount multiplied by the rate
+     */
+    public Money multiply(long scaledRate, Currency targetCurrency) {
+        return new Money(MoneyUtils.multiply(minorUnits, scaledRate), targetCurrency);
+    }
+
+    /***
+     * @param scaledRate is rate which is scaled by {@link MoneyUtils#RATE_SCALE}
+     * @param targetCurrency is currency of the converted amount
+     * @return amount divided by the rate
+     */
+    public Money divide(long scaledRate, Currency targetCurrency) {
+        return new Money(MoneyUtils.divide(minorUnits, scaledRate), targetCurrency);
+    }
+
+    public double toDouble() {
+        return MoneyUtils.toDouble(minorUnits);
+    }
+
+    public BigDecimal toDecimal() {
+        return MoneyUtils.toDecimal(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString() + " " + currency;
+    }
+}
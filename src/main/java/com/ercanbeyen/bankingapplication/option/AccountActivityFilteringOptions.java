@@ -4,6 +4,7 @@ import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public record AccountActivityFilteringOptions(
@@ -12,6 +13,8 @@ public record AccountActivityFilteringOptions(
         Integer receiverAccountId,
         @NotNull(message = "Minimum amount should not be null")
         @Min(value = 0, message = "Minimum amount value should be at least {value}")
-        Double minimumAmount,
-        LocalDate createAt) {
+        BigDecimal minimumAmount,
+        LocalDate createAt,
+        String cursor, // opaque (createdAt, id) pair of the last activity in the previous page
+        Integer size) {
 }
@@ -11,4 +11,7 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public sealed class BaseFilteringOptions permits AccountFilteringOptions, CustomerFilteringOptions, ExchangeFilteringOptions, RegularTransferOrderOptions {
     private LocalDateTime createTime;
+    /* Keyset pagination fields */
+    private Integer cursor; // id of the last entity in the previous page
+    private Integer size;
 }
@@ -0,0 +1,7 @@
+package com.ercanbeyen.bankingapplication.option;
+
+public record NotificationFilteringOptions(
+        Boolean unread, // only unread notifications are returned if it is true
+        String cursor, // opaque (createdAt, id) pair of the last notification in the previous page
+        Integer size) {
+}
@@ -2,9 +2,69 @@ package com.ercanbeyen.bankingapplication.repository;
 
 import com.ercanbeyen.bankingapplication.entity.AccountActivity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AccountActivityRepository extends JpaRepository<AccountActivity, String> {
+public interface AccountActivityRepository extends JpaRepository<AccountActivity, String>, JpaSpecificationExecutor<AccountActivity> {
+    /* Received amount is in currency of the receiver account, rows which are older than the column hold it in the amount */
+    @Query(value = """
+            SELECT COALESCE(SUM(COALESCE(a.receivedAmount, a.amount)), 0)
+            FROM AccountActivity a
+            WHERE a.receiverAccount.id = :accountId AND a.createdAt > :from AND a.createdAt <= :to
+            """)
+    BigDecimal sumAmountsReceivedBetween(@Param("accountId") Integer accountId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(value = """
+            SELECT COALESCE(SUM(a.amount), 0)
+            FROM AccountActivity a
+            WHERE a.senderAccount.id = :accountId AND a.createdAt > :from AND a.createdAt <= :to
+            """)
+    BigDecimal sumAmountsSentBetween(@Param("accountId") Integer accountId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
+    /* Each branch is an index range scan on (sender/receiver_account_id, created_at), the outer query merges both branches */
+    @Query(value = """
+            SELECT u.*
+            FROM (
+                (SELECT t.*
+                 FROM account_activities t
+                 WHERE t.sender_account_id IN (:accountIds)
+                       AND (:type IS NULL OR t.type = :type)
+                       AND (:minimumAmount IS NULL OR t.amount >= :minimumAmount)
+                       AND (:createdFrom IS NULL OR (t.created_at >= :createdFrom AND t.created_at < :createdTo))
+                       AND (:cursorCreatedAt IS NULL OR t.created_at < :cursorCreatedAt OR (t.created_at = :cursorCreatedAt AND t.id < :cursorId))
+                 ORDER BY t.created_at DESC, t.id DESC
+                 LIMIT :limit)
+                UNION
+                (SELECT t.*
+                 FROM account_activities t
+                 WHERE t.receiver_account_id IN (:accountIds)
+                       AND (:type IS NULL OR t.type = :type)
+                       AND (:minimumAmount IS NULL OR t.amount >= :minimumAmount)
+                       AND (:createdFrom IS NULL OR (t.created_at >= :createdFrom AND t.created_at < :createdTo))
+                       AND (:cursorCreatedAt IS NULL OR t.created_at < :cursorCreatedAt OR (t.created_at = :cursorCreatedAt AND t.id < :cursorId))
+                 ORDER BY t.created_at DESC, t.id DESC
+                 LIMIT :limit)
+            ) u
+            ORDER BY u.created_at DESC, u.id DESC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<AccountActivity> findByAccountIds(
+            @Param("accountIds") Collection<Integer> accountIds,
+            @Param("type") String type,
+            @Param("minimumAmount") BigDecimal minimumAmount,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") String cursorId,
+            @Param("limit") int limit
+    );
 }
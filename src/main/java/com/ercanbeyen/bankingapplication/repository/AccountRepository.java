@@ -5,16 +5,28 @@ import com.ercanbeyen.bankingapplication.constant.enums.City;
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.entity.Account;
 import com.ercanbeyen.bankingapplication.dto.response.CustomerStatisticsResponse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.query.Procedure;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AccountRepository extends BaseRepository<Account> {
+public interface AccountRepository extends BaseRepository<Account>, JpaSpecificationExecutor<Account> {
+    /* Rows are locked in ascending id order, so concurrent batches cannot deadlock each other */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Account> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
     @Procedure(name = "getTotalAccountsByCityAndTypeAndCurrency")
     Integer getTotalAccountsByCityAndTypeAndCurrency(
             @Param("city") String city,
@@ -69,5 +81,33 @@ public interface AccountRepository extends BaseRepository<Account> {
             WHERE id = :id
             """,
             nativeQuery = true)
-    int updateBalanceById(@Param("id") Integer id, @Param("activity") String balanceActivity, @Param("amount") Double amount);
+    int updateBalanceById(@Param("id") Integer id, @Param("activity") String balanceActivity, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = """
+            UPDATE accounts
+            SET balance = balance - :amount
+            WHERE id = :id AND balance >= :amount
+            """,
+            nativeQuery = true)
+    int decreaseBalanceByIdIfSufficient(@Param("id") Integer id, @Param("amount") BigDecimal amount);
+
+    /* Seek on the maturity date index, which is continued from the last read id */
+    @Query(value = """
+            SELECT a.id
+            FROM Account a
+            WHERE a.maturityDate = :maturityDate AND a.closedAt IS NULL AND a.id BETWEEN :fromId AND :toId
+            ORDER BY a.id ASC
+            """)
+    List<Integer> findIdsOfMaturedDepositAccounts(@Param("maturityDate") LocalDate maturityDate, @Param("fromId") Integer fromId, @Param("toId") Integer toId, Limit limit);
+
+    /* Maturity date is computed from the start of the term, so renewal moves it to the end of the next term */
+    @Modifying
+    @Query(value = """
+            UPDATE accounts
+            SET term_started_at = :renewedAt
+            WHERE id IN (:ids)
+            """,
+            nativeQuery = true)
+    int renewDepositTerms(@Param("ids") Collection<Integer> ids, @Param("renewedAt") LocalDateTime renewedAt);
 }
@@ -0,0 +1,46 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, String> {
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Integer accountId, LocalDateTime at);
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtGreaterThanOrderByTakenAtAsc(Integer accountId, LocalDateTime at);
+
+    /* Transfers on the locked accounts are committed before the lock is granted, or wait until the chunk is committed */
+    @Query(value = """
+            SELECT a.id
+            FROM accounts a
+            WHERE a.id > :fromId AND a.closed_at IS NULL
+            ORDER BY a.id ASC
+            LIMIT :limit
+            FOR UPDATE
+            """,
+            nativeQuery = true)
+    List<Integer> lockIdsOfOpenAccounts(@Param("fromId") Integer fromId, @Param("limit") int limit);
+
+    /* Activities after the cut-off time are rolled back from the current balances, each subquery is a range scan on the (account, created_at) indexes */
+    @Modifying
+    @Query(value = """
+            INSERT INTO balance_snapshots (id, account_id, balance, taken_at)
+            SELECT UUID(), a.id,
+                a.balance
+                - COALESCE((SELECT SUM(COALESCE(t.received_amount, t.amount)) FROM account_activities t WHERE t.receiver_account_id = a.id AND t.created_at > :takenAt), 0)
+                + COALESCE((SELECT SUM(t.amount) FROM account_activities t WHERE t.sender_account_id = a.id AND t.created_at > :takenAt), 0),
+                :takenAt
+            FROM accounts a
+            WHERE a.id IN (:ids)
+            """,
+            nativeQuery = true)
+    int insertSnapshots(@Param("ids") Collection<Integer> ids, @Param("takenAt") LocalDateTime takenAt);
+}
@@ -2,8 +2,16 @@ package com.ercanbeyen.bankingapplication.repository;
 
 import com.ercanbeyen.bankingapplication.entity.BaseEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
 
+import java.util.Optional;
 
+@NoRepositoryBean
 public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, Integer> {
+    @Query("SELECT MIN(e.id) FROM #{#entityName} e")
+    Optional<Integer> findMinimumId();
 
+    @Query("SELECT MAX(e.id) FROM #{#entityName} e")
+    Optional<Integer> findMaximumId();
 }
@@ -1,13 +1,28 @@
 package com.ercanbeyen.bankingapplication.repository;
 
 import com.ercanbeyen.bankingapplication.entity.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface CustomerRepository extends BaseRepository<Customer> {
+public interface CustomerRepository extends BaseRepository<Customer>, JpaSpecificationExecutor<Customer> {
     Optional<Customer> findByNationalId(String nationalId);
+    List<Customer> findByNationalIdIn(Collection<String> nationalIds);
     boolean existsByNationalId(String nationalId);
+    boolean existsByNationalIdOrPhoneNumberOrEmail(String nationalId, String phoneNumber, String email);
+    List<UniqueFields> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /* Projection of the customer fields which are protected by unique constraints */
+    interface UniqueFields {
+        Integer getId();
+        String getNationalId();
+        String getPhoneNumber();
+        String getEmail();
+    }
 }
@@ -0,0 +1,23 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.ExchangeRateHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRateHistory, Long> {
+    /* Keyset page of the records in (effective_from, id) order, which is served by the effective_from index */
+    @Query(value = """
+            SELECT h
+            FROM ExchangeRateHistory h
+            WHERE h.effectiveFrom > :effectiveFrom OR (h.effectiveFrom = :effectiveFrom AND h.id > :id)
+            ORDER BY h.effectiveFrom ASC, h.id ASC
+            """)
+    List<ExchangeRateHistory> findNextRecords(@Param("effectiveFrom") LocalDateTime effectiveFrom, @Param("id") Long id, Limit limit);
+}
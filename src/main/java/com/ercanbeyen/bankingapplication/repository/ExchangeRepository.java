@@ -2,10 +2,11 @@ package com.ercanbeyen.bankingapplication.repository;
 
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.entity.Exchange;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ExchangeRepository extends BaseRepository<Exchange> {
+public interface ExchangeRepository extends BaseRepository<Exchange>, JpaSpecificationExecutor<Exchange> {
     boolean existsByBaseCurrencyAndTargetCurrency(Currency baseCurrency, Currency targetCurrency);
     boolean existsByTargetCurrencyAndBaseCurrency(Currency targetCurrency, Currency baseCurrency);
 }
@@ -0,0 +1,66 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.IdempotentResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotentResponseRepository extends JpaRepository<IdempotentResponse, String> {
+    Optional<IdempotentResponse> findByIdempotencyKeyAndCreatedAtAfter(String idempotencyKey, LocalDateTime createdAt);
+
+    /* First claim wins on the primary key, so a concurrent duplicate on any instance cannot execute the request */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO idempotent_responses (idempotency_key, request_hash, status, content_type, body, created_at)
+            VALUES (:#{#response.idempotencyKey}, :#{#response.requestHash}, :#{#response.status}, :#{#response.contentType}, :#{#response.body}, :#{#response.createdAt})
+            """,
+            nativeQuery = true)
+    int insertIfAbsent(@Param("response") IdempotentResponse response);
+
+    /* Expired responses and claims of crashed requests do not block a new claim of the key */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotent_responses
+            WHERE idempotency_key = :idempotencyKey
+                  AND (created_at < :expiredBefore OR (status = :pendingStatus AND created_at < :abandonedBefore))
+            """,
+            nativeQuery = true)
+    int deleteStaleByIdempotencyKey(
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("expiredBefore") LocalDateTime expiredBefore,
+            @Param("pendingStatus") int pendingStatus,
+            @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE idempotent_responses
+            SET status = :#{#response.status}, content_type = :#{#response.contentType}, body = :#{#response.body}
+            WHERE idempotency_key = :#{#response.idempotencyKey} AND status = :pendingStatus
+            """,
+            nativeQuery = true)
+    int completePending(@Param("response") IdempotentResponse response, @Param("pendingStatus") int pendingStatus);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotent_responses
+            WHERE idempotency_key = :idempotencyKey AND status = :pendingStatus
+            """,
+            nativeQuery = true)
+    int deletePendingByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey, @Param("pendingStatus") int pendingStatus);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotentResponse r WHERE r.createdAt < :createdAt")
+    int deleteByCreatedAtBefore(@Param("createdAt") LocalDateTime createdAt);
+}
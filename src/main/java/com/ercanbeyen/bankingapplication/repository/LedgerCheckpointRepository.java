@@ -0,0 +1,27 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Integer> {
+    int LEDGER_ID = 1; // single ledger per database
+
+    @Query("SELECT c.sequence FROM LedgerCheckpoint c WHERE c.id = :id")
+    Optional<Long> findSequenceById(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO ledger_checkpoints (id, sequence)
+            VALUES (:id, :sequence)
+            ON DUPLICATE KEY UPDATE sequence = :sequence
+            """,
+            nativeQuery = true)
+    int upsertSequence(@Param("id") Integer id, @Param("sequence") long sequence);
+}
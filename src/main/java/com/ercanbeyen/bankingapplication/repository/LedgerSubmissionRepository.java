@@ -0,0 +1,20 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.LedgerSubmission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerSubmissionRepository extends JpaRepository<LedgerSubmission, String> {
+    /* Flush must not be blocked by a key which is already recorded, so the existing key is kept */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO ledger_submissions (idempotency_key, sequence)
+            VALUES (:idempotencyKey, :sequence)
+            """,
+            nativeQuery = true)
+    int insertSubmission(@Param("idempotencyKey") String idempotencyKey, @Param("sequence") long sequence);
+}
@@ -0,0 +1,42 @@
+package com.ercanbeyen.bankingapplication.repository;
+
+import com.ercanbeyen.bankingapplication.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+    /* Entries locked by another relay are skipped, so relays on several instances drain the outbox without waiting for each other */
+    @Query(value = """
+            SELECT id, customer_national_id AS customerNationalId
+            FROM notification_outbox
+            ORDER BY created_at ASC, id ASC
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """,
+            nativeQuery = true)
+    List<PendingEntry> lockOldestEntries(@Param("limit") int limit);
+
+    /* Entries of deleted customers are not joined, so they are dropped instead of failing the whole chunk */
+    @Modifying
+    @Query(value = """
+            INSERT INTO notifications (id, customer_national_id, message)
+            SELECT UUID(), o.customer_national_id, o.message
+            FROM notification_outbox o
+            JOIN customers c ON c.national_id = o.customer_national_id
+            WHERE o.id IN (:ids)
+            """,
+            nativeQuery = true)
+    int insertNotifications(@Param("ids") Collection<String> ids);
+
+    interface PendingEntry {
+        String getId();
+        String getCustomerNationalId();
+    }
+}
@@ -3,9 +3,73 @@ package com.ercanbeyen.bankingapplication.repository;
 import com.ercanbeyen.bankingapplication.entity.Customer;
 import com.ercanbeyen.bankingapplication.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
-    void deleteAllByCustomer(Customer customer);
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.customer = :customer")
+    int deleteAllByCustomer(@Param("customer") Customer customer);
+
+    /* Oldest rows are deleted through the created_at index, so a batch only locks the rows it deletes */
+    @Modifying
+    @Query(value = """
+            DELETE FROM notifications
+            WHERE created_at < :createdAt
+            ORDER BY created_at ASC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    int deleteOldest(@Param("createdAt") LocalDateTime createdAt, @Param("limit") int limit);
+
+    /* Served by the (customer_national_id, created_at) index, so a page costs the same regardless of the size of the inbox */
+    @Query(value = """
+            SELECT *
+            FROM notifications n
+            WHERE n.customer_national_id = :nationalId
+                  AND (:unread IS NULL OR :unread = FALSE OR n.read_at IS NULL)
+                  AND (:cursorCreatedAt IS NULL OR n.created_at < :cursorCreatedAt OR (n.created_at = :cursorCreatedAt AND n.id < :cursorId))
+            ORDER BY n.created_at DESC, n.id DESC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Notification> findInbox(
+            @Param("nationalId") String nationalId,
+            @Param("unread") Boolean unread,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") String cursorId,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM notifications WHERE customer_national_id = :nationalId AND read_at IS NULL", nativeQuery = true)
+    long countUnread(@Param("nationalId") String nationalId);
+
+    @Modifying
+    @Query(value = "UPDATE notifications SET read_at = :readAt WHERE customer_national_id = :nationalId AND read_at IS NULL", nativeQuery = true)
+    int markAllAsRead(@Param("nationalId") String nationalId, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO notifications (id, customer_national_id, message)
+            SELECT UUID(), c.national_id, :message
+            FROM customers c
+            WHERE c.id BETWEEN :fromId AND :toId
+            """,
+            nativeQuery = true)
+    int insertForCustomers(@Param("message") String message, @Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO notifications (id, customer_national_id, message)
+            SELECT UUID(), c.national_id, :message
+            FROM customers c
+            WHERE c.birth_month = :birthMonth AND c.birth_day = :birthDay AND c.id BETWEEN :fromId AND :toId
+            """,
+            nativeQuery = true)
+    int insertForCustomersBornOn(@Param("message") String message, @Param("birthMonth") Integer birthMonth, @Param("birthDay") Integer birthDay, @Param("fromId") Integer fromId, @Param("toId") Integer toId);
 }
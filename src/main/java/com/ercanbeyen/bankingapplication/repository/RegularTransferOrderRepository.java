@@ -1,9 +1,51 @@
 package com.ercanbeyen.bankingapplication.repository;
 
 import com.ercanbeyen.bankingapplication.entity.RegularTransferOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface RegularTransferOrderRepository extends BaseRepository<RegularTransferOrder> {
+public interface RegularTransferOrderRepository extends BaseRepository<RegularTransferOrder>, JpaSpecificationExecutor<RegularTransferOrder> {
+    /* Range scan on the next execution date index for the senders of the lane, which is continued from the last read id */
+    @Query(value = """
+            SELECT o.id AS id, o.senderAccount.id AS senderAccountId, o.regularTransfer.receiverAccount.id AS receiverAccountId,
+                o.regularTransfer.amount AS amount, o.regularTransfer.explanation AS explanation
+            FROM RegularTransferOrder o
+            WHERE o.nextExecutionDate <= :executionDate AND MOD(o.senderAccount.id, :laneCount) = :lane AND o.id >= :fromId
+            ORDER BY o.id ASC
+            """)
+    List<DueOrder> findDueOrders(
+            @Param("executionDate") LocalDate executionDate,
+            @Param("lane") Integer lane,
+            @Param("laneCount") Integer laneCount,
+            @Param("fromId") Integer fromId,
+            Limit limit);
+
+    /* Next execution date is moved to the first period after the execution date, so missed periods are not repeated */
+    @Modifying
+    @Query(value = """
+            UPDATE regular_transfer_orders
+            SET next_execution_date = DATE_ADD(next_execution_date, INTERVAL (FLOOR(DATEDIFF(:executionDate, next_execution_date) / (7 * period)) + 1) * 7 * period DAY)
+            WHERE id IN (:ids) AND next_execution_date <= :executionDate
+            """,
+            nativeQuery = true)
+    int advanceNextExecutionDates(@Param("ids") Collection<Integer> ids, @Param("executionDate") LocalDate executionDate);
 
+    /* Projection of the order fields which are needed to execute the transfer */
+    interface DueOrder {
+        Integer getId();
+        Integer getSenderAccountId();
+        Integer getReceiverAccountId();
+        BigDecimal getAmount();
+        String getExplanation();
+    }
 }
@@ -1,86 +1,109 @@
 package com.ercanbeyen.bankingapplication.scheduler;
 
-import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
-import com.ercanbeyen.bankingapplication.constant.enums.Entity;
+import com.ercanbeyen.bankingapplication.config.ScheduledJobConfig;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
-import com.ercanbeyen.bankingapplication.dto.AccountDto;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.ercanbeyen.bankingapplication.service.impl.BalanceSnapshotService;
+import com.ercanbeyen.bankingapplication.service.impl.IdempotencyService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @Component
-@Async
 @EnableScheduling
 @Slf4j
-@RequiredArgsConstructor
 public class AccountScheduledTasks {
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-    private static final String ID = "id";
+    private final JobLauncher jobLauncher;
+    private final Job depositInterestJob;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final IdempotencyService idempotencyService;
+    private final int snapshotBatchSize;
+
+    public AccountScheduledTasks(
+            JobLauncher jobLauncher,
+            @Qualifier("depositInterestJob") Job depositInterestJob,
+            BalanceSnapshotService balanceSnapshotService,
+            IdempotencyService idempotencyService,
+            @Value("${balance-snapshot.batch-size:1000}") int snapshotBatchSize) {
+        this.jobLauncher = jobLauncher;
+        this.depositInterestJob = depositInterestJob;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.idempotencyService = idempotencyService;
+        this.snapshotBatchSize = snapshotBatchSize;
+    }
 
     @Scheduled(cron = "0 0 9 * * *") // 9:00 everyday
     public void addMoneyToDepositAccounts() {
         final String task = "periodic money deposit to deposit account";
         log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
 
-        List<AccountDto> accountDtos;
+        /* Job instance of the day cannot be completed twice, so interests are added at most once a day */
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLocalDate(ScheduledJobConfig.DATE, LocalDate.now())
+                .toJobParameters();
 
         try {
-            UriComponents uriComponents = UriComponentsBuilder.fromUriString(Entity.ACCOUNT.getCollectionUrl())
-                    .queryParam("type", String.valueOf(AccountType.DEPOSIT))
-                    .build();
+            JobExecution jobExecution = jobLauncher.run(depositInterestJob, jobParameters);
+            log.info(LogMessages.Batch.JOB_EXECUTION, depositInterestJob.getName(), jobExecution.getStatus());
+        } catch (Exception exception) {
+            log.error(LogMessages.EXCEPTION, exception.getMessage());
+        }
 
-            String url = uriComponents.toString();
-            log.info("Getting deposit accounts url: {}", url);
+        log.info(LogMessages.SCHEDULED_TASK_ENDED, task);
+    }
 
-            List<?> response = restTemplate.getForObject(url, List.class);
-            assert response != null;
-            log.info(LogMessages.CLASS_OF_RESPONSE, response.getClass());
+    @Scheduled(cron = "0 0 0 * * *") // 00:00 everyday
+    public void takeBalanceSnapshots() {
+        final String task = "daily balance snapshot";
+        log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
 
-            accountDtos = objectMapper.convertValue(response, new TypeReference<>() {});
-            accountDtos.forEach(accountDto -> log.info(LogMessages.CLASS_OF_OBJECT, "AccountDto", accountDto.getClass()));
+        long numberOfSnapshots = 0;
 
-            log.info(LogMessages.REST_TEMPLATE_SUCCESS, accountDtos);
+        try {
+            LocalDateTime takenAt = balanceSnapshotService.prepareBalanceSnapshots();
+            Integer lastAccountId = 0;
+            List<Integer> accountIds;
+
+            /* Each chunk is a transaction of its own, so transfers only wait for the snapshots of their own chunk */
+            do {
+                accountIds = balanceSnapshotService.takeBalanceSnapshots(takenAt, lastAccountId, snapshotBatchSize);
+                numberOfSnapshots += accountIds.size();
+
+                if (!accountIds.isEmpty()) {
+                    lastAccountId = accountIds.getLast();
+                }
+            } while (accountIds.size() == snapshotBatchSize);
         } catch (Exception exception) {
             log.error(LogMessages.EXCEPTION, exception.getMessage());
-            return;
         }
 
-        log.info("Before mapping to integer list");
-        List<Integer> accountIdList = accountDtos.stream()
-                .map(AccountDto::getId)
-                .toList();
-        log.info("After mapping to integer list");
-
-        log.info("AccountIdList: {}", accountIdList);
+        log.info("Number of balance snapshots: {}", numberOfSnapshots);
 
-        accountIdList.forEach(accountId -> {
-            log.info(LogMessages.BEFORE_REQUEST);
-
-            Map<String, Integer> parameters = Map.of(ID, accountId);
-            String url = Entity.ACCOUNT.getCollectionUrl() + "/{" + ID + "}/deposit";
+        log.info(LogMessages.SCHEDULED_TASK_ENDED, task);
+    }
 
-            try {
-                restTemplate.put(url, null, parameters);
-                String logMessage = Entity.ACCOUNT.getValue() + " " + accountId + " is successfully updated";
-                log.info(LogMessages.REST_TEMPLATE_SUCCESS, logMessage);
-            } catch (Exception exception) {
-                log.error(LogMessages.EXCEPTION, exception.getMessage());
-            }
+    @Scheduled(cron = "0 30 * * * *") // Every hour at minute 30
+    public void deleteExpiredIdempotentResponses() {
+        final String task = "expired idempotent response deletion";
+        log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
 
-            log.info(LogMessages.AFTER_REQUEST);
-        });
+        try {
+            int numberOfDeletedEntities = idempotencyService.deleteExpiredResponses();
+            log.info("Number of deleted idempotent responses: {}", numberOfDeletedEntities);
+        } catch (Exception exception) {
+            log.error(LogMessages.EXCEPTION, exception.getMessage());
+        }
 
         log.info(LogMessages.SCHEDULED_TASK_ENDED, task);
     }
@@ -1,86 +1,65 @@
 package com.ercanbeyen.bankingapplication.scheduler;
 
-import com.ercanbeyen.bankingapplication.constant.enums.Entity;
+import com.ercanbeyen.bankingapplication.config.ScheduledJobConfig;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
-import com.ercanbeyen.bankingapplication.dto.CustomerDto;
-import com.ercanbeyen.bankingapplication.dto.NotificationDto;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Component
-@Async
 @Slf4j
-@RequiredArgsConstructor
 public class CustomerScheduledTasks {
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final JobLauncher jobLauncher;
+    private final Job customerNotificationJob;
+
+    public CustomerScheduledTasks(JobLauncher jobLauncher, @Qualifier("customerNotificationJob") Job customerNotificationJob) {
+        this.jobLauncher = jobLauncher;
+        this.customerNotificationJob = customerNotificationJob;
+    }
 
     @Scheduled(cron = "0 0 12 * * *") // 12:00 everyday
     public void celebrateCustomersBirthday() {
         final String task = "celebrate customers' birthday";
-        log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
         LocalDate birthday = LocalDate.now();
-        UriComponents uriComponents = UriComponentsBuilder.fromUriString(Entity.CUSTOMER.getCollectionUrl())
-                .queryParam("birthDate", birthday.toString())
-                .build();
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
+                .addLocalDate(ScheduledJobConfig.BIRTH_DATE, birthday);
         String notificationMessage = "happy birthday";
-        notifyCustomers(task, uriComponents, notificationMessage);
+        notifyCustomers(task, jobParametersBuilder, notificationMessage);
     }
 
     @Scheduled(cron = "0 0 0 1 9 ?") // Every September 1st at midnight
     public void announceStartOfRating() {
         final String task = "announce start of rating";
-        UriComponents uriComponents = UriComponentsBuilder.fromUriString(Entity.CUSTOMER.getCollectionUrl())
-                .build();
+        JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
         String notificationMessage = "Ratings for " + LocalDateTime.now().getYear() + " is started";
-        notifyCustomers(task, uriComponents, notificationMessage);
+        notifyCustomers(task, jobParametersBuilder, notificationMessage);
     }
 
-    private void notifyCustomers(String task, UriComponents uriComponents, String notificationMessage) {
+    private void notifyCustomers(String task, JobParametersBuilder jobParametersBuilder, String notificationMessage) {
         log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
-        List<CustomerDto> customerDtos;
-
-        try {
-            String url = uriComponents.toString();
-            List<?> response = restTemplate.getForObject(url, List.class);
-            assert response != null;
-            log.info(LogMessages.CLASS_OF_RESPONSE, response.getClass());
 
-            customerDtos = objectMapper.convertValue(response, new TypeReference<>() {});
-            customerDtos.forEach(customerDto -> log.info(LogMessages.CLASS_OF_OBJECT, "CustomerDto", customerDto.getClass()));
+        /* Job instance is identified by the date and the message, so customers are notified at most once */
+        JobParameters jobParameters = jobParametersBuilder
+                .addLocalDate(ScheduledJobConfig.DATE, LocalDate.now())
+                .addString(ScheduledJobConfig.MESSAGE, notificationMessage)
+                .toJobParameters();
 
-            log.info(LogMessages.REST_TEMPLATE_SUCCESS, customerDtos);
+        try {
+            JobExecution jobExecution = jobLauncher.run(customerNotificationJob, jobParameters);
+            log.info(LogMessages.Batch.JOB_EXECUTION, customerNotificationJob.getName(), jobExecution.getStatus());
         } catch (Exception exception) {
             log.error(LogMessages.EXCEPTION, exception.getMessage());
-            return;
         }
 
-        customerDtos.forEach(customerDto -> {
-            NotificationDto request = new NotificationDto(customerDto.getNationalId(), notificationMessage);
-
-            try {
-                log.info(LogMessages.BEFORE_REQUEST);
-                NotificationDto response = restTemplate.postForObject(Entity.NOTIFICATION.getCollectionUrl(), request, NotificationDto.class);
-                log.info(LogMessages.REST_TEMPLATE_SUCCESS, response);
-            } catch (Exception exception) {
-                log.error(LogMessages.EXCEPTION, exception.getMessage());
-            }
-
-            log.info(LogMessages.AFTER_REQUEST);
-        });
-
         log.info(LogMessages.SCHEDULED_TASK_ENDED, task);
     }
 }
@@ -0,0 +1,76 @@
+package com.ercanbeyen.bankingapplication.scheduler;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class NotificationScheduledTasks {
+    private final NotificationService notificationService;
+    private final int relayBatchSize;
+    private final Duration retentionPeriod;
+    private final int purgeBatchSize;
+    private final Duration purgePause;
+
+    public NotificationScheduledTasks(
+            NotificationService notificationService,
+            @Value("${notification.outbox.relay-batch-size:500}") int relayBatchSize,
+            @Value("${notification.retention.period:180d}") Duration retentionPeriod,
+            @Value("${notification.retention.batch-size:1000}") int purgeBatchSize,
+            @Value("${notification.retention.pause:100ms}") Duration purgePause) {
+        this.notificationService = notificationService;
+        this.relayBatchSize = relayBatchSize;
+        this.retentionPeriod = retentionPeriod;
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgePause = purgePause;
+    }
+
+    /* Runs frequently, so only the relayed entries are logged instead of the start and the end of the task */
+    @Scheduled(fixedDelayString = "${notification.outbox.relay-interval-ms:1000}")
+    public void relayNotificationOutbox() {
+        int numberOfRelayedEntries;
+
+        try {
+            /* Each batch is a transaction of its own, so a backlog is drained without holding the locks of the whole backlog */
+            do {
+                numberOfRelayedEntries = notificationService.relayNotifications(relayBatchSize);
+            } while (numberOfRelayedEntries == relayBatchSize);
+        } catch (Exception exception) {
+            log.error(LogMessages.EXCEPTION, exception.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 0 3 * * *") // 03:00 everyday
+    public void deleteExpiredNotifications() {
+        final String task = "expired notification deletion";
+        log.info(LogMessages.SCHEDULED_TASK_STARTED, task);
+
+        LocalDateTime createdBefore = LocalDateTime.now().minus(retentionPeriod);
+        long numberOfDeletedNotifications = 0;
+        int numberOfDeletedNotificationsInBatch;
+
+        try {
+            /* Pauses between the batches leave room for the inserts of the transfers and the replication */
+            do {
+                numberOfDeletedNotificationsInBatch = notificationService.deleteExpiredNotifications(createdBefore, purgeBatchSize);
+                numberOfDeletedNotifications += numberOfDeletedNotificationsInBatch;
+                Thread.sleep(purgePause);
+            } while (numberOfDeletedNotificationsInBatch == purgeBatchSize);
+        } catch (InterruptedException exception) {
+            log.warn("Deletion of expired notifications is interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Exception exception) {
+            log.error(LogMessages.EXCEPTION, exception.getMessage());
+        }
+
+        log.info("Number of deleted notifications: {}", numberOfDeletedNotifications);
+        log.info(LogMessages.SCHEDULED_TASK_ENDED, task);
+    }
+}
@@ -2,14 +2,24 @@ package com.ercanbeyen.bankingapplication.service;
 
 import com.ercanbeyen.bankingapplication.dto.AccountActivityDto;
 import com.ercanbeyen.bankingapplication.dto.request.AccountActivityRequest;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.view.AccountActivityView;
 import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AccountActivityService {
-    List<AccountActivityDto> getAccountActivities(AccountActivityFilteringOptions options);
+    CursorPageResponse<AccountActivityDto> getAccountActivities(AccountActivityFilteringOptions options);
+    CursorPageResponse<AccountActivityDto> getAccountActivitiesOfAccounts(Collection<Integer> accountIds, AccountActivityFilteringOptions options);
+    void exportAccountActivities(AccountActivityFilteringOptions options, OutputStream outputStream) throws IOException;
     AccountActivityDto getAccountActivity(String id);
     void createAccountActivity(AccountActivityRequest request);
+    void createAccountActivities(List<AccountActivityRequest> requests);
+    BigDecimal getBalanceChange(Integer accountId, LocalDateTime from, LocalDateTime to);
     List<AccountActivityView> getAccountActivityViews(Integer senderAccountId, Integer receiverAccountId);
 }
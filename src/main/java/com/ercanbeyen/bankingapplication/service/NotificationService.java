@@ -2,10 +2,19 @@ package com.ercanbeyen.bankingapplication.service;
 
 import com.ercanbeyen.bankingapplication.dto.NotificationDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface NotificationService {
     CompletableFuture<NotificationDto> createNotification(NotificationDto notificationDto);
+    void createNotifications(List<NotificationDto> notificationDtos);
+    void enqueueNotifications(List<NotificationDto> notificationDtos);
+    int relayNotifications(int limit);
     String deleteNotification(String id);
     void deleteNotifications(String nationalId);
+    int deleteExpiredNotifications(LocalDateTime createdBefore, int limit);
+    NotificationDto markNotificationAsRead(String id);
+    String markNotificationsAsRead(String nationalId);
+    long getUnreadNotificationCount(String nationalId);
 }
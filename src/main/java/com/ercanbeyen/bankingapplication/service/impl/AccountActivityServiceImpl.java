@@ -1,10 +1,12 @@
 package com.ercanbeyen.bankingapplication.service.impl;
 
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.AccountActivityDto;
 import com.ercanbeyen.bankingapplication.dto.request.AccountActivityRequest;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.entity.AccountActivity;
 import com.ercanbeyen.bankingapplication.view.AccountActivityView;
 import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
@@ -13,15 +15,27 @@ import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
 import com.ercanbeyen.bankingapplication.repository.AccountActivityRepository;
 import com.ercanbeyen.bankingapplication.repository.AccountActivityViewRepository;
 import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.specification.AccountActivitySpecifications;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Pair;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -30,27 +44,82 @@ public class AccountActivityServiceImpl implements AccountActivityService {
     private final AccountActivityRepository accountActivityRepository;
     private final AccountActivityViewRepository accountActivityViewRepository;
     private final AccountActivityMapper accountActivityMapper;
+    private final ObjectMapper objectMapper;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final byte NEW_LINE = '\n';
 
     @Override
-    public List<AccountActivityDto> getAccountActivities(AccountActivityFilteringOptions options) {
+    public CursorPageResponse<AccountActivityDto> getAccountActivities(AccountActivityFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        Predicate<AccountActivity> transactionPredicate = accountActivity -> (options.type() == null || options.type() == accountActivity.getType())
-                && (options.senderAccountId() == null || options.senderAccountId().equals(accountActivity.getSenderAccount().getId()))
-                && (options.receiverAccountId() == null || options.receiverAccountId().equals(accountActivity.getReceiverAccount().getId()))
-                && (options.minimumAmount() == null || options.minimumAmount() <= accountActivity.getAmount())
-                && (options.createAt() == null || (options.createAt().isEqual(accountActivity.getCreatedAt().toLocalDate())));
+        int pageSize = PaginationUtils.getPageSize(options.size());
+        Pair<LocalDateTime, String> cursor = PaginationUtils.decodeCursor(options.cursor());
 
-        List<AccountActivityDto> accountActivityDtos = new ArrayList<>();
-        Comparator<AccountActivity> activityComparator = Comparator.comparing(AccountActivity::getCreatedAt).reversed();
+        List<AccountActivityDto> accountActivityDtos = getAccountActivities(options, cursor, pageSize)
+                .stream()
+                .map(accountActivityMapper::entityToDto)
+                .toList();
+
+        return constructCursorPage(accountActivityDtos, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<AccountActivityDto> getAccountActivitiesOfAccounts(Collection<Integer> accountIds, AccountActivityFilteringOptions options) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        accountActivityRepository.findAll()
+        int pageSize = PaginationUtils.getPageSize(options.size());
+
+        if (accountIds.isEmpty()) {
+            log.warn("There are no accounts to get account activities");
+            return new CursorPageResponse<>(List.of(), null);
+        }
+
+        Pair<LocalDateTime, String> cursor = PaginationUtils.decodeCursor(options.cursor());
+        LocalDate createAt = options.createAt();
+
+        List<AccountActivityDto> accountActivityDtos = accountActivityRepository.findByAccountIds(
+                        accountIds,
+                        options.type() == null ? null : options.type().name(),
+                        options.minimumAmount(),
+                        createAt == null ? null : createAt.atStartOfDay(),
+                        createAt == null ? null : createAt.plusDays(1).atStartOfDay(),
+                        cursor == null ? null : cursor.getValue0(),
+                        cursor == null ? null : cursor.getValue1(),
+                        pageSize)
                 .stream()
-                .filter(transactionPredicate)
-                .sorted(activityComparator)
-                .forEach(accountActivity -> accountActivityDtos.add(accountActivityMapper.entityToDto(accountActivity)));
+                .map(accountActivityMapper::entityToDto)
+                .toList();
+
+        return constructCursorPage(accountActivityDtos, pageSize);
+    }
+
+    @Override
+    public void exportAccountActivities(AccountActivityFilteringOptions options, OutputStream outputStream) throws IOException {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        /* Activities are written chunk by chunk, so that the export never materializes in heap */
+        Pair<LocalDateTime, String> cursor = PaginationUtils.decodeCursor(options.cursor());
+        List<AccountActivity> accountActivities;
+        int numberOfExportedActivities = 0;
+
+        do {
+            accountActivities = getAccountActivities(options, cursor, EXPORT_CHUNK_SIZE);
+
+            for (AccountActivity accountActivity : accountActivities) {
+                outputStream.write(objectMapper.writeValueAsBytes(accountActivityMapper.entityToDto(accountActivity)));
+                outputStream.write(NEW_LINE);
+            }
+
+            outputStream.flush();
+            numberOfExportedActivities += accountActivities.size();
 
-        return accountActivityDtos;
+            if (!accountActivities.isEmpty()) {
+                AccountActivity lastAccountActivity = accountActivities.getLast();
+                cursor = new Pair<>(lastAccountActivity.getCreatedAt(), lastAccountActivity.getId());
+            }
+        } while (accountActivities.size() == EXPORT_CHUNK_SIZE);
+
+        log.info("Number of exported account activities: {}", numberOfExportedActivities);
     }
 
     @Override
@@ -63,6 +132,7 @@ public class AccountActivityServiceImpl implements AccountActivityService {
     }
 
     @Override
+    @Transactional
     public void createAccountActivity(AccountActivityRequest request) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
@@ -75,17 +145,89 @@ public class AccountActivityServiceImpl implements AccountActivityService {
                 request.senderAccount(),
                 request.receiverAccount(),
                 request.amount(),
+                request.receivedAmount(),
                 request.explanation()
         );
 
         AccountActivity savedAccountActivity = accountActivityRepository.save(accountActivity);
         log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.ACCOUNT_ACTIVITY.getValue(), savedAccountActivity.getId());
+
+        createAccountActivityViews(List.of(savedAccountActivity));
+    }
+
+    @Override
+    @Transactional
+    public void createAccountActivities(List<AccountActivityRequest> requests) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        List<AccountActivity> accountActivities = requests.stream()
+                .map(request -> new AccountActivity(
+                        request.activityType(),
+                        request.senderAccount(),
+                        request.receiverAccount(),
+                        request.amount(),
+                        request.receivedAmount(),
+                        request.explanation()))
+                .toList();
+
+        List<AccountActivity> savedAccountActivities = accountActivityRepository.saveAll(accountActivities);
+        log.info("{} {}s are successfully created", savedAccountActivities.size(), Entity.ACCOUNT_ACTIVITY.getValue());
+
+        createAccountActivityViews(savedAccountActivities);
+    }
+
+    /* Each sum is a range scan on the (sender|receiver)_account_id, created_at index */
+    @Override
+    public BigDecimal getBalanceChange(Integer accountId, LocalDateTime from, LocalDateTime to) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        BigDecimal receivedAmount = accountActivityRepository.sumAmountsReceivedBetween(accountId, from, to);
+        BigDecimal sentAmount = accountActivityRepository.sumAmountsSentBetween(accountId, from, to);
+
+        return receivedAmount.subtract(sentAmount);
     }
 
     @Override
     public List<AccountActivityView> getAccountActivityViews(Integer senderAccountId, Integer receiverAccountId) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
-        return accountActivityViewRepository.findBySenderAccountIdAndReceiverAccountId(senderAccountId, receiverAccountId);
+        return accountActivityViewRepository.findBySenderAccountIdAndReceiverAccountIdOrderByCreatedAtDescAmountDesc(senderAccountId, receiverAccountId);
+    }
+
+    /* One projection row per distinct currency of the sender and receiver accounts, written in the transaction of the activities */
+    private void createAccountActivityViews(List<AccountActivity> accountActivities) {
+        List<AccountActivityView> accountActivityViews = new ArrayList<>();
+
+        for (AccountActivity accountActivity : accountActivities) {
+            Set<Currency> currencies = EnumSet.noneOf(Currency.class);
+
+            if (accountActivity.getSenderAccount() != null) {
+                currencies.add(accountActivity.getSenderAccount().getCurrency());
+            }
+
+            if (accountActivity.getReceiverAccount() != null) {
+                currencies.add(accountActivity.getReceiverAccount().getCurrency());
+            }
+
+            currencies.forEach(currency -> accountActivityViews.add(new AccountActivityView(accountActivity, currency)));
+        }
+
+        accountActivityViewRepository.saveAll(accountActivityViews);
+    }
+
+    private List<AccountActivity> getAccountActivities(AccountActivityFilteringOptions options, Pair<LocalDateTime, String> cursor, int limit) {
+        Specification<AccountActivity> specification = AccountActivitySpecifications.filter(options, cursor);
+        return accountActivityRepository.findBy(specification, query -> query.sortBy(AccountActivitySpecifications.SORT).limit(limit).all());
+    }
+
+    private static CursorPageResponse<AccountActivityDto> constructCursorPage(List<AccountActivityDto> accountActivityDtos, int pageSize) {
+        String nextCursor = null;
+
+        if (!accountActivityDtos.isEmpty() && accountActivityDtos.size() == pageSize) {
+            AccountActivityDto lastAccountActivityDto = accountActivityDtos.getLast();
+            nextCursor = PaginationUtils.encodeCursor(lastAccountActivityDto.createdAt(), lastAccountActivityDto.id());
+        }
+
+        return new CursorPageResponse<>(accountActivityDtos, nextCursor);
     }
 
     private AccountActivity findById(String id) {
@@ -5,60 +5,70 @@ import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.AccountDto;
 import com.ercanbeyen.bankingapplication.dto.NotificationDto;
+import com.ercanbeyen.bankingapplication.dto.request.BatchTransferRequest;
 import com.ercanbeyen.bankingapplication.dto.request.ExchangeRequest;
 import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
 import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.entity.BalanceSnapshot;
 import com.ercanbeyen.bankingapplication.entity.Customer;
 import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
 import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.bankingapplication.mapper.AccountMapper;
+import com.ercanbeyen.bankingapplication.metric.TransferMetrics;
 import com.ercanbeyen.bankingapplication.option.AccountFilteringOptions;
 import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.BalanceSnapshotRepository;
 import com.ercanbeyen.bankingapplication.dto.response.CustomerStatisticsResponse;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
 import com.ercanbeyen.bankingapplication.service.BaseService;
 import com.ercanbeyen.bankingapplication.service.NotificationService;
+import com.ercanbeyen.bankingapplication.specification.AccountSpecifications;
+import com.ercanbeyen.bankingapplication.model.Money;
 import com.ercanbeyen.bankingapplication.util.AccountUtils;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountService implements BaseService<AccountDto, AccountFilteringOptions> {
+    private static final int MAXIMUM_TRANSACTION_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 20;
     private final AccountRepository accountRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
     private final AccountMapper accountMapper;
     private final CustomerService customerService;
     private final TransactionService transactionService;
     private final NotificationService notificationService;
+    private final TransferMetrics transferMetrics;
 
     @Override
     public List<AccountDto> getEntities(AccountFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        Predicate<Account> accountPredicate = account -> {
-            boolean typeFilter = (options.getType() == null || options.getType() == account.getType());
-            boolean timeFilter = (options.getCreateTime() == null || options.getCreateTime().toLocalDate().isEqual(options.getCreateTime().toLocalDate()));
-            boolean closedFilter = (options.getIsClosed() == null || options.getIsClosed() == (account.getClosedAt() != null));
-            return typeFilter && timeFilter && closedFilter;
-        };
+        Specification<Account> specification = AccountSpecifications.filter(options);
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        int pageSize = PaginationUtils.getPageSize(options.getSize());
 
-        List<AccountDto> accountDtos = new ArrayList<>();
-
-        accountRepository.findAll()
+        return accountRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).all())
                 .stream()
-                .filter(accountPredicate)
-                .forEach(account -> accountDtos.add(accountMapper.entityToDto(account)));
-
-        return accountDtos;
+                .map(accountMapper::entityToDto)
+                .toList();
     }
 
     @Override
@@ -69,6 +79,7 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
     }
 
     @Override
+    @Transactional
     public AccountDto createEntity(AccountDto request) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
@@ -79,6 +90,13 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         Account savedAccount = accountRepository.save(account);
         log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.ACCOUNT.getValue(), savedAccount.getId());
 
+        /* Opening balance has no account activity, so historic balances start from this snapshot */
+        BalanceSnapshot openingSnapshot = new BalanceSnapshot();
+        openingSnapshot.setAccount(savedAccount);
+        openingSnapshot.setBalance(savedAccount.getBalance());
+        openingSnapshot.setTakenAt(savedAccount.getCreatedAt());
+        balanceSnapshotRepository.save(openingSnapshot);
+
         return accountMapper.entityToDto(savedAccount);
     }
 
@@ -87,7 +105,7 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Account account = findById(id);
-        checkIsAccountClosed(account);
+        AccountUtils.checkIsAccountClosed(account);
         AccountUtils.checkCurrencies(account.getCurrency(), request.getCurrency());
 
         account.setCity(request.getCity());
@@ -111,11 +129,11 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         log.info(LogMessages.RESOURCE_DELETE_SUCCESS, Entity.ACCOUNT.getValue(), id);
     }
 
-    public String updateBalanceOfCurrentAccount(Integer id, AccountActivityType activityType, Double amount) {
+    public String updateBalanceOfCurrentAccount(Integer id, AccountActivityType activityType, BigDecimal amount) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Account account = findById(id);
-        transactionService.updateBalanceOfSingleAccount(activityType, amount, account, null);
+        transactionService.updateBalanceOfSingleAccount(activityType, Money.of(amount, account.getCurrency()), account, null);
 
         return String.format(ResponseMessages.SUCCESS, activityType.getValue());
     }
@@ -124,18 +142,15 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Account account = findById(id);
-        checkIsAccountClosed(account);
+        AccountUtils.checkIsAccountClosed(account);
 
-        if (!AccountUtils.checkAccountForPeriodicMoneyAdd(account.getType(), account.getUpdatedAt(), account.getDepositPeriod())) {
+        if (!AccountUtils.checkAccountForPeriodicMoneyAdd(account.getType(), account.getDepositPeriod(), account.getMaturityDate())) {
             log.warn("Deposit period is not completed");
             return "Today is not the completion of deposit period";
         }
 
-        Double amount = AccountUtils.calculateInterest(account.getBalance(), account.getInterestRatio());
-        transactionService.updateBalanceOfSingleAccount(AccountActivityType.FEE, amount, account, "Fee is transferred, because deposit period is completed");
-
-        NotificationDto notificationDto = new NotificationDto(account.getCustomer().getNationalId(), String.format("Term of your %s is deposit account has been renewed.", account.getCurrency()));
-        notificationService.createNotification(notificationDto);
+        List<NotificationDto> notificationDtos = transactionService.accrueDepositInterests(List.of(id), LocalDate.now());
+        notificationDtos.forEach(notificationService::createNotification);
 
         String response = AccountActivityType.FEE.getValue() + " transfer";
 
@@ -149,40 +164,44 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         Integer receiverAccountId = request.receiverAccountId();
 
         Account senderAccount = findById(senderAccountId);
-        checkIsAccountClosed(senderAccount);
+        AccountUtils.checkIsAccountClosed(senderAccount);
 
         Account receiverAccount = findById(receiverAccountId);
-        checkIsAccountClosed(receiverAccount);
+        AccountUtils.checkIsAccountClosed(receiverAccount);
 
-        Double amount = request.amount();
-        Currency currency = senderAccount.getCurrency();
+        AccountUtils.checkCurrencies(senderAccount.getCurrency(), receiverAccount.getCurrency());
 
-        checkAccountsBeforeMoneyTransfer(senderAccount, receiverAccount, amount);
+        Money amount = Money.of(request.amount(), senderAccount.getCurrency());
 
-        transactionService.transferMoneyBetweenAccounts(request, senderAccountId, amount, receiverAccountId, senderAccount, receiverAccount);
+        /* Notifications are written to the outbox by the transfer transaction */
+        executeWithRetry(() -> transactionService.transferMoneyBetweenAccounts(request, senderAccountId, amount, receiverAccountId, senderAccount, receiverAccount));
 
-        NotificationDto senderNotificationDto = new NotificationDto(senderAccount.getCustomer().getNationalId(), String.format("%s %s money transaction has been made from your account.", amount, currency));
-        NotificationDto receiverNotificationDto = new NotificationDto(receiverAccount.getCustomer().getNationalId(), String.format("%s %s money transaction has been made to your account.", amount, currency));
+        return String.format(ResponseMessages.SUCCESS, AccountActivityType.MONEY_TRANSFER.getValue());
+    }
 
-        notificationService.createNotification(senderNotificationDto);
-        notificationService.createNotification(receiverNotificationDto);
+    public List<TransferResult> transferMoneyInBatch(BatchTransferRequest request) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        return String.format(ResponseMessages.SUCCESS, AccountActivityType.MONEY_TRANSFER.getValue());
+        List<TransferResult> transferResults = executeWithRetry(() -> transactionService.transferMoneyInBatch(request.transfers()));
+
+        long numberOfCompletedTransfers = transferResults.stream()
+                .filter(TransferResult::completed)
+                .count();
+        log.info("{} of {} transfers are completed", numberOfCompletedTransfers, transferResults.size());
+
+        return transferResults;
     }
 
     public String exchangeMoney(ExchangeRequest request) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Account sellerAccount = findById(request.sellerId());
-        checkIsAccountClosed(sellerAccount);
+        AccountUtils.checkIsAccountClosed(sellerAccount);
 
         Account buyerAccount = findById(request.buyerId());
-        checkIsAccountClosed(buyerAccount);
-
-        Double requestedAmount = request.amount();
-        AccountUtils.checkBalance(sellerAccount.getBalance(), requestedAmount);
+        AccountUtils.checkIsAccountClosed(buyerAccount);
 
-        transactionService.exchangeMoneyBetweenAccounts(request, sellerAccount, buyerAccount);
+        executeWithRetry(() -> transactionService.exchangeMoneyBetweenAccounts(request, sellerAccount, buyerAccount));
 
         return String.format(ResponseMessages.SUCCESS, AccountActivityType.MONEY_EXCHANGE.getValue());
     }
@@ -192,9 +211,9 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Account account = findById(id);
-        checkIsAccountClosed(account);
+        AccountUtils.checkIsAccountClosed(account);
 
-        if (account.getBalance() > 0) {
+        if (account.getBalance().signum() > 0) {
             throw new ResourceConflictException("In order to close account, balance of the account must be zero. Withdraw or transfer the remaining money.");
         }
 
@@ -238,18 +257,47 @@ public class AccountService implements BaseService<AccountDto, AccountFilteringO
         return account;
     }
 
-    private static void checkAccountsBeforeMoneyTransfer(Account senderAccount, Account receiverAccount, Double amount) {
-        AccountUtils.checkCurrencies(senderAccount.getCurrency(), receiverAccount.getCurrency());
-        AccountUtils.checkBalance(senderAccount.getBalance(), amount);
+    /***
+     * Retries the transaction with exponential backoff and jitter when it is chosen as deadlock victim or cannot acquire row locks.
+     * It must be called outside any transaction, so that every attempt runs in a new transaction.
+     * @param transaction is the transactional operation
+     * @return result of the transactional operation
+     */
+    private <T> T executeWithRetry(Supplier<T> transaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (PessimisticLockingFailureException exception) {
+                transferMetrics.incrementLockConflicts();
+                log.warn("Attempt {} of the transaction is failed. Exception message: {}", attempt, exception.getMessage());
+
+                if (attempt == MAXIMUM_TRANSACTION_ATTEMPTS) {
+                    throw new ResourceConflictException(ResponseMessages.CONCURRENT_TRANSACTION_CONFLICT);
+                }
+
+                transferMetrics.incrementRetries();
+                waitBeforeRetry(attempt);
+            }
+        }
     }
 
-    private static void checkIsAccountClosed(Account account) {
-        LocalDateTime closedAt = account.getClosedAt();
+    private void executeWithRetry(Runnable transaction) {
+        executeWithRetry(() -> {
+            transaction.run();
+            return null;
+        });
+    }
 
-        if (closedAt != null) {
-            throw new ResourceConflictException(String.format("Account is improper for activities. It has already been closed at %s", closedAt));
-        }
+    private static void waitBeforeRetry(int attempt) {
+        long backoff = INITIAL_BACKOFF_MILLIS << (attempt - 1);
+        long jitter = ThreadLocalRandom.current().nextLong(backoff + 1);
 
-        log.info("Account has not been closed");
+        try {
+            Thread.sleep(backoff + jitter);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ResourceConflictException(ResponseMessages.CONCURRENT_TRANSACTION_CONFLICT);
+        }
     }
+
 }
@@ -0,0 +1,113 @@
+package com.ercanbeyen.bankingapplication.service.impl;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.dto.response.BalanceResponse;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.entity.BalanceSnapshot;
+import com.ercanbeyen.bankingapplication.exception.ResourceExpectationFailedException;
+import com.ercanbeyen.bankingapplication.ledger.LedgerEngine;
+import com.ercanbeyen.bankingapplication.repository.BalanceSnapshotRepository;
+import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSnapshotService {
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59); // upper limit of DATETIME
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountService accountService;
+    private final AccountActivityService accountActivityService;
+    private final Optional<LedgerEngine> ledgerEngine;
+
+    /***
+     * Balance is calculated from the latest snapshot before the requested time and the activities after that snapshot.
+     * Accounts get their opening snapshot on creation. Older accounts may have no snapshot before the requested time,
+     * then the activities are rolled back from the first snapshot after it, or from the current balance.
+     * @param id is id of the account
+     * @param at is the time of the balance, current time if it is null
+     * @return balance of the account at the given time
+     */
+    @Transactional(readOnly = true) // Account, snapshots and activities are read from the same consistent snapshot
+    public BalanceResponse getBalance(Integer id, LocalDateTime at) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        Account account = accountService.findById(id);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime balanceTime = (at == null) ? now : at;
+
+        if (balanceTime.isAfter(now)) {
+            throw new ResourceExpectationFailedException("Balance cannot be calculated for a future time");
+        }
+
+        if (balanceTime.isBefore(account.getCreatedAt())) {
+            throw new ResourceExpectationFailedException(String.format("Account did not exist at %s", balanceTime));
+        }
+
+        Optional<BalanceSnapshot> previousSnapshot = balanceSnapshotRepository.findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(id, balanceTime);
+
+        if (previousSnapshot.isPresent()) {
+            LocalDateTime snapshotTakenAt = previousSnapshot.get().getTakenAt();
+            log.info("Balance of account {} is calculated forward from snapshot taken at {}", id, snapshotTakenAt);
+
+            BigDecimal balanceChange = accountActivityService.getBalanceChange(id, snapshotTakenAt, balanceTime);
+            return new BalanceResponse(id, account.getCurrency(), previousSnapshot.get().getBalance().add(balanceChange), balanceTime, snapshotTakenAt);
+        }
+
+        Optional<BalanceSnapshot> nextSnapshot = balanceSnapshotRepository.findFirstByAccountIdAndTakenAtGreaterThanOrderByTakenAtAsc(id, balanceTime);
+
+        if (nextSnapshot.isPresent()) {
+            LocalDateTime snapshotTakenAt = nextSnapshot.get().getTakenAt();
+            log.info("Balance of account {} is calculated backward from snapshot taken at {}", id, snapshotTakenAt);
+
+            BigDecimal balanceChange = accountActivityService.getBalanceChange(id, balanceTime, snapshotTakenAt);
+            return new BalanceResponse(id, account.getCurrency(), nextSnapshot.get().getBalance().subtract(balanceChange), balanceTime, snapshotTakenAt);
+        }
+
+        /* Balance and activities in the database are written in the same transaction, also by the ledger */
+        log.info("Balance of account {} is calculated backward from the current balance", id);
+        BigDecimal balanceChange = accountActivityService.getBalanceChange(id, balanceTime, END_OF_TIME);
+
+        return new BalanceResponse(id, account.getCurrency(), account.getBalance().subtract(balanceChange), balanceTime, null);
+    }
+
+    /***
+     * @return cut-off time of the snapshots, which is shared by every chunk
+     */
+    public LocalDateTime prepareBalanceSnapshots() {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        ledgerEngine.ifPresent(LedgerEngine::flush); // Balances in the database should contain the ledger entries before the cut-off time
+        return LocalDateTime.now();
+    }
+
+    /***
+     * Takes the snapshots of a chunk of open accounts as of the cut-off time. Accounts of the chunk are locked, so their balances contain every committed activity.
+     * Activities which are created after the cut-off time are subtracted, so each activity is either inside a snapshot or counted after it,
+     * since both are decided by comparing the same stored created_at with the same cut-off time.
+     * @param takenAt is cut-off time of the snapshots
+     * @param fromId is the id after which the accounts of the chunk start
+     * @param limit is the maximum number of accounts in the chunk
+     * @return ids of the accounts whose snapshots are taken, empty if there is no account left
+     */
+    @Transactional
+    public List<Integer> takeBalanceSnapshots(LocalDateTime takenAt, Integer fromId, int limit) {
+        List<Integer> accountIds = balanceSnapshotRepository.lockIdsOfOpenAccounts(fromId, limit);
+
+        if (!accountIds.isEmpty()) {
+            int numberOfSnapshots = balanceSnapshotRepository.insertSnapshots(accountIds, takenAt);
+            log.info("{} balance snapshots are taken", numberOfSnapshots);
+        }
+
+        return accountIds;
+    }
+}
@@ -1,9 +1,11 @@
 package com.ercanbeyen.bankingapplication.service.impl;
 
+import com.ercanbeyen.bankingapplication.cache.CustomerBloomFilter;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.*;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.entity.Account;
 import com.ercanbeyen.bankingapplication.entity.Customer;
 import com.ercanbeyen.bankingapplication.entity.File;
@@ -16,19 +18,28 @@ import com.ercanbeyen.bankingapplication.mapper.RegularTransferOrderMapper;
 import com.ercanbeyen.bankingapplication.option.AccountFilteringOptions;
 import com.ercanbeyen.bankingapplication.option.CustomerFilteringOptions;
 import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
+import com.ercanbeyen.bankingapplication.option.NotificationFilteringOptions;
 import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
 import com.ercanbeyen.bankingapplication.service.BaseService;
 import com.ercanbeyen.bankingapplication.service.FileStorageService;
 import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.specification.CustomerSpecifications;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Pair;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -39,38 +50,27 @@ import java.util.function.Predicate;
 @Slf4j
 public class CustomerService implements BaseService<CustomerDto, CustomerFilteringOptions> {
     private final CustomerRepository customerRepository;
+    private final NotificationRepository notificationRepository;
     private final CustomerMapper customerMapper;
     private final AccountMapper accountMapper;
     private final RegularTransferOrderMapper regularTransferOrderMapper;
     private final NotificationMapper notificationMapper;
     private final FileStorageService fileStorageService;
     private final AccountActivityService accountActivityService;
+    private final CustomerBloomFilter customerBloomFilter;
 
     @Override
     public List<CustomerDto> getEntities(CustomerFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        Predicate<Customer> customerPredicate = customer -> {
-            Boolean addressCondition = (options.getCity() == null || options.getCity() == customer.getAddress().getCity());
+        Specification<Customer> specification = CustomerSpecifications.filter(options);
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        int pageSize = PaginationUtils.getPageSize(options.getSize());
 
-            LocalDate filteringDay = options.getBirthDate();
-            LocalDate customerBirthday = customer.getBirthDate();
-            Boolean birthDayCondition = (filteringDay == null)
-                    || (filteringDay.getMonth() == customerBirthday.getMonth() && filteringDay.getDayOfMonth() == customerBirthday.getDayOfMonth());
-
-            Boolean createTimeCondition = (options.getCreateTime() == null || options.getCreateTime().isEqual(options.getCreateTime()));
-
-            return (addressCondition && birthDayCondition && createTimeCondition);
-        };
-
-        List<CustomerDto> customerDtos = new ArrayList<>();
-
-        customerRepository.findAll()
+        return customerRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).all())
                 .stream()
-                .filter(customerPredicate)
-                .forEach(customer -> customerDtos.add(customerMapper.entityToDto(customer)));
-
-        return customerDtos;
+                .map(customerMapper::entityToDto)
+                .toList();
     }
 
     @Override
@@ -89,9 +89,11 @@ public class CustomerService implements BaseService<CustomerDto, CustomerFilteri
 
         Customer customer = customerMapper.dtoToEntity(request);
 
-        Customer savedCustomer = customerRepository.save(customer);
+        Customer savedCustomer = saveCustomer(customer);
         log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.CUSTOMER.getValue(), savedCustomer.getId());
 
+        customerBloomFilter.put(savedCustomer.getNationalId(), savedCustomer.getPhoneNumber(), savedCustomer.getEmail());
+
         return customerMapper.entityToDto(savedCustomer);
     }
 
@@ -115,7 +117,10 @@ public class CustomerService implements BaseService<CustomerDto, CustomerFilteri
         customer.setBirthDate(requestCustomer.getBirthDate());
         customer.setAddress(requestCustomer.getAddress());
 
-        return customerMapper.entityToDto(customerRepository.save(customer));
+        Customer savedCustomer = saveCustomer(customer);
+        customerBloomFilter.put(savedCustomer.getNationalId(), savedCustomer.getPhoneNumber(), savedCustomer.getEmail());
+
+        return customerMapper.entityToDto(savedCustomer);
     }
 
     @Override
@@ -177,40 +182,54 @@ public class CustomerService implements BaseService<CustomerDto, CustomerFilteri
         return accountDtos;
     }
 
-    public List<AccountActivityDto> getAccountActivities(Integer id, AccountActivityFilteringOptions options) {
+    public CursorPageResponse<AccountActivityDto> getAccountActivities(Integer id, AccountActivityFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Customer customer = findById(id);
-        List<AccountActivityDto> accountActivityDtos = new ArrayList<>();
 
         List<Integer> accountIds = customer.getAccounts()
                 .stream()
                 .map(Account::getId)
                 .toList();
 
-        /* Get all transactions of each account */
-        accountIds.forEach(accountId -> {
-            getAccountActivities(accountId, true, options, accountActivityDtos);
-            getAccountActivities(accountId, false, options, accountActivityDtos);
-        });
+        /* Transactions of all accounts are merged in a single query, so sender and receiver filters are not applicable */
+        AccountActivityFilteringOptions accountActivityFilteringOptions = new AccountActivityFilteringOptions(
+                options.type(), null, null, options.minimumAmount(), options.createAt(), options.cursor(), options.size());
 
-        Comparator<AccountActivityDto> transactionDtoComparator = Comparator.comparing(AccountActivityDto::createdAt).reversed();
-
-        return accountActivityDtos.stream()
-                .sorted(transactionDtoComparator)
-                .toList();
+        return accountActivityService.getAccountActivitiesOfAccounts(accountIds, accountActivityFilteringOptions);
     }
 
-    public List<NotificationDto> getNotifications(Integer id) {
+    /***
+     * Notifications are read page by page from the newest, instead of loading the whole collection of the customer.
+     * @param id is identity of the customer
+     * @param options includes the unread filter, cursor and size of the requested page
+     * @return page of notifications with the cursor of the next page (null if it is the last page)
+     */
+    public CursorPageResponse<NotificationDto> getNotifications(Integer id, NotificationFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Customer customer = findById(id);
-        List<NotificationDto> notificationDtos = new ArrayList<>();
+        int pageSize = PaginationUtils.getPageSize(options.size());
+        Pair<LocalDateTime, String> cursor = PaginationUtils.decodeCursor(options.cursor());
+
+        List<NotificationDto> notificationDtos = notificationRepository.findInbox(
+                        customer.getNationalId(),
+                        options.unread(),
+                        cursor == null ? null : cursor.getValue0(),
+                        cursor == null ? null : cursor.getValue1(),
+                        pageSize)
+                .stream()
+                .map(notificationMapper::entityToDto)
+                .toList();
 
-        customer.getNotifications()
-                .forEach(notification -> notificationDtos.add(notificationMapper.entityToDto(notification)));
+        String nextCursor = null;
 
-        return notificationDtos;
+        if (notificationDtos.size() == pageSize) {
+            NotificationDto lastNotificationDto = notificationDtos.getLast();
+            nextCursor = PaginationUtils.encodeCursor(lastNotificationDto.createdAt(), lastNotificationDto.id());
+        }
+
+        return new CursorPageResponse<>(notificationDtos, nextCursor);
     }
 
     public List<RegularTransferOrderDto> getRegularTransferOrdersOfCustomer(Integer customerId, Integer accountId) {
@@ -237,6 +256,11 @@ public class CustomerService implements BaseService<CustomerDto, CustomerFilteri
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.CUSTOMER.getValue())));
     }
 
+    public List<Customer> findByNationalIds(Collection<String> nationalIds) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+        return customerRepository.findByNationalIdIn(nationalIds);
+    }
+
     /***
      *
      * @param nationalId is national identity which is unique for each customer
@@ -257,22 +281,23 @@ public class CustomerService implements BaseService<CustomerDto, CustomerFilteri
         return customer;
     }
 
-    private void getAccountActivities(Integer accountId, boolean isSender, AccountActivityFilteringOptions options, List<AccountActivityDto> accountActivityDtos) {
-        AccountActivityFilteringOptions accountActivityFilteringOptions = isSender ?
-                new AccountActivityFilteringOptions(options.type(), accountId, null, options.minimumAmount(), options.createAt()) :
-                new AccountActivityFilteringOptions(options.type(), null, accountId, options.minimumAmount(), options.createAt());
-        List<AccountActivityDto> currentAccountActivityDtos = accountActivityService.getAccountActivities(accountActivityFilteringOptions);
-        accountActivityDtos.addAll(currentAccountActivityDtos);
+    /* Bloom filter only knows the customers which are created by this instance, so the unique constraints are the last word */
+    private Customer saveCustomer(Customer customer) {
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException exception) {
+            log.warn("Customer violates a unique constraint. Exception: {}", exception.getMessage());
+            throw new ResourceConflictException(String.format(ResponseMessages.ALREADY_EXISTS, Entity.CUSTOMER.getValue()));
+        }
     }
 
     private void checkCustomerUniqueness(String nationalId, String phoneNumber, String email) {
-        Predicate<Customer> customerPredicate = customer -> customer.getNationalId().equals(nationalId)
-                || customer.getPhoneNumber().equals(phoneNumber) || customer.getEmail().equals(email);
-        boolean customerExists = customerRepository.findAll()
-                .stream()
-                .anyMatch(customerPredicate);
+        if (!customerBloomFilter.mightContain(nationalId, phoneNumber, email)) {
+            log.info("Customer fields definitely do not exist, so database check is skipped");
+            return;
+        }
 
-        if (customerExists) {
+        if (customerRepository.existsByNationalIdOrPhoneNumberOrEmail(nationalId, phoneNumber, email)) {
             throw new ResourceConflictException(String.format(ResponseMessages.ALREADY_EXISTS, Entity.CUSTOMER.getValue()));
         }
     }
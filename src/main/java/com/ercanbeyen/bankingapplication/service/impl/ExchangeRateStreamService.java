@@ -0,0 +1,173 @@
+package com.ercanbeyen.bankingapplication.service.impl;
+
+import com.ercanbeyen.bankingapplication.cache.ExchangeRateMatrix;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.dto.response.ExchangeRateChange;
+import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes exchange rate changes to the subscribed clients over Server-Sent Events.
+ * Idle emitters hold no thread. Each subscriber has a bounded queue of events which is drained by at most one virtual thread,
+ * so events reach every client in the order of publication and a slow client cannot delay the others.
+ * Clients whose queues are full are dropped, they get the current rates again when they reconnect.
+ * Disconnected clients are dropped on the next send or heartbeat.
+ */
+@Slf4j
+@Service
+public class ExchangeRateStreamService {
+    private static final String RATES_EVENT = "rates";
+    private static final String RATE_CHANGE_EVENT = "rate-change";
+    private final ExchangeRateMatrix exchangeRateMatrix;
+    private final long emitterTimeoutMillis;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ExchangeRateStreamService(
+            ExchangeRateMatrix exchangeRateMatrix,
+            @Value("${exchange.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+            @Value("${exchange.stream.queue-capacity:64}") int queueCapacity) {
+        this.exchangeRateMatrix = exchangeRateMatrix;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /***
+     * Registers a client. Current rates are sent first from memory, so subscribing does not query the database.
+     * Changes which are published meanwhile may arrive before the current rates, which already contain them.
+     * @return emitter of the client
+     */
+    public SseEmitter subscribe() {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(exception -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        subscriber.enqueue(SseEmitter.event().name(RATES_EVENT).data(getCurrentRates()));
+        log.info("Exchange rate stream subscribers: {}", subscribers.size());
+
+        return emitter;
+    }
+
+    public void publish(ExchangeRateChange exchangeRateChange) {
+        log.info("Exchange rate change of {} to {} is broadcast to {} subscribers", exchangeRateChange.baseCurrency(), exchangeRateChange.targetCurrency(), subscribers.size());
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().name(RATE_CHANGE_EVENT).data(exchangeRateChange));
+        }
+    }
+
+    /* Keeps proxies from closing idle connections and detects the clients which have gone away */
+    @Scheduled(fixedDelayString = "${exchange.stream.heartbeat-interval-ms:30000}")
+    public void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senderExecutor.shutdown();
+    }
+
+    private List<ExchangeRateChange> getCurrentRates() {
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateMatrix.getSnapshot();
+        List<ExchangeRateChange> rates = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Currency base : Currency.values()) {
+            for (Currency target : Currency.values()) {
+                double buyRate = snapshot.buyRates()[base.ordinal()][target.ordinal()];
+
+                if (!Double.isNaN(buyRate)) {
+                    rates.add(new ExchangeRateChange(base, target, buyRate, snapshot.sellRates()[base.ordinal()][target.ordinal()], now));
+                }
+            }
+        }
+
+        return rates;
+    }
+
+    /**
+     * Events of a single client. Draining flag is set while a sender thread owns the emitter,
+     * the emitter is completed by that thread, so the publishing thread never blocks on a stalled client.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> events = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!events.offer(event)) {
+                log.warn("Exchange rate stream subscriber is dropped, since {} events are pending", queueCapacity);
+                overflowed = true;
+                subscribers.remove(this);
+                events.clear();
+            }
+
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        /* Draining flag stays set once the emitter is closed, so no sender is scheduled for it again */
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+
+            while ((event = events.poll()) != null || overflowed) {
+                if (overflowed) {
+                    emitter.complete();
+                    return;
+                }
+
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException exception) {
+                    subscribers.remove(this);
+                    events.clear();
+                    emitter.completeWithError(exception);
+                    return;
+                }
+            }
+
+            draining.set(false);
+
+            if (!events.isEmpty()) { // Event which is enqueued after the last poll
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -1,30 +1,43 @@
 package com.ercanbeyen.bankingapplication.service.impl;
 
+import com.ercanbeyen.bankingapplication.cache.ExchangeRateMatrix;
+import com.ercanbeyen.bankingapplication.cache.ExchangeRateTimeSeries;
 import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.ExchangeDto;
+import com.ercanbeyen.bankingapplication.dto.request.ExchangeQuoteRequest;
+import com.ercanbeyen.bankingapplication.dto.response.ExchangeQuote;
+import com.ercanbeyen.bankingapplication.dto.response.ExchangeRateChange;
 import com.ercanbeyen.bankingapplication.entity.Account;
 import com.ercanbeyen.bankingapplication.entity.Exchange;
 import com.ercanbeyen.bankingapplication.view.ExchangeView;
 import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
 import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.bankingapplication.mapper.ExchangeMapper;
+import com.ercanbeyen.bankingapplication.model.Money;
 import com.ercanbeyen.bankingapplication.option.ExchangeFilteringOptions;
 import com.ercanbeyen.bankingapplication.repository.ExchangeRepository;
 import com.ercanbeyen.bankingapplication.repository.ExchangeViewRepository;
 import com.ercanbeyen.bankingapplication.service.BaseService;
+import com.ercanbeyen.bankingapplication.specification.BaseSpecifications;
 import com.ercanbeyen.bankingapplication.util.ExchangeUtils;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
+import com.ercanbeyen.bankingapplication.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.function.BiPredicate;
 
 @Service
@@ -34,16 +47,22 @@ public class ExchangeService implements BaseService<ExchangeDto, ExchangeFilteri
     private final ExchangeRepository exchangeRepository;
     private final ExchangeViewRepository exchangeViewRepository;
     private final ExchangeMapper exchangeMapper;
+    private final ExchangeRateMatrix exchangeRateMatrix;
+    private final ExchangeRateTimeSeries exchangeRateTimeSeries;
+    private final ExchangeRateStreamService exchangeRateStreamService;
 
     @Override
     public List<ExchangeDto> getEntities(ExchangeFilteringOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        List<ExchangeDto> exchangeDtos = new ArrayList<>();
-        exchangeRepository.findAll()
-                .forEach(exchange -> exchangeDtos.add(exchangeMapper.entityToDto(exchange)));
+        Specification<Exchange> specification = BaseSpecifications.isAfterCursor(options.getCursor());
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        int pageSize = PaginationUtils.getPageSize(options.getSize());
 
-        return exchangeDtos;
+        return exchangeRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).all())
+                .stream()
+                .map(exchangeMapper::entityToDto)
+                .toList();
     }
 
     @Override
@@ -54,6 +73,7 @@ public class ExchangeService implements BaseService<ExchangeDto, ExchangeFilteri
     }
 
     @Override
+    @Transactional
     public ExchangeDto createEntity(ExchangeDto request) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
@@ -63,16 +83,25 @@ public class ExchangeService implements BaseService<ExchangeDto, ExchangeFilteri
         Exchange savedExchange = exchangeRepository.save(exchange);
         log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.EXCHANGE.getValue(), savedExchange.getId());
 
+        ExchangeView exchangeView = saveExchangeView(savedExchange);
+        TransactionUtils.runAfterCommit(exchangeRateMatrix::rebuild);
+        recordRates(exchangeView);
+
         return exchangeMapper.entityToDto(savedExchange);
     }
 
     @Override
+    @Transactional
     public ExchangeDto updateEntity(Integer id, ExchangeDto request) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         Exchange exchange = findById(id);
 
-        if (exchange.getBaseCurrency() != request.getBaseCurrency() || exchange.getTargetCurrency() != request.getTargetCurrency()) {
+        Currency previousBaseCurrency = exchange.getBaseCurrency();
+        Currency previousTargetCurrency = exchange.getTargetCurrency();
+        boolean currenciesChanged = previousBaseCurrency != request.getBaseCurrency() || previousTargetCurrency != request.getTargetCurrency();
+
+        if (currenciesChanged) {
             checkExistsByBaseAndTargetCurrencies(request.getBaseCurrency(), request.getTargetCurrency());
             exchange.setTargetCurrency(request.getTargetCurrency());
             exchange.setBaseCurrency(request.getBaseCurrency());
@@ -82,32 +111,105 @@ public class ExchangeService implements BaseService<ExchangeDto, ExchangeFilteri
         exchange.setSellPercentage(request.getSellPercentage());
         exchange.setBuyPercentage(request.getBuyPercentage());
 
-        return exchangeMapper.entityToDto(exchangeRepository.save(exchange));
+        Exchange savedExchange = exchangeRepository.save(exchange);
+        ExchangeView exchangeView = saveExchangeView(savedExchange);
+        TransactionUtils.runAfterCommit(exchangeRateMatrix::rebuild);
+
+        if (currenciesChanged) {
+            recordRates(previousBaseCurrency, previousTargetCurrency, null, null);
+        }
+
+        recordRates(exchangeView);
+
+        return exchangeMapper.entityToDto(savedExchange);
     }
 
     @Override
+    @Transactional
     public void deleteEntity(Integer id) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        if (!exchangeRepository.existsById(id)) {
-            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.EXCHANGE.getValue()));
-        }
-
-        log.info(LogMessages.RESOURCE_FOUND, Entity.EXCHANGE.getValue());
+        Exchange exchange = findById(id);
 
         exchangeRepository.deleteById(id);
+        exchangeViewRepository.deleteById(id);
+        TransactionUtils.runAfterCommit(exchangeRateMatrix::rebuild);
+        recordRates(exchange.getBaseCurrency(), exchange.getTargetCurrency(), null, null);
     }
 
-    public String calculateMoneyExchange(Currency fromCurrency, Currency toCurrency, Double amount) {
+    /***
+     * @param at is the moment whose rates are used, current rates are used if it is null
+     */
+    public String calculateMoneyExchange(Currency fromCurrency, Currency toCurrency, Double amount, LocalDateTime at) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
-        double exchangedAmount = convertMoney(fromCurrency, toCurrency, amount);
-        return amount + " " + fromCurrency.name() + " is successfully exchanged to " + exchangedAmount + " " + toCurrency.name();
+        Money money = Money.of(amount, fromCurrency);
+        Money exchangedMoney = (at == null) ? convertMoney(money, toCurrency) : convertMoney(money, toCurrency, at);
+        return amount + " " + fromCurrency.name() + " is successfully exchanged to " + exchangedMoney.toDouble() + " " + toCurrency.name();
+    }
+
+    /***
+     * Converts the money with the rates which were valid at the given moment.
+     * Callers which convert many amounts of the same moment should take the snapshot from {@link ExchangeRateTimeSeries} once.
+     * @param money is amount which is sold by the customer
+     * @param targetCurrency is currency which is bought by the customer
+     * @param at is the moment whose rates are used
+     * @return converted money
+     */
+    public Money convertMoney(Money money, Currency targetCurrency, LocalDateTime at) {
+        log.info("Exchange is from {} to {} at {}", money.currency(), targetCurrency, at);
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateTimeSeries.getSnapshot(at);
+        return new Money(snapshot.convert(money.minorUnits(), money.currency().ordinal(), targetCurrency.ordinal()), targetCurrency);
     }
 
-    public Double exchangeMoney(Account sellerAccount, Account buyerAccount, Double amount) {
+    /***
+     * Every quote of the batch is calculated from the same snapshot of the rates.
+     * @param requests are pairs of currencies and amounts
+     * @return quotes in the order of the requests
+     */
+    public List<ExchangeQuote> quoteMoneyExchanges(List<ExchangeQuoteRequest> requests) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateMatrix.getSnapshot();
+        int size = requests.size();
+        long[] amounts = new long[size];
+        int[] fromCurrencies = new int[size];
+        int[] toCurrencies = new int[size];
+        boolean[] convertible = new boolean[size];
+        long[] convertedAmounts = new long[size];
+
+        for (int index = 0; index < size; index++) {
+            ExchangeQuoteRequest request = requests.get(index);
+            amounts[index] = MoneyUtils.toMinorUnits(request.amount());
+            fromCurrencies[index] = request.from().ordinal();
+            toCurrencies[index] = request.to().ordinal();
+        }
+
+        for (int index = 0; index < size; index++) {
+            convertible[index] = snapshot.isConvertible(fromCurrencies[index], toCurrencies[index]);
+
+            if (convertible[index]) {
+                convertedAmounts[index] = snapshot.convert(amounts[index], fromCurrencies[index], toCurrencies[index]);
+            }
+        }
+
+        List<ExchangeQuote> quotes = new ArrayList<>(size);
+
+        for (int index = 0; index < size; index++) {
+            ExchangeQuoteRequest request = requests.get(index);
+            quotes.add(convertible[index]
+                    ? new ExchangeQuote(request.from(), request.to(), request.amount(), MoneyUtils.toDouble(convertedAmounts[index]), snapshot.crossRates()[fromCurrencies[index]][toCurrencies[index]])
+                    : new ExchangeQuote(request.from(), request.to(), request.amount(), null, null));
+        }
+
+        log.info("{} of {} quotes are calculated", quotes.stream().filter(quote -> quote.convertedAmount() != null).count(), size);
+
+        return quotes;
+    }
+
+    public Money exchangeMoney(Account sellerAccount, Account buyerAccount, Double amount) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
         checkAccountsBeforeMoneyExchange(sellerAccount, buyerAccount);
-        return convertMoney(sellerAccount.getCurrency(), buyerAccount.getCurrency(), amount);
+        return convertMoney(Money.of(amount, sellerAccount.getCurrency()), buyerAccount.getCurrency());
     }
 
     public List<ExchangeView> getExchangeViews() {
@@ -141,35 +243,33 @@ public class ExchangeService implements BaseService<ExchangeDto, ExchangeFilteri
         }
     }
 
-    private double convertMoney(Currency baseCurrency, Currency targetCurrency, Double amount) {
-        log.info("Exchange is from {} to {}", baseCurrency, targetCurrency);
-
-        Optional<ExchangeView> maybeExchangeView = exchangeViewRepository.findByBaseCurrencyAndTargetCurrency(baseCurrency, targetCurrency);
-
-        double exponential;
-        double rate;
-        ExchangeView exchangeView;
-
-        if (maybeExchangeView.isPresent()) { // Bank sells foreign currency & Customer buys foreign currency
-            log.info("Exchange is present");
-            exchangeView = maybeExchangeView.get();
-            exponential = -1; // foreign currency sell
-            rate = exchangeView.getSellRate();
+    private Money convertMoney(Money money, Currency targetCurrency) {
+        log.info("Exchange is from {} to {}", money.currency(), targetCurrency);
+        return new Money(exchangeRateMatrix.convert(money.minorUnits(), money.currency(), targetCurrency), targetCurrency);
+    }
 
-        } else { // Bank buys foreign currency & Customer sells foreign currency
-            exchangeView = exchangeViewRepository.findByTargetCurrencyAndBaseCurrency(baseCurrency, targetCurrency)
-                    .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.EXCHANGE.getValue())));
-            log.info("Reverse exchange is present");
-            exponential = 1; // foreign currency buy
-            rate = exchangeView.getBuyRate();
-        }
+    /* Projection is written in the transaction of its exchange, so they cannot diverge */
+    private ExchangeView saveExchangeView(Exchange exchange) {
+        ExchangeView exchangeView = new ExchangeView(
+                exchange.getId(),
+                exchange.getTargetCurrency(),
+                exchange.getBaseCurrency(),
+                ExchangeUtils.calculateBuyRate(exchange.getRate(), exchange.getBuyPercentage()),
+                ExchangeUtils.calculateSellRate(exchange.getRate(), exchange.getSellPercentage()));
 
-        log.info("Buy and sell rates: {} {}", exchangeView.getBuyRate(), exchangeView.getSellRate());
+        return exchangeViewRepository.save(exchangeView);
+    }
 
-        double effectOfRate = Math.pow(rate, exponential);
-        log.info("Effect of rate: {}", effectOfRate);
+    private void recordRates(ExchangeView exchangeView) {
+        recordRates(exchangeView.getBaseCurrency(), exchangeView.getTargetCurrency(), exchangeView.getBuyRate(), exchangeView.getSellRate());
+    }
 
-        return amount * effectOfRate;
+    /* Every rate change is appended to the history and pushed to the stream subscribers once it is committed */
+    private void recordRates(Currency baseCurrency, Currency targetCurrency, Double buyRate, Double sellRate) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        exchangeRateTimeSeries.record(baseCurrency, targetCurrency, buyRate, sellRate, changedAt);
+        ExchangeRateChange exchangeRateChange = new ExchangeRateChange(baseCurrency, targetCurrency, buyRate, sellRate, changedAt);
+        TransactionUtils.runAfterCommit(() -> exchangeRateStreamService.publish(exchangeRateChange));
     }
 
     private void checkExistsByBaseAndTargetCurrencies(Currency base, Currency target) {
@@ -1,5 +1,6 @@
 package com.ercanbeyen.bankingapplication.service.impl;
 
+import com.ercanbeyen.bankingapplication.config.AsyncConfig;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
@@ -16,7 +17,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
@@ -27,30 +27,25 @@ import java.util.stream.Stream;
 public class FileStorageServiceImpl implements FileStorageService {
     private final FileRepository fileRepository;
 
-    @Async
+    @Async(AsyncConfig.FILE_STORAGE_EXECUTOR)
     @Override
     public CompletableFuture<File> storeFile(MultipartFile multipartFile) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
         String fileName = StringUtils.cleanPath(Objects.requireNonNull(multipartFile.getOriginalFilename()));
+        File savedFile;
 
-        return CompletableFuture.supplyAsync(() -> {
-            File file;
-
-            try {
-                file = new File(fileName, multipartFile.getContentType(), multipartFile.getBytes());
-            } catch (IOException exception) {
-                throw new ResourceExpectationFailedException("Error occurred in method getBytes");
-            }
-
-            File savedFile = fileRepository.save(file);
-            log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.FILE.getValue(), savedFile.getId());
-
-            return savedFile;
-        }).exceptionally(exception -> {
+        try {
+            File file = new File(fileName, multipartFile.getContentType(), multipartFile.getBytes());
+            savedFile = fileRepository.save(file);
+        } catch (Exception exception) {
             log.error(LogMessages.EXCEPTION, exception.getMessage());
             throw new ResourceExpectationFailedException(ResponseMessages.FILE_UPLOAD_ERROR);
-        });
+        }
+
+        log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.FILE.getValue(), savedFile.getId());
+
+        return CompletableFuture.completedFuture(savedFile);
     }
 
     @Override
@@ -0,0 +1,98 @@
+package com.ercanbeyen.bankingapplication.service.impl;
+
+import com.ercanbeyen.bankingapplication.cache.IdempotencyCache;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.entity.IdempotentResponse;
+import com.ercanbeyen.bankingapplication.repository.IdempotentResponseRepository;
+import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+    private final IdempotencyCache idempotencyCache;
+    private final IdempotentResponseRepository idempotentResponseRepository;
+    private final Duration pendingTimeout;
+
+    public IdempotencyService(
+            IdempotencyCache idempotencyCache,
+            IdempotentResponseRepository idempotentResponseRepository,
+            @Value("${idempotency.pending-timeout:5m}") Duration pendingTimeout) {
+        this.idempotencyCache = idempotencyCache;
+        this.idempotentResponseRepository = idempotentResponseRepository;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    /***
+     * Looks up the cache first, so a replayed request is answered without a database round trip.
+     * @param idempotencyKey is the key which is sent by the client
+     * @return unexpired stored response of the key, it is pending while the request which claimed the key is executing
+     */
+    public Optional<IdempotentResponse> getResponse(String idempotencyKey) {
+        Optional<IdempotentResponse> cachedResponse = idempotencyCache.get(idempotencyKey);
+
+        if (cachedResponse.isPresent()) {
+            return cachedResponse;
+        }
+
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(idempotencyCache.getTimeToLive());
+        Optional<IdempotentResponse> storedResponse = idempotentResponseRepository.findByIdempotencyKeyAndCreatedAtAfter(idempotencyKey, expiredBefore);
+        storedResponse.filter(response -> !response.isPending())
+                .ifPresent(idempotencyCache::put);
+
+        return storedResponse;
+    }
+
+    /***
+     * Claims the key by inserting a pending response, so that a concurrent duplicate on any instance is rejected instead of being executed twice.
+     * A pending response which is older than the pending timeout belongs to a crashed request, so it can be claimed again.
+     * @param idempotencyKey is the key which is sent by the client
+     * @param requestHash is hash of the request which claims the key
+     * @return false if the key is claimed by another request
+     */
+    public boolean tryClaim(String idempotencyKey, byte[] requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        idempotentResponseRepository.deleteStaleByIdempotencyKey(idempotencyKey, now.minus(idempotencyCache.getTimeToLive()), IdempotentResponse.PENDING_STATUS, now.minus(pendingTimeout));
+
+        IdempotentResponse pendingResponse = new IdempotentResponse(idempotencyKey, requestHash, IdempotentResponse.PENDING_STATUS, null, null, now);
+        return idempotentResponseRepository.insertIfAbsent(pendingResponse) == 1;
+    }
+
+    /***
+     * Completes the claim of the key with the response of its request.
+     * Response is only cached if the claim is still pending, so an instance never replays a response which the database does not hold.
+     * @param response is the response which is replayed for the retries
+     */
+    public void saveResponse(IdempotentResponse response) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        int numberOfUpdatedEntities = idempotentResponseRepository.completePending(response, IdempotentResponse.PENDING_STATUS);
+        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+
+        if (numberOfUpdatedEntities == 1) {
+            idempotencyCache.put(response);
+        } else {
+            log.warn("Claim of idempotency key {} is not pending any more, since it has exceeded the pending timeout of {}. Response is not stored", response.getIdempotencyKey(), pendingTimeout);
+        }
+    }
+
+    /***
+     * Gives up the claim of the key, so that a retry executes the request again.
+     * @param idempotencyKey is the key which is sent by the client
+     */
+    public void release(String idempotencyKey) {
+        idempotentResponseRepository.deletePendingByIdempotencyKey(idempotencyKey, IdempotentResponse.PENDING_STATUS);
+    }
+
+    public int deleteExpiredResponses() {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(idempotencyCache.getTimeToLive());
+        return idempotentResponseRepository.deleteByCreatedAtBefore(expiredBefore);
+    }
+}
@@ -1,22 +1,31 @@
 package com.ercanbeyen.bankingapplication.service.impl;
 
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.config.AsyncConfig;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.NotificationDto;
 import com.ercanbeyen.bankingapplication.entity.Customer;
 import com.ercanbeyen.bankingapplication.entity.Notification;
+import com.ercanbeyen.bankingapplication.entity.NotificationOutbox;
 import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.bankingapplication.mapper.NotificationMapper;
+import com.ercanbeyen.bankingapplication.repository.NotificationOutboxRepository;
+import com.ercanbeyen.bankingapplication.repository.NotificationOutboxRepository.PendingEntry;
 import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
 import com.ercanbeyen.bankingapplication.service.NotificationService;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -24,24 +33,109 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
     private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository notificationOutboxRepository;
     private final NotificationMapper notificationMapper;
     private final CustomerService customerService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
 
-    @Async
+    /* Runs on the notification executor, so the body is not submitted to another pool once again */
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     @Override
     public CompletableFuture<NotificationDto> createNotification(NotificationDto notificationDto) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        return CompletableFuture.supplyAsync(() -> {
+        Notification notification = notificationMapper.dtoToEntity(notificationDto);
+        Customer customer = customerService.findByNationalId(notificationDto.customerNationalId());
+        notification.setCustomer(customer);
+
+        Notification savedNotification = notificationRepository.save(notification);
+        unreadNotificationCounter.add(customer.getNationalId(), 1);
+        log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.NOTIFICATION.getValue(), savedNotification.getId());
+
+        return CompletableFuture.completedFuture(notificationMapper.entityToDto(savedNotification));
+    }
+
+    /***
+     * Owners of the notifications are found by a single query and notifications are inserted in JDBC batches.
+     * It joins the transaction of the caller, so notifications are committed together with the changes they announce.
+     * @param notificationDtos are notifications whose owners are expected to exist
+     */
+    @Transactional
+    @Override
+    public void createNotifications(List<NotificationDto> notificationDtos) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        Set<String> nationalIds = new HashSet<>();
+        notificationDtos.forEach(notificationDto -> nationalIds.add(notificationDto.customerNationalId()));
+
+        Map<String, Customer> customers = new HashMap<>();
+        customerService.findByNationalIds(nationalIds)
+                .forEach(customer -> customers.put(customer.getNationalId(), customer));
+
+        List<Notification> notifications = new ArrayList<>(notificationDtos.size());
+
+        for (NotificationDto notificationDto : notificationDtos) {
+            Customer customer = customers.get(notificationDto.customerNationalId());
+
+            if (customer == null) {
+                log.error(LogMessages.RESOURCE_NOT_FOUND, Entity.CUSTOMER.getValue());
+                continue;
+            }
+
             Notification notification = notificationMapper.dtoToEntity(notificationDto);
-            Customer customer = customerService.findByNationalId(notificationDto.customerNationalId());
             notification.setCustomer(customer);
+            notifications.add(notification);
+        }
+
+        notificationRepository.saveAll(notifications);
+        TransactionUtils.runAfterCommit(() -> notifications.forEach(notification -> unreadNotificationCounter.add(notification.getCustomer().getNationalId(), 1)));
+        log.info("{} {}s are successfully created", notifications.size(), Entity.NOTIFICATION.getValue());
+    }
+
+    /***
+     * Notifications are written to the outbox in the transaction of the caller, so they exist if and only if the announced changes are committed.
+     * @param notificationDtos are notifications which are going to be created by the relay
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void enqueueNotifications(List<NotificationDto> notificationDtos) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<NotificationOutbox> outboxEntries = new ArrayList<>(notificationDtos.size());
+        notificationDtos.forEach(notificationDto -> outboxEntries.add(new NotificationOutbox(null, notificationDto.customerNationalId(), notificationDto.message(), createdAt)));
+
+        notificationOutboxRepository.saveAll(outboxEntries);
+    }
 
-            Notification savedNotification = notificationRepository.save(notification);
-            log.info(LogMessages.RESOURCE_CREATE_SUCCESS, Entity.NOTIFICATION.getValue(), savedNotification.getId());
+    /***
+     * Oldest entries of the outbox are locked, copied into notifications by a single statement and deleted by a single statement.
+     * @param limit is the maximum number of entries relayed in the transaction
+     * @return number of relayed entries
+     */
+    @Transactional
+    @Override
+    public int relayNotifications(int limit) {
+        List<PendingEntry> pendingEntries = notificationOutboxRepository.lockOldestEntries(limit);
+
+        if (pendingEntries.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = new ArrayList<>(pendingEntries.size());
+        Map<String, Long> numbersOfNotifications = new HashMap<>();
 
-            return notificationMapper.entityToDto(savedNotification);
-        });
+        for (PendingEntry pendingEntry : pendingEntries) {
+            ids.add(pendingEntry.getId());
+            numbersOfNotifications.merge(pendingEntry.getCustomerNationalId(), 1L, Long::sum);
+        }
+
+        int numberOfNotifications = notificationOutboxRepository.insertNotifications(ids);
+        notificationOutboxRepository.deleteAllByIdInBatch(ids);
+        TransactionUtils.runAfterCommit(() -> numbersOfNotifications.forEach(unreadNotificationCounter::add));
+        log.info("{} {}s are created from {} outbox entries", numberOfNotifications, Entity.NOTIFICATION.getValue(), ids.size());
+
+        return ids.size();
     }
 
     @Override
@@ -51,7 +145,13 @@ public class NotificationServiceImpl implements NotificationService {
         String entity = Entity.NOTIFICATION.getValue();
 
         notificationRepository.findById(id)
-                .ifPresentOrElse(notification -> notificationRepository.deleteById(id), () -> {
+                .ifPresentOrElse(notification -> {
+                    notificationRepository.deleteById(id);
+
+                    if (notification.getReadAt() == null) {
+                        unreadNotificationCounter.add(notification.getCustomer().getNationalId(), -1);
+                    }
+                }, () -> {
                     log.error(LogMessages.RESOURCE_NOT_FOUND, entity);
                     throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, entity));
                 });
@@ -69,6 +169,70 @@ public class NotificationServiceImpl implements NotificationService {
         Customer customer = customerService.findByNationalId(nationalId);
         log.info(LogMessages.RESOURCE_FOUND, Entity.CUSTOMER.getValue());
 
-        notificationRepository.deleteAllByCustomer(customer);
+        /* Deleted by a single statement instead of loading and deleting each notification */
+        int numberOfDeletedNotifications = notificationRepository.deleteAllByCustomer(customer);
+        TransactionUtils.runAfterCommit(() -> unreadNotificationCounter.evict(nationalId));
+        log.info("{} {}s of the customer are deleted", numberOfDeletedNotifications, Entity.NOTIFICATION.getValue());
+    }
+
+    /***
+     * A single bounded batch of the retention purge. Each batch is a transaction of its own, so the locks are released between the batches.
+     * @param createdBefore is the creation time before which notifications are expired
+     * @param limit is the maximum number of notifications deleted in the batch
+     * @return number of deleted notifications
+     */
+    @Transactional
+    @Override
+    public int deleteExpiredNotifications(LocalDateTime createdBefore, int limit) {
+        int numberOfDeletedNotifications = notificationRepository.deleteOldest(createdBefore, limit);
+
+        if (numberOfDeletedNotifications > 0) {
+            /* Deleted notifications of the customers are not known, so every count is loaded again */
+            TransactionUtils.runAfterCommit(unreadNotificationCounter::evictAll);
+        }
+
+        return numberOfDeletedNotifications;
+    }
+
+    @Transactional
+    @Override
+    public NotificationDto markNotificationAsRead(String id) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        String entity = Entity.NOTIFICATION.getValue();
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, entity)));
+        log.info(LogMessages.RESOURCE_FOUND, entity);
+
+        if (notification.getReadAt() == null) {
+            notification.setReadAt(LocalDateTime.now());
+            TransactionUtils.runAfterCommit(() -> unreadNotificationCounter.add(notification.getCustomer().getNationalId(), -1));
+        }
+
+        return notificationMapper.entityToDto(notification);
+    }
+
+    @Transactional
+    @Override
+    public String markNotificationsAsRead(String nationalId) {
+        log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
+
+        Customer customer = customerService.findByNationalId(nationalId);
+        log.info(LogMessages.RESOURCE_FOUND, Entity.CUSTOMER.getValue());
+
+        int numberOfReadNotifications = notificationRepository.markAllAsRead(customer.getNationalId(), LocalDateTime.now());
+        TransactionUtils.runAfterCommit(() -> unreadNotificationCounter.add(nationalId, -numberOfReadNotifications));
+
+        return numberOfReadNotifications + " " + Entity.NOTIFICATION.getValue() + "s are marked as read";
+    }
+
+    /***
+     * Badges are polled frequently, so the count is served by the in-memory counter and the table is only queried when the count expires.
+     * @param nationalId is national identity of the customer
+     * @return number of unread notifications (0 for unknown customers)
+     */
+    @Override
+    public long getUnreadNotificationCount(String nationalId) {
+        return unreadNotificationCounter.get(nationalId, notificationRepository::countUnread);
     }
 }
@@ -12,13 +12,17 @@ import com.ercanbeyen.bankingapplication.mapper.RegularTransferOrderMapper;
 import com.ercanbeyen.bankingapplication.option.RegularTransferOrderOptions;
 import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository;
 import com.ercanbeyen.bankingapplication.service.BaseService;
+import com.ercanbeyen.bankingapplication.specification.RegularTransferOrderSpecifications;
 import com.ercanbeyen.bankingapplication.util.LoggingUtils;
+import com.ercanbeyen.bankingapplication.util.PaginationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -32,20 +36,14 @@ public class RegularTransferOrderService implements BaseService<RegularTransferO
     public List<RegularTransferOrderDto> getEntities(RegularTransferOrderOptions options) {
         log.info(LogMessages.ECHO, LoggingUtils.getCurrentClassName(), LoggingUtils.getCurrentMethodName());
 
-        List<RegularTransferOrderDto> regularTransferOrderDtos;
+        Specification<RegularTransferOrder> specification = RegularTransferOrderSpecifications.filter(options);
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        int pageSize = PaginationUtils.getPageSize(options.getSize());
 
-        Predicate<RegularTransferOrder> regularTransferOrderPredicate = regularTransferOrder -> (options.getSenderAccountId() == null || options.getSenderAccountId().equals(regularTransferOrder.getSenderAccount().getId()))
-                && (options.getReceiverAccountId() == null || options.getReceiverAccountId().equals(regularTransferOrder.getRegularTransfer().getReceiverAccount().getId())
-                && (options.getPeriod() == null || options.getPeriod().equals(regularTransferOrder.getPeriod()))
-                && (options.getCreateTime() == null || options.getCreateTime().toLocalDate().isEqual(options.getCreateTime().toLocalDate())));
-
-        regularTransferOrderDtos = regularTransferOrderRepository.findAll()
+        return regularTransferOrderRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).all())
                 .stream()
-                .filter(regularTransferOrderPredicate)
                 .map(regularTransferOrderMapper::entityToDto)
                 .toList();
-
-        return regularTransferOrderDtos;
     }
 
     @Override
@@ -80,7 +78,12 @@ public class RegularTransferOrderService implements BaseService<RegularTransferO
         regularTransfer.setAmount(request.getRegularTransferDto().amount());
         regularTransfer.setExplanation(request.getRegularTransferDto().explanation());
 
-        regularTransferOrder.setPeriod(regularTransferOrder.getPeriod());
+        Integer period = request.getPeriod();
+
+        if (!period.equals(regularTransferOrder.getPeriod())) {
+            regularTransferOrder.setPeriod(period);
+            regularTransferOrder.setNextExecutionDate(LocalDate.now().plusWeeks(period));
+        }
 
         return regularTransferOrderMapper.entityToDto(regularTransferOrderRepository.save(regularTransferOrder));
     }
@@ -102,6 +105,7 @@ public class RegularTransferOrderService implements BaseService<RegularTransferO
         RegularTransfer regularTransfer = new RegularTransfer(accounts.get(1), request.getRegularTransferDto().amount(), request.getRegularTransferDto().explanation());
         regularTransferOrder.setRegularTransfer(regularTransfer);
         regularTransferOrder.setPeriod(request.getPeriod());
+        regularTransferOrder.setNextExecutionDate(LocalDate.now().plusWeeks(request.getPeriod()));
 
         return regularTransferOrder;
     }
@@ -2,22 +2,37 @@ package com.ercanbeyen.bankingapplication.service.impl;
 
 import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
 import com.ercanbeyen.bankingapplication.constant.enums.BalanceActivity;
+import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.bankingapplication.dto.NotificationDto;
 import com.ercanbeyen.bankingapplication.dto.request.AccountActivityRequest;
 import com.ercanbeyen.bankingapplication.dto.request.ExchangeRequest;
 import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
 import com.ercanbeyen.bankingapplication.entity.Account;
 import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
+import com.ercanbeyen.bankingapplication.exception.ResourceExpectationFailedException;
+import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.bankingapplication.ledger.LedgerEngine;
+import com.ercanbeyen.bankingapplication.metric.TransferMetrics;
+import com.ercanbeyen.bankingapplication.model.Money;
 import com.ercanbeyen.bankingapplication.repository.AccountRepository;
 import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import com.ercanbeyen.bankingapplication.util.AccountUtils;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.javatuples.Pair;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 @RequiredArgsConstructor
@@ -27,37 +42,221 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     private final AccountActivityService accountActivityService;
     private final ExchangeService exchangeService;
+    private final NotificationService notificationService;
+    private final TransferMetrics transferMetrics;
+    private final Optional<LedgerEngine> ledgerEngine;
 
-    public void updateBalanceOfSingleAccount(AccountActivityType activityType, Double amount, Account account, String explanation) {
+    public void updateBalanceOfSingleAccount(AccountActivityType activityType, Money amount, Account account, String explanation) {
         Pair<BalanceActivity, Account[]> activityParameters = constructActivityParameters(activityType, account);
+        Account[] accounts = activityParameters.getValue1();
+        long minorUnits = amount.minorUnits();
 
-        int numberOfUpdatedEntities = accountRepository.updateBalanceById(account.getId(), activityParameters.getValue0().name(), amount);
-        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+        if (ledgerEngine.isPresent()) {
+            ledgerEngine.get().apply(activityType, getId(accounts[0]), minorUnits, getId(accounts[1]), minorUnits, explanation);
+            return;
+        }
+
+        if (activityParameters.getValue0() == BalanceActivity.DECREASE) {
+            decreaseBalance(account.getId(), minorUnits);
+        } else {
+            increaseBalance(account.getId(), minorUnits);
+        }
 
-        createAccountActivity(activityType, amount, explanation, activityParameters.getValue1());
+        createAccountActivity(activityType, amount, explanation, accounts);
     }
 
-    public void transferMoneyBetweenAccounts(TransferRequest request, Integer senderAccountId, Double amount, Integer receiverAccountId, Account senderAccount, Account receiverAccount) {
-        int numberOfUpdatedEntities = accountRepository.updateBalanceById(senderAccountId, BalanceActivity.DECREASE.name(), amount);
-        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+    public void transferMoneyBetweenAccounts(TransferRequest request, Integer senderAccountId, Money amount, Integer receiverAccountId, Account senderAccount, Account receiverAccount) {
+        long minorUnits = amount.minorUnits();
 
-        numberOfUpdatedEntities = accountRepository.updateBalanceById(receiverAccountId, BalanceActivity.INCREASE.name(), amount);
-        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+        if (ledgerEngine.isPresent()) {
+            ledgerEngine.get().apply(AccountActivityType.MONEY_TRANSFER, senderAccountId, minorUnits, receiverAccountId, minorUnits, request.explanation());
+        } else {
+            moveMoneyBetweenAccounts(senderAccountId, minorUnits, receiverAccountId, minorUnits);
 
-        Account[] accounts = {senderAccount, receiverAccount};
+            Account[] accounts = {senderAccount, receiverAccount};
 
-        createAccountActivity(AccountActivityType.MONEY_TRANSFER, request.amount(), request.explanation(), accounts);
+            createAccountActivity(AccountActivityType.MONEY_TRANSFER, amount, request.explanation(), accounts);
+        }
+
+        notificationService.enqueueNotifications(constructTransferNotifications(senderAccount, receiverAccount, amount));
     }
 
-    public void exchangeMoneyBetweenAccounts(ExchangeRequest request, Account sellerAccount, Account buyerAccount) {
-        Double requestedAmount = request.amount();
-        Double exchangedAmount = exchangeService.exchangeMoney(sellerAccount, buyerAccount, requestedAmount);
+    /***
+     * Every involved account is loaded and locked by a single query. Balance changes of the transfers are summed per account
+     * and each account is updated by one UPDATE statement in ascending id order, activities are inserted in JDBC batches.
+     * If the ledger is enabled, the transfers are submitted to the ledger together and share its group commits.
+     * Notifications of the completed transfers are written to the outbox in the same transaction.
+     * @param requests are transfer requests which are applied in the given order
+     * @return result of each transfer
+     */
+    public List<TransferResult> transferMoneyInBatch(List<TransferRequest> requests) {
+        return transferMoneyInBatch(requests, null);
+    }
 
-        int numberOfUpdatedEntities = accountRepository.updateBalanceById(request.sellerId(), BalanceActivity.DECREASE.name(), requestedAmount);
-        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+    /***
+     * Ledger does not join the transaction, so a rolled back batch which is repeated submits its transfers with the same keys,
+     * and each key is applied once by the ledger.
+     * @param requests are transfer requests which are applied in the given order
+     * @param idempotencyKeys are keys of the requests in the same order, null if the transfers may be repeated
+     * @return result of each transfer
+     */
+    public List<TransferResult> transferMoneyInBatch(List<TransferRequest> requests, List<String> idempotencyKeys) {
+        Set<Integer> accountIds = new HashSet<>();
+        requests.forEach(request -> {
+            accountIds.add(request.senderAccountId());
+            accountIds.add(request.receiverAccountId());
+        });
 
-        numberOfUpdatedEntities = accountRepository.updateBalanceById(request.buyerId(), BalanceActivity.INCREASE.name(), exchangedAmount);
-        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+        Map<Integer, Account> accounts = new HashMap<>();
+        List<Account> foundAccounts = ledgerEngine.isPresent()
+                ? accountRepository.findAllById(accountIds)
+                : transferMetrics.recordLockWait(() -> accountRepository.findByIdInOrderByIdAsc(accountIds));
+        foundAccounts.forEach(account -> accounts.put(account.getId(), account));
+        log.info("{} of {} accounts are found", accounts.size(), accountIds.size());
+
+        List<CompletableFuture<Void>> transfers = new ArrayList<>(requests.size());
+        List<AccountActivityRequest> accountActivityRequests = new ArrayList<>();
+        Map<Integer, Money> balances = new HashMap<>(); // balances after the accepted transfers
+        Map<Integer, Long> balanceDeltas = new TreeMap<>(); // Rows are updated in ascending id order
+
+        for (int index = 0; index < requests.size(); index++) {
+            TransferRequest request = requests.get(index);
+            CompletableFuture<Void> transfer;
+
+            try {
+                Account senderAccount = getAccount(accounts, request.senderAccountId());
+                Account receiverAccount = getAccount(accounts, request.receiverAccountId());
+
+                AccountUtils.checkMoneyTransferRequest(request);
+                AccountUtils.checkIsAccountClosed(senderAccount);
+                AccountUtils.checkIsAccountClosed(receiverAccount);
+                AccountUtils.checkCurrencies(senderAccount.getCurrency(), receiverAccount.getCurrency());
+
+                Money transferredMoney = Money.of(request.amount(), senderAccount.getCurrency());
+                long minorUnits = transferredMoney.minorUnits();
+
+                if (ledgerEngine.isPresent()) {
+                    transfer = (idempotencyKeys == null)
+                            ? ledgerEngine.get().submit(AccountActivityType.MONEY_TRANSFER, senderAccount.getId(), minorUnits, receiverAccount.getId(), minorUnits, request.explanation())
+                            : ledgerEngine.get().submit(idempotencyKeys.get(index), AccountActivityType.MONEY_TRANSFER, senderAccount.getId(), minorUnits, receiverAccount.getId(), minorUnits, request.explanation());
+                } else {
+                    Money senderBalance = getBalance(balances, senderAccount);
+
+                    AccountUtils.checkBalance(senderBalance, transferredMoney);
+
+                    /* Entities are not changed, since a dirty account would be flushed with a new update time */
+                    balances.put(senderAccount.getId(), senderBalance.minus(transferredMoney));
+                    balances.put(receiverAccount.getId(), getBalance(balances, receiverAccount).plus(transferredMoney));
+                    balanceDeltas.merge(senderAccount.getId(), -minorUnits, Long::sum);
+                    balanceDeltas.merge(receiverAccount.getId(), minorUnits, Long::sum);
+
+                    accountActivityRequests.add(new AccountActivityRequest(AccountActivityType.MONEY_TRANSFER, senderAccount, receiverAccount, transferredMoney.toDecimal(), request.explanation()));
+                    transfer = CompletableFuture.completedFuture(null);
+                }
+            } catch (ResourceNotFoundException | ResourceConflictException | ResourceExpectationFailedException exception) {
+                transfer = CompletableFuture.failedFuture(exception);
+            }
+
+            transfers.add(transfer);
+        }
+
+        updateBalances(balanceDeltas);
+        accountActivityService.createAccountActivities(accountActivityRequests);
+
+        List<TransferResult> transferResults = new ArrayList<>(requests.size());
+        List<NotificationDto> notificationDtos = new ArrayList<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            TransferRequest request = requests.get(index);
+            Integer senderAccountId = request.senderAccountId();
+            Integer receiverAccountId = request.receiverAccountId();
+
+            try {
+                transfers.get(index).join();
+            } catch (CompletionException exception) {
+                String message = exception.getCause().getMessage();
+                log.warn("Transfer {} is rejected. Exception message: {}", index, message);
+                transferResults.add(new TransferResult(index, senderAccountId, receiverAccountId, false, message));
+                continue;
+            }
+
+            Account senderAccount = accounts.get(senderAccountId);
+            Money transferredMoney = Money.of(request.amount(), senderAccount.getCurrency());
+            notificationDtos.addAll(constructTransferNotifications(senderAccount, accounts.get(receiverAccountId), transferredMoney));
+            transferResults.add(new TransferResult(index, senderAccountId, receiverAccountId, true, String.format(ResponseMessages.SUCCESS, AccountActivityType.MONEY_TRANSFER.getValue())));
+        }
+
+        notificationService.enqueueNotifications(notificationDtos);
+
+        return transferResults;
+    }
+
+    /***
+     * Interests of the matured deposit accounts are added in one pass. Accounts are loaded and locked by a single query,
+     * balances are updated in ascending id order, FEE activities are inserted in JDBC batches and terms are renewed by a single statement.
+     * Accounts which do not mature on the date any more are skipped, so a repeated call does not add the interest twice.
+     * If the ledger is enabled, interests are calculated from the ledger balances and submitted with the account and the maturity date as their keys,
+     * since the ledger entries of a rolled back call are not rolled back with the terms.
+     * @param accountIds are ids of the deposit accounts
+     * @param maturityDate is the date on which the accounts mature
+     * @return notifications of the account owners
+     */
+    public List<NotificationDto> accrueDepositInterests(Collection<Integer> accountIds, LocalDate maturityDate) {
+        final String explanation = "Fee is transferred, because deposit period is completed";
+
+        List<Account> accounts = ledgerEngine.isPresent()
+                ? accountRepository.findAllById(accountIds)
+                : transferMetrics.recordLockWait(() -> accountRepository.findByIdInOrderByIdAsc(accountIds));
+
+        List<Integer> renewedAccountIds = new ArrayList<>(accounts.size());
+        List<CompletableFuture<Void>> ledgerEntries = new ArrayList<>();
+        List<AccountActivityRequest> accountActivityRequests = new ArrayList<>(accounts.size());
+        List<NotificationDto> notificationDtos = new ArrayList<>(accounts.size());
+        Map<Integer, Long> balanceDeltas = new TreeMap<>();
+
+        for (Account account : accounts) {
+            if (account.getClosedAt() != null || !maturityDate.isEqual(account.getMaturityDate())) {
+                continue;
+            }
+
+            long interest;
+
+            try {
+                long balance = ledgerEngine.isPresent() ? ledgerEngine.get().readBalance(account.getId()) : MoneyUtils.toMinorUnits(account.getBalance());
+                interest = AccountUtils.calculateInterest(balance, account.getInterestRatio());
+            } catch (ResourceConflictException exception) {
+                log.warn("Interest of account {} is not calculated. Exception message: {}", account.getId(), exception.getMessage());
+                continue;
+            }
+
+            if (ledgerEngine.isPresent()) {
+                String idempotencyKey = String.format("deposit-interest:%d:%s", account.getId(), maturityDate);
+                ledgerEntries.add(ledgerEngine.get().submit(idempotencyKey, AccountActivityType.FEE, null, interest, account.getId(), interest, explanation));
+            } else {
+                balanceDeltas.put(account.getId(), interest);
+                accountActivityRequests.add(new AccountActivityRequest(AccountActivityType.FEE, null, account, MoneyUtils.toDecimal(interest), explanation));
+            }
+
+            renewedAccountIds.add(account.getId());
+            notificationDtos.add(new NotificationDto(account.getCustomer().getNationalId(), String.format("Term of your %s is deposit account has been renewed.", account.getCurrency())));
+        }
+
+        CompletableFuture.allOf(ledgerEntries.toArray(CompletableFuture[]::new)).join();
+        updateBalances(balanceDeltas);
+        accountActivityService.createAccountActivities(accountActivityRequests);
+
+        if (!renewedAccountIds.isEmpty()) {
+            int numberOfRenewedAccounts = accountRepository.renewDepositTerms(renewedAccountIds, LocalDateTime.now());
+            log.info("Interests are added to {} of {} deposit accounts", numberOfRenewedAccounts, accountIds.size());
+        }
+
+        return notificationDtos;
+    }
+
+    public void exchangeMoneyBetweenAccounts(ExchangeRequest request, Account sellerAccount, Account buyerAccount) {
+        Double requestedAmount = request.amount();
+        Money soldMoney = Money.of(requestedAmount, sellerAccount.getCurrency());
+        Money exchangedMoney = exchangeService.exchangeMoney(sellerAccount, buyerAccount, requestedAmount);
 
         String explanationTemplate = """
                 Money exchange (from %s to %s) operation is completed.
@@ -79,12 +278,82 @@ public class TransactionService {
                 LocalDateTime.now()
         );
 
-        Account[] accounts = {sellerAccount, buyerAccount};
-        createAccountActivity(AccountActivityType.MONEY_EXCHANGE, requestedAmount, explanation, accounts);
+        if (ledgerEngine.isPresent()) {
+            ledgerEngine.get().apply(AccountActivityType.MONEY_EXCHANGE, request.sellerId(), soldMoney.minorUnits(), request.buyerId(), exchangedMoney.minorUnits(), explanation);
+            return;
+        }
+
+        moveMoneyBetweenAccounts(request.sellerId(), soldMoney.minorUnits(), request.buyerId(), exchangedMoney.minorUnits());
+
+        AccountActivityRequest accountActivityRequest = new AccountActivityRequest(AccountActivityType.MONEY_EXCHANGE, sellerAccount, buyerAccount, soldMoney.toDecimal(), exchangedMoney.toDecimal(), explanation);
+        accountActivityService.createAccountActivity(accountActivityRequest);
+    }
+
+    /***
+     * Rows of the accounts are always locked in ascending id order, so concurrent transactions on the same accounts cannot deadlock.
+     * @param senderAccountId is id of the account whose balance decreases
+     * @param decreasedAmount is amount in minor units which is withdrawn from the sender account
+     * @param receiverAccountId is id of the account whose balance increases
+     * @param increasedAmount is amount in minor units which is deposited to the receiver account
+     */
+    private void moveMoneyBetweenAccounts(Integer senderAccountId, long decreasedAmount, Integer receiverAccountId, long increasedAmount) {
+        if (senderAccountId < receiverAccountId) {
+            decreaseBalance(senderAccountId, decreasedAmount);
+            increaseBalance(receiverAccountId, increasedAmount);
+        } else {
+            increaseBalance(receiverAccountId, increasedAmount);
+            decreaseBalance(senderAccountId, decreasedAmount);
+        }
     }
 
-    private void createAccountActivity(AccountActivityType activityType, Double amount, String explanation, Account[] accounts) {
-        AccountActivityRequest accountActivityRequest = new AccountActivityRequest(activityType, accounts[0], accounts[1], amount, explanation);
+    private void decreaseBalance(Integer accountId, long amount) {
+        int numberOfUpdatedEntities = transferMetrics.recordLockWait(() -> accountRepository.decreaseBalanceByIdIfSufficient(accountId, MoneyUtils.toDecimal(amount)));
+        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+
+        if (numberOfUpdatedEntities == 0) { // Balance is checked and updated atomically, so concurrent withdrawals cannot overdraw the account
+            transferMetrics.incrementInsufficientFundsConflicts();
+            throw new ResourceExpectationFailedException(ResponseMessages.INSUFFICIENT_FUNDS);
+        }
+    }
+
+    private void increaseBalance(Integer accountId, long amount) {
+        int numberOfUpdatedEntities = transferMetrics.recordLockWait(() -> accountRepository.updateBalanceById(accountId, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(amount)));
+        log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+    }
+
+    /***
+     * Balances are changed by statements instead of the entities, so the update time and the deposit terms are not touched.
+     * @param balanceDeltas are balance changes in minor units by account id, which are applied in the iteration order of the map
+     */
+    private void updateBalances(Map<Integer, Long> balanceDeltas) {
+        balanceDeltas.forEach((accountId, delta) -> {
+            if (delta != 0) {
+                int numberOfUpdatedEntities = accountRepository.updateBalanceById(accountId, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(delta));
+                log.info(LogMessages.NUMBER_OF_UPDATED_ENTITIES, numberOfUpdatedEntities);
+            }
+        });
+    }
+
+    private static Money getBalance(Map<Integer, Money> balances, Account account) {
+        return balances.computeIfAbsent(account.getId(), id -> Money.of(account.getBalance(), account.getCurrency()));
+    }
+
+    private static Integer getId(Account account) {
+        return account == null ? null : account.getId();
+    }
+
+    private static Account getAccount(Map<Integer, Account> accounts, Integer id) {
+        Account account = accounts.get(id);
+
+        if (account == null) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, Entity.ACCOUNT.getValue()));
+        }
+
+        return account;
+    }
+
+    private void createAccountActivity(AccountActivityType activityType, Money amount, String explanation, Account[] accounts) {
+        AccountActivityRequest accountActivityRequest = new AccountActivityRequest(activityType, accounts[0], accounts[1], amount.toDecimal(), explanation);
         accountActivityService.createAccountActivity(accountActivityRequest);
     }
 
@@ -112,4 +381,10 @@ public class TransactionService {
 
         return new Pair<>(balanceActivity, accounts);
     }
+
+    private static List<NotificationDto> constructTransferNotifications(Account senderAccount, Account receiverAccount, Money amount) {
+        return List.of(
+                new NotificationDto(senderAccount.getCustomer().getNationalId(), String.format("%s money transaction has been made from your account.", amount)),
+                new NotificationDto(receiverAccount.getCustomer().getNationalId(), String.format("%s money transaction has been made to your account.", amount)));
+    }
 }
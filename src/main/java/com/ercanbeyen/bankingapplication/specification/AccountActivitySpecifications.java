@@ -0,0 +1,79 @@
+package com.ercanbeyen.bankingapplication.specification;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+import com.ercanbeyen.bankingapplication.entity.AccountActivity;
+import com.ercanbeyen.bankingapplication.option.AccountActivityFilteringOptions;
+import lombok.experimental.UtilityClass;
+import org.javatuples.Pair;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@UtilityClass
+public class AccountActivitySpecifications {
+    /* Newest first, id breaks the ties of activities created in the same second */
+    public final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    /***
+     *
+     * @param options is for filtering fields
+     * @param cursor is (createdAt, id) of the last activity in the previous page
+     * @return specification which filters the activities and starts right after the cursor
+     */
+    public Specification<AccountActivity> filter(AccountActivityFilteringOptions options, Pair<LocalDateTime, String> cursor) {
+        return Specification.where(hasType(options.type()))
+                .and(hasSenderAccount(options.senderAccountId()))
+                .and(hasReceiverAccount(options.receiverAccountId()))
+                .and(hasMinimumAmount(options.minimumAmount()))
+                .and(isCreatedOn(options.createAt()))
+                .and(isAfterCursor(cursor));
+    }
+
+    private Specification<AccountActivity> hasType(AccountActivityType type) {
+        return (root, query, builder) -> type == null ? null : builder.equal(root.get("type"), type);
+    }
+
+    private Specification<AccountActivity> hasSenderAccount(Integer senderAccountId) {
+        return (root, query, builder) -> senderAccountId == null ? null : builder.equal(root.get("senderAccount").get("id"), senderAccountId);
+    }
+
+    private Specification<AccountActivity> hasReceiverAccount(Integer receiverAccountId) {
+        return (root, query, builder) -> receiverAccountId == null ? null : builder.equal(root.get("receiverAccount").get("id"), receiverAccountId);
+    }
+
+    private Specification<AccountActivity> hasMinimumAmount(BigDecimal minimumAmount) {
+        return (root, query, builder) -> minimumAmount == null ? null : builder.greaterThanOrEqualTo(root.<BigDecimal>get("amount"), minimumAmount);
+    }
+
+    private Specification<AccountActivity> isCreatedOn(LocalDate createAt) {
+        return (root, query, builder) -> {
+            if (createAt == null) {
+                return null;
+            }
+
+            return builder.and(
+                    builder.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), createAt.atStartOfDay()),
+                    builder.lessThan(root.<LocalDateTime>get("createdAt"), createAt.plusDays(1).atStartOfDay()));
+        };
+    }
+
+    private Specification<AccountActivity> isAfterCursor(Pair<LocalDateTime, String> cursor) {
+        return (root, query, builder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            LocalDateTime createdAt = cursor.getValue0();
+            String id = cursor.getValue1();
+
+            return builder.or(
+                    builder.lessThan(root.<LocalDateTime>get("createdAt"), createdAt),
+                    builder.and(
+                            builder.equal(root.get("createdAt"), createdAt),
+                            builder.lessThan(root.<String>get("id"), id)));
+        };
+    }
+}
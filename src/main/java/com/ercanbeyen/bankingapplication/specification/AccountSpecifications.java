@@ -0,0 +1,31 @@
+package com.ercanbeyen.bankingapplication.specification;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.option.AccountFilteringOptions;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+@UtilityClass
+public class AccountSpecifications {
+    public Specification<Account> filter(AccountFilteringOptions options) {
+        return Specification.where(hasType(options.getType()))
+                .and(isClosed(options.getIsClosed()))
+                .and(BaseSpecifications.<Account>isCreatedOn(options.getCreateTime()))
+                .and(BaseSpecifications.<Account>isAfterCursor(options.getCursor()));
+    }
+
+    private Specification<Account> hasType(AccountType type) {
+        return (root, query, builder) -> type == null ? null : builder.equal(root.get("type"), type);
+    }
+
+    private Specification<Account> isClosed(Boolean isClosed) {
+        return (root, query, builder) -> {
+            if (isClosed == null) {
+                return null;
+            }
+
+            return isClosed ? builder.isNotNull(root.get("closedAt")) : builder.isNull(root.get("closedAt"));
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.ercanbeyen.bankingapplication.specification;
+
+import com.ercanbeyen.bankingapplication.entity.BaseEntity;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@UtilityClass
+public class BaseSpecifications {
+    public <T extends BaseEntity> Specification<T> isCreatedOn(LocalDateTime createTime) {
+        return (root, query, builder) -> {
+            if (createTime == null) {
+                return null;
+            }
+
+            /* Range on created_at instead of DATE(created_at) so that the index is still usable */
+            LocalDate createDate = createTime.toLocalDate();
+            return builder.and(
+                    builder.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), createDate.atStartOfDay()),
+                    builder.lessThan(root.<LocalDateTime>get("createdAt"), createDate.plusDays(1).atStartOfDay()));
+        };
+    }
+
+    public <T extends BaseEntity> Specification<T> isAfterCursor(Integer cursor) {
+        return (root, query, builder) -> cursor == null ? null : builder.greaterThan(root.<Integer>get("id"), cursor);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ercanbeyen.bankingapplication.specification;
+
+import com.ercanbeyen.bankingapplication.constant.enums.City;
+import com.ercanbeyen.bankingapplication.entity.Customer;
+import com.ercanbeyen.bankingapplication.option.CustomerFilteringOptions;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+@UtilityClass
+public class CustomerSpecifications {
+    public Specification<Customer> filter(CustomerFilteringOptions options) {
+        return Specification.where(livesIn(options.getCity()))
+                .and(hasBirthdayOn(options.getBirthDate()))
+                .and(BaseSpecifications.<Customer>isCreatedOn(options.getCreateTime()))
+                .and(BaseSpecifications.<Customer>isAfterCursor(options.getCursor()));
+    }
+
+    private Specification<Customer> livesIn(City city) {
+        return (root, query, builder) -> city == null ? null : builder.equal(root.get("address").get("city"), city);
+    }
+
+    /* Birthday is matched on the generated month and day columns, so that the index is used */
+    private Specification<Customer> hasBirthdayOn(LocalDate birthDate) {
+        return (root, query, builder) -> {
+            if (birthDate == null) {
+                return null;
+            }
+
+            return builder.and(
+                    builder.equal(root.get("birthMonth"), birthDate.getMonthValue()),
+                    builder.equal(root.get("birthDay"), birthDate.getDayOfMonth()));
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.ercanbeyen.bankingapplication.specification;
+
+import com.ercanbeyen.bankingapplication.entity.RegularTransferOrder;
+import com.ercanbeyen.bankingapplication.option.RegularTransferOrderOptions;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+@UtilityClass
+public class RegularTransferOrderSpecifications {
+    public Specification<RegularTransferOrder> filter(RegularTransferOrderOptions options) {
+        return Specification.where(hasSenderAccount(options.getSenderAccountId()))
+                .and(hasReceiverAccount(options.getReceiverAccountId()))
+                .and(hasPeriod(options.getPeriod()))
+                .and(BaseSpecifications.<RegularTransferOrder>isCreatedOn(options.getCreateTime()))
+                .and(BaseSpecifications.<RegularTransferOrder>isAfterCursor(options.getCursor()));
+    }
+
+    private Specification<RegularTransferOrder> hasSenderAccount(Integer senderAccountId) {
+        return (root, query, builder) -> senderAccountId == null ? null : builder.equal(root.get("senderAccount").get("id"), senderAccountId);
+    }
+
+    private Specification<RegularTransferOrder> hasReceiverAccount(Integer receiverAccountId) {
+        return (root, query, builder) -> receiverAccountId == null ? null : builder.equal(root.get("regularTransfer").get("receiverAccount").get("id"), receiverAccountId);
+    }
+
+    private Specification<RegularTransferOrder> hasPeriod(Integer period) {
+        return (root, query, builder) -> period == null ? null : builder.equal(root.get("period"), period);
+    }
+}
@@ -6,11 +6,14 @@ import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.bankingapplication.dto.AccountDto;
 import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.entity.Account;
 import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
 import com.ercanbeyen.bankingapplication.exception.ResourceExpectationFailedException;
+import com.ercanbeyen.bankingapplication.model.Money;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,7 +24,7 @@ import java.util.function.Predicate;
 @UtilityClass
 public class AccountUtils {
     private final List<Integer> DEPOSIT_PERIODS = List.of(1, 3, 6, 12);
-    private final Double MAXIMUM_TRANSFER_LIMIT = 1_000_000D;
+    private final BigDecimal MAXIMUM_TRANSFER_LIMIT = BigDecimal.valueOf(1_000_000);
     private final int LOWEST_THRESHOLD = 0;
 
     public void checkRequest(AccountDto accountDto) {
@@ -35,9 +38,9 @@ public class AccountUtils {
             log.warn("{} account does not have deposit period", accountType);
         }
 
-        Double balance = accountDto.getBalance();
+        BigDecimal balance = accountDto.getBalance();
 
-        if (balance != null && balance != 0) {
+        if (balance != null && balance.signum() != 0) {
             throw new ResourceConflictException("Not any balance value should be assigned directly from request");
         }
     }
@@ -47,7 +50,12 @@ public class AccountUtils {
             throw new ResourceExpectationFailedException("Identity of sender and receiver accounts should not be equal");
         }
 
-        if (request.amount() >= MAXIMUM_TRANSFER_LIMIT) {
+        /* Items of the scheduled batches are not validated by the controller, so amounts are checked here too */
+        if (request.amount() == null || request.amount().signum() <= LOWEST_THRESHOLD) {
+            throw new ResourceExpectationFailedException("Amount should be positive");
+        }
+
+        if (request.amount().compareTo(MAXIMUM_TRANSFER_LIMIT) >= 0) {
             throw new ResourceExpectationFailedException("Maximum transfer limit (" + MAXIMUM_TRANSFER_LIMIT + ") is exceeded");
         }
     }
@@ -58,25 +66,35 @@ public class AccountUtils {
         }
     }
 
-    public void checkBalance(Double balance, Double threshold) {
-        if (balance < threshold) {
-            throw new ResourceExpectationFailedException("Insufficient funds");
+    public void checkIsAccountClosed(Account account) {
+        LocalDateTime closedAt = account.getClosedAt();
+
+        if (closedAt != null) {
+            throw new ResourceConflictException(String.format("Account is improper for activities. It has already been closed at %s", closedAt));
         }
+
+        log.info("Account has not been closed");
     }
 
-    public double calculateInterest(Double balance, Double interestRatio) {
+    public void checkBalance(Money balance, Money threshold) {
+        if (balance.isLessThan(threshold)) {
+            throw new ResourceExpectationFailedException(ResponseMessages.INSUFFICIENT_FUNDS);
+        }
+    }
+
+    /***
+     * @param balance is balance in minor units
+     * @param interestRatio is interest ratio in percent
+     * @return interest in minor units
+     */
+    public long calculateInterest(long balance, double interestRatio) {
         checkValidityOfBalanceAndInterestRatio(balance, interestRatio);
-        return (balance == LOWEST_THRESHOLD || interestRatio == LOWEST_THRESHOLD) ? LOWEST_THRESHOLD : ((interestRatio * balance) / 100);
+        return MoneyUtils.percentage(balance, interestRatio);
     }
 
-    public boolean checkAccountForPeriodicMoneyAdd(AccountType accountType, LocalDateTime updatedAt, Integer depositPeriod) {
+    public boolean checkAccountForPeriodicMoneyAdd(AccountType accountType, Integer depositPeriod, LocalDate maturityDate) {
         checkAccountTypeAndDepositPeriodForPeriodBalanceUpdate(accountType, depositPeriod);
-
-        LocalDate isGoingToBeUpdatedAt = updatedAt
-                .toLocalDate()
-                .plusMonths(depositPeriod);
-
-        return isGoingToBeUpdatedAt.isEqual(LocalDate.now());
+        return LocalDate.now().isEqual(maturityDate);
     }
 
     public void checkCurrencies(Currency from, Currency to) {
@@ -93,7 +111,7 @@ public class AccountUtils {
         checkValidityOfDepositPeriod(depositPeriod);
     }
 
-    private void checkValidityOfBalanceAndInterestRatio(Double balance, Double interestRatio) {
+    private void checkValidityOfBalanceAndInterestRatio(long balance, double interestRatio) {
         boolean isBalanceValid = balance >= LOWEST_THRESHOLD;
         boolean isInterestRatioValid = interestRatio >= LOWEST_THRESHOLD;
 
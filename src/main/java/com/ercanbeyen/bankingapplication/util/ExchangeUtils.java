@@ -12,4 +12,22 @@ public class ExchangeUtils {
             throw new ResourceConflictException(String.format(ResponseMessages.UNPAIRED_CURRENCIES, "different"));
         }
     }
+
+    /***
+     * @param rate is mid rate of the exchange
+     * @param buyPercentage is margin of the bank while it buys the target currency
+     * @return bank buy rate
+     */
+    public double calculateBuyRate(Double rate, Double buyPercentage) {
+        return rate * ((100 - buyPercentage) / 100);
+    }
+
+    /***
+     * @param rate is mid rate of the exchange
+     * @param sellPercentage is margin of the bank while it sells the target currency
+     * @return bank sell rate
+     */
+    public double calculateSellRate(Double rate, Double sellPercentage) {
+        return rate * ((100 + sellPercentage) / 100);
+    }
 }
@@ -0,0 +1,107 @@
+package com.ercanbeyen.bankingapplication.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/***
+ * Fixed-point money arithmetic. Amounts are longs of minor units and rates are longs scaled by {@link #RATE_SCALE},
+ * so conversion and interest math neither allocates nor accumulates floating point drift.
+ * Results are rounded half even, BigDecimal is only used when an intermediate product overflows 64 bits.
+ */
+@UtilityClass
+public class MoneyUtils {
+    public final int FRACTION_DIGITS = 2;
+    public final long MINOR_UNITS_PER_UNIT = 100;
+    public final long RATE_SCALE = 100_000_000;
+    private final BigDecimal DECIMAL_RATE_SCALE = BigDecimal.valueOf(RATE_SCALE);
+
+    public long toMinorUnits(double amount) {
+        return Math.round(amount * MINOR_UNITS_PER_UNIT);
+    }
+
+    public long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(FRACTION_DIGITS, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public double toDouble(long minorUnits) {
+        return (double) minorUnits / MINOR_UNITS_PER_UNIT;
+    }
+
+    public BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, FRACTION_DIGITS);
+    }
+
+    public long toScaledRate(double rate) {
+        return Math.round(rate * RATE_SCALE);
+    }
+
+    /***
+     * @param minorUnits is amount which is converted
+     * @param scaledRate is rate which the amount is multiplied by
+     * @return minorUnits * rate in minor units
+     */
+    public long multiply(long minorUnits, long scaledRate) {
+        long high = Math.multiplyHigh(minorUnits, scaledRate);
+        long low = minorUnits * scaledRate;
+
+        if (fitsInLong(high, low)) {
+            return divideHalfEven(low, RATE_SCALE);
+        }
+
+        return BigDecimal.valueOf(minorUnits)
+                .multiply(BigDecimal.valueOf(scaledRate))
+                .divide(DECIMAL_RATE_SCALE, 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    /***
+     * @param minorUnits is amount which is converted
+     * @param scaledRate is rate which the amount is divided by
+     * @return minorUnits / rate in minor units
+     */
+    public long divide(long minorUnits, long scaledRate) {
+        long high = Math.multiplyHigh(minorUnits, RATE_SCALE);
+        long low = minorUnits * RATE_SCALE;
+
+        if (fitsInLong(high, low)) {
+            return divideHalfEven(low, scaledRate);
+        }
+
+        return BigDecimal.valueOf(minorUnits)
+                .multiply(DECIMAL_RATE_SCALE)
+                .divide(BigDecimal.valueOf(scaledRate), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    /***
+     * @param minorUnits is amount whose percentage is calculated
+     * @param percentage is ratio in percent, such as 12.5 for 12.5%
+     * @return given percentage of the amount in minor units
+     */
+    public long percentage(long minorUnits, double percentage) {
+        return multiply(minorUnits, Math.round(percentage * (RATE_SCALE / 100)));
+    }
+
+    private boolean fitsInLong(long high, long low) {
+        return (high == 0 && low >= 0) || (high == -1 && low < 0);
+    }
+
+    private long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int comparison = Long.compare(remainder, Math.abs(divisor) - remainder);
+
+        if (comparison > 0 || (comparison == 0 && (quotient & 1) != 0)) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+
+        return quotient;
+    }
+}
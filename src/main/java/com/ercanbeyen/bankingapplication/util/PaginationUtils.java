@@ -0,0 +1,76 @@
+package com.ercanbeyen.bankingapplication.util;
+
+import com.ercanbeyen.bankingapplication.dto.BaseDto;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
+import com.ercanbeyen.bankingapplication.exception.ResourceExpectationFailedException;
+import lombok.experimental.UtilityClass;
+import org.javatuples.Pair;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@UtilityClass
+public class PaginationUtils {
+    public final int DEFAULT_PAGE_SIZE = 20;
+    public final int MAXIMUM_PAGE_SIZE = 100;
+    private final int MINIMUM_PAGE_SIZE = 1;
+    private final String CURSOR_DELIMITER = "|";
+
+    public int getPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        if (size < MINIMUM_PAGE_SIZE || size > MAXIMUM_PAGE_SIZE) {
+            throw new ResourceExpectationFailedException(String.format("Page size should be between %d and %d", MINIMUM_PAGE_SIZE, MAXIMUM_PAGE_SIZE));
+        }
+
+        return size;
+    }
+
+    /***
+     *
+     * @param content is the page which is sorted by id in ascending order
+     * @param size is the requested page size
+     * @return page with the cursor of the next page (null if it is the last page)
+     */
+    public <T extends BaseDto> CursorPageResponse<T> constructCursorPage(List<T> content, Integer size) {
+        String nextCursor = (!content.isEmpty() && content.size() == getPageSize(size))
+                ? String.valueOf(content.getLast().getId())
+                : null;
+
+        return new CursorPageResponse<>(content, nextCursor);
+    }
+
+    /***
+     *
+     * @param createdAt is creation time of the last element in the page
+     * @param id is identity of the last element in the page
+     * @return url safe cursor which points to the next page
+     */
+    public String encodeCursor(LocalDateTime createdAt, String id) {
+        String cursor = createdAt + CURSOR_DELIMITER + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Pair<LocalDateTime, String> decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        try {
+            String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int delimiterIndex = decodedCursor.indexOf(CURSOR_DELIMITER);
+            LocalDateTime createdAt = LocalDateTime.parse(decodedCursor.substring(0, delimiterIndex));
+            String id = decodedCursor.substring(delimiterIndex + 1);
+            return new Pair<>(createdAt, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new ResourceExpectationFailedException("Cursor is invalid");
+        }
+    }
+}
@@ -2,41 +2,58 @@ package com.ercanbeyen.bankingapplication.view;
 
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
 import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+import com.ercanbeyen.bankingapplication.constant.query.Queries;
+import com.ercanbeyen.bankingapplication.entity.AccountActivity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
-import lombok.Getter;
-import org.hibernate.annotations.Immutable;
-import org.hibernate.annotations.Subselect;
-import org.hibernate.annotations.Synchronize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@Getter
-@Entity(name = "account_activity_views")
-@Immutable
-@Subselect("""
-           SELECT t.id, t.type, a.currency, t.amount, t.sender_account_id, t.receiver_account_id, t.created_at
-           FROM (account_activities t
-                 INNER JOIN accounts a ON (t.sender_account_id = a.id OR t.receiver_account_id = a.id))
-           GROUP BY t.id, a.currency
-           ORDER BY t.created_at DESC, t.amount DESC
-           """
-)
-@Synchronize({"account_activities", "accounts"})
+/**
+ * Projection of an account activity per currency of its accounts. It is written in the same transaction as its activity,
+ * so reads are lookups on the sender and receiver index instead of a join over every activity.
+ */
+@Data
+@Entity
+@Table(name = "account_activity_views", indexes = {
+        @Index(name = "senderAccountId_receiverAccountId_createdAt_index", columnList = "sender_account_id, receiver_account_id, created_at"),
+        @Index(name = "accountActivityId_currency_index", columnList = "account_activity_id, currency", unique = true)
+})
+@NoArgsConstructor
 public class AccountActivityView {
     @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JsonIgnore
     private String id;
+    @Column(name = "account_activity_id", nullable = false)
+    @JsonProperty("id")
+    private String accountActivityId;
     @Column
     @Enumerated(EnumType.STRING)
     private AccountActivityType type;
     @Column
     @Enumerated(EnumType.STRING)
     private Currency currency;
-    @Column
-    private Double amount;
+    @Column(columnDefinition = Queries.MONEY_AMOUNT)
+    private BigDecimal amount;
     @Column(name = "sender_account_id")
     private Integer senderAccountId;
     @Column(name = "receiver_account_id")
     private Integer receiverAccountId;
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    public AccountActivityView(AccountActivity accountActivity, Currency currency) {
+        this.accountActivityId = accountActivity.getId();
+        this.type = accountActivity.getType();
+        this.currency = currency;
+        this.amount = accountActivity.getAmount();
+        this.senderAccountId = accountActivity.getSenderAccount() == null ? null : accountActivity.getSenderAccount().getId();
+        this.receiverAccountId = accountActivity.getReceiverAccount() == null ? null : accountActivity.getReceiverAccount().getId();
+        this.createdAt = accountActivity.getCreatedAt();
+    }
 }
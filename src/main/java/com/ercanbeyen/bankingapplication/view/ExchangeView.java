@@ -1,26 +1,22 @@
 package com.ercanbeyen.bankingapplication.view;
 
 import com.ercanbeyen.bankingapplication.constant.enums.Currency;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import lombok.Getter;
-import org.hibernate.annotations.Immutable;
-import org.hibernate.annotations.Subselect;
-import org.hibernate.annotations.Synchronize;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
-
-@Getter
-@Entity(name = "exchange_views")
-@Immutable
-@Subselect("""
-        SELECT e.id, e.target_currency, e.base_currency, e.rate * ((100 + e.sell_percentage) / 100) AS sell_rate, e.rate * ((100 - e.buy_percentage) / 100) AS buy_rate
-        FROM exchanges e
-        """)
-@Synchronize("exchanges")
+/**
+ * Projection of an exchange with its bank buy and sell rates. It is written in the same transaction as its exchange.
+ */
+@Data
+@Entity
+@Table(name = "exchange_views", indexes = {@Index(name = "baseCurrency_targetCurrency_index", columnList = "base_currency, target_currency", unique = true)})
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExchangeView {
     @Id
-    private Integer id;
+    private Integer id; // id of the exchange
     @Column(name = "target_currency")
     private Currency targetCurrency;
     @Column(name = "base_currency")
@@ -0,0 +1,16 @@
+package com.ercanbeyen.bankingapplication.integration.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "ledger.enabled=false")
+class DatabaseTransferThroughputBenchmarkTest extends TransferThroughputBenchmark {
+    @Override
+    protected String getPathName() {
+        return "Database";
+    }
+
+    @Override
+    protected void flush() {
+        // Balances are updated in the database synchronously
+    }
+}
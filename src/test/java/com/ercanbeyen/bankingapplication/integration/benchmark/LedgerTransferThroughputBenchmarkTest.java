@@ -0,0 +1,21 @@
+package com.ercanbeyen.bankingapplication.integration.benchmark;
+
+import com.ercanbeyen.bankingapplication.ledger.LedgerEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"ledger.enabled=true", "ledger.wal.path=target/ledger-benchmark/ledger.wal"})
+class LedgerTransferThroughputBenchmarkTest extends TransferThroughputBenchmark {
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Override
+    protected String getPathName() {
+        return "Ledger";
+    }
+
+    @Override
+    protected void flush() {
+        ledgerEngine.flush();
+    }
+}
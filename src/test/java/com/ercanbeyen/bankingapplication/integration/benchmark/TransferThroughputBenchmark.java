@@ -0,0 +1,146 @@
+package com.ercanbeyen.bankingapplication.integration.benchmark;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
+import com.ercanbeyen.bankingapplication.constant.enums.City;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.entity.Customer;
+import com.ercanbeyen.bankingapplication.factory.MockCustomerFactory;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import com.ercanbeyen.bankingapplication.service.impl.AccountService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.CassandraContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures transfers per second between a few hot accounts. Run with -Dbenchmark=true.
+ */
+@Slf4j
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+abstract class TransferThroughputBenchmark {
+    @Container
+    @ServiceConnection
+    private static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:latest"));
+    @Container
+    @ServiceConnection
+    private static final CassandraContainer<?> cassandraContainer = new CassandraContainer<>(DockerImageName.parse("cassandra:latest"));
+    private static final int NUMBER_OF_ACCOUNTS = 4;
+    private static final int NUMBER_OF_THREADS = 32;
+    private static final int NUMBER_OF_TRANSFERS = 5_000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00"); // in the scale of the column
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @DynamicPropertySource
+    static void registerMySQLProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mySQLContainer::getUsername);
+        registry.add("spring.datasource.password", mySQLContainer::getPassword);
+
+        mySQLContainer.start();
+    }
+
+    @DynamicPropertySource
+    static void registerCassandraProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.cassandra.contactpoints", () -> cassandraContainer.getHost() + ":" + cassandraContainer.getFirstMappedPort());
+        registry.add("spring.data.cassandra.local-datacenter", cassandraContainer::getLocalDatacenter);
+        registry.add("spring.data.cassandra.port", cassandraContainer::getFirstMappedPort);
+        registry.add("spring.data.cassandra.keyspace-name", () -> "mykeyspace");
+        registry.add("spring.data.cassandra.entity-base-package", () -> "com.ercanbeyen.bankingapplication.entity");
+        registry.add("spring.data.cassandra.username", cassandraContainer::getUsername);
+        registry.add("spring.data.cassandra.password", cassandraContainer::getPassword);
+
+        cassandraContainer.start();
+    }
+
+    @AfterAll
+    static void end() {
+        mySQLContainer.stop();
+        cassandraContainer.stop();
+    }
+
+    @Test
+    @DisplayName("Benchmark: Concurrent transfers between hot accounts")
+    void givenHotAccounts_whenTransferMoneyConcurrently_thenTotalBalanceIsPreserved() throws InterruptedException {
+        // given
+        Customer customer = customerRepository.save(MockCustomerFactory.generateMockCustomers().getFirst());
+        List<Integer> accountIds = new ArrayList<>();
+
+        for (int i = 0; i < NUMBER_OF_ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setType(AccountType.CURRENT);
+            account.setCustomer(customer);
+            account.setCity(City.ISTANBUL);
+            account.setCurrency(Currency.TL);
+            account.setBalance(INITIAL_BALANCE);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+
+        AtomicInteger failedTransfers = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+
+        // when
+        long start = System.nanoTime();
+
+        for (int i = 0; i < NUMBER_OF_TRANSFERS; i++) {
+            Integer senderAccountId = accountIds.get(i % NUMBER_OF_ACCOUNTS);
+            Integer receiverAccountId = accountIds.get((i + 1 + i / NUMBER_OF_ACCOUNTS % (NUMBER_OF_ACCOUNTS - 1)) % NUMBER_OF_ACCOUNTS);
+            TransferRequest request = new TransferRequest(senderAccountId, receiverAccountId, BigDecimal.ONE, "Benchmark");
+
+            executorService.execute(() -> {
+                try {
+                    accountService.transferMoney(request);
+                } catch (RuntimeException exception) {
+                    failedTransfers.incrementAndGet();
+                }
+            });
+        }
+
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.MINUTES);
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        log.info("{} path: {} transfers in {} seconds ({} transfers/second), {} failed",
+                getPathName(), NUMBER_OF_TRANSFERS, elapsedSeconds, NUMBER_OF_TRANSFERS / elapsedSeconds, failedTransfers.get());
+
+        // then
+        flush();
+
+        BigDecimal totalBalance = accountRepository.findAllById(accountIds)
+                .stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(INITIAL_BALANCE.multiply(BigDecimal.valueOf(NUMBER_OF_ACCOUNTS)), totalBalance);
+    }
+
+    protected abstract String getPathName();
+
+    protected abstract void flush();
+}
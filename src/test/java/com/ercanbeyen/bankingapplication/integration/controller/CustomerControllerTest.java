@@ -94,7 +94,7 @@ class CustomerControllerTest {
                 .then()
                 .assertThat()
                 .statusCode(HttpStatus.OK.value())
-                .body("size()", is(0));
+                .body("content.size()", is(0));
     }
 
     @Test
@@ -138,7 +138,7 @@ class CustomerControllerTest {
                 .then()
                 .assertThat()
                 .statusCode(HttpStatus.OK.value())
-                .body("size()", is(1));
+                .body("content.size()", is(1));
     }
 
     @Test
@@ -0,0 +1,157 @@
+package com.ercanbeyen.bankingapplication.integration.repository;
+
+import com.ercanbeyen.bankingapplication.entity.Customer;
+import com.ercanbeyen.bankingapplication.entity.Notification;
+import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 10, 0);
+    @Container
+    @ServiceConnection
+    private final static MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:latest"));
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Customer customer;
+    private Customer otherCustomer;
+
+    @DynamicPropertySource
+    static void registerMySQLProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mySQLContainer::getUsername);
+        registry.add("spring.datasource.password", mySQLContainer::getPassword);
+
+        mySQLContainer.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.saveAndFlush(generateCustomer("12345678911"));
+        otherCustomer = customerRepository.saveAndFlush(generateCustomer("12345678912"));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Page through inbox by cursor case")
+    void givenCursorOfLastNotification_whenFindInbox_thenReturnNextPage() {
+        // given
+        insertNotification("n1", customer, NOW, null);
+        insertNotification("n2", customer, NOW.plusSeconds(1), NOW);
+        insertNotification("n3", customer, NOW.plusSeconds(2), null);
+        insertNotification("n4", customer, NOW.plusSeconds(2), null); // same second as n3, so the tie is broken by id
+        insertNotification("n5", customer, NOW.plusSeconds(3), null);
+        insertNotification("n6", otherCustomer, NOW.plusSeconds(4), null);
+
+        // when
+        List<Notification> firstPage = notificationRepository.findInbox(customer.getNationalId(), null, null, null, 2);
+        Notification lastOfFirstPage = firstPage.getLast();
+        List<Notification> secondPage = notificationRepository.findInbox(customer.getNationalId(), null, lastOfFirstPage.getCreatedAt(), lastOfFirstPage.getId(), 2);
+        Notification lastOfSecondPage = secondPage.getLast();
+        List<Notification> thirdPage = notificationRepository.findInbox(customer.getNationalId(), false, lastOfSecondPage.getCreatedAt(), lastOfSecondPage.getId(), 2);
+
+        // then
+        assertEquals(List.of("n5", "n4"), getIds(firstPage));
+        assertEquals(List.of("n3", "n2"), getIds(secondPage));
+        assertEquals(List.of("n1"), getIds(thirdPage));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Find unread notifications of inbox case")
+    void givenReadNotification_whenFindInboxOfUnreadNotifications_thenSkipReadNotification() {
+        // given
+        insertNotification("n1", customer, NOW, null);
+        insertNotification("n2", customer, NOW.plusSeconds(1), NOW);
+        insertNotification("n3", customer, NOW.plusSeconds(2), null);
+
+        // when
+        List<Notification> actual = notificationRepository.findInbox(customer.getNationalId(), true, null, null, 10);
+
+        // then
+        assertEquals(List.of("n3", "n1"), getIds(actual));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Delete oldest expired notifications case")
+    void givenExpiredNotifications_whenDeleteOldest_thenDeleteAtMostLimitOldestNotifications() {
+        // given
+        LocalDateTime createdBefore = NOW.plusDays(1);
+        insertNotification("n1", customer, NOW.plusSeconds(2), null);
+        insertNotification("n2", customer, NOW, null);
+        insertNotification("n3", otherCustomer, NOW.plusSeconds(1), null);
+        insertNotification("n4", customer, createdBefore, null);
+
+        // when
+        int actual = notificationRepository.deleteOldest(createdBefore, 2);
+
+        // then
+        assertEquals(2, actual);
+        assertEquals(List.of("n1", "n4"), getIds(notificationRepository.findInbox(customer.getNationalId(), null, null, null, 10)).reversed());
+        assertEquals(1, notificationRepository.deleteOldest(createdBefore, 2));
+        assertEquals(0, notificationRepository.deleteOldest(createdBefore, 2));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Insert notifications for customer id range case")
+    void givenCustomerIdRange_whenInsertForCustomers_thenInsertOnlyForCustomersInRange() {
+        // given
+        Customer customerOutOfRange = customerRepository.saveAndFlush(generateCustomer("12345678913"));
+
+        // when
+        int actual = notificationRepository.insertForCustomers("Announcement", customer.getId(), otherCustomer.getId());
+
+        // then
+        assertEquals(2, actual);
+        assertEquals(1, notificationRepository.countUnread(customer.getNationalId()));
+        assertEquals(1, notificationRepository.countUnread(otherCustomer.getNationalId()));
+        assertEquals(0, notificationRepository.countUnread(customerOutOfRange.getNationalId()));
+    }
+
+    /* Inserted directly, since the creation timestamp of the entity is always the time of the insert */
+    private void insertNotification(String id, Customer owner, LocalDateTime createdAt, LocalDateTime readAt) {
+        jdbcTemplate.update(
+                "INSERT INTO notifications (id, customer_national_id, message, created_at, read_at) VALUES (?, ?, ?, ?, ?)",
+                id, owner.getNationalId(), "Message " + id, createdAt, readAt);
+        testEntityManager.clear();
+    }
+
+    private static List<String> getIds(List<Notification> notifications) {
+        return notifications.stream()
+                .map(Notification::getId)
+                .toList();
+    }
+
+    private static Customer generateCustomer(String nationalId) {
+        Customer customer = new Customer();
+        customer.setName("Test-Name");
+        customer.setSurname("Test-Surname");
+        customer.setNationalId(nationalId);
+        customer.setEmail(nationalId + "@email.com");
+        return customer;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ercanbeyen.bankingapplication.integration.repository;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountType;
+import com.ercanbeyen.bankingapplication.constant.enums.City;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.embeddable.RegularTransfer;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.entity.RegularTransferOrder;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository.DueOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RegularTransferOrderRepositoryTest {
+    private static final LocalDate EXECUTION_DATE = LocalDate.of(2024, 1, 1);
+    @Container
+    @ServiceConnection
+    private final static MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:latest"));
+    @Autowired
+    private RegularTransferOrderRepository regularTransferOrderRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    private Account receiverAccount;
+
+    @DynamicPropertySource
+    static void registerMySQLProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mySQLContainer::getUsername);
+        registry.add("spring.datasource.password", mySQLContainer::getPassword);
+
+        mySQLContainer.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        receiverAccount = accountRepository.saveAndFlush(generateAccount());
+    }
+
+    @Test
+    @DisplayName("Happy path test: Advance next execution date executed on time case")
+    void givenOrderExecutedOnTime_whenAdvanceNextExecutionDates_thenMoveByOnePeriod() {
+        // given
+        Integer id = saveOrder(1, EXECUTION_DATE);
+
+        // when
+        int actual = regularTransferOrderRepository.advanceNextExecutionDates(List.of(id), EXECUTION_DATE);
+
+        // then
+        assertEquals(1, actual);
+        assertEquals(LocalDate.of(2024, 1, 8), findNextExecutionDate(id));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Advance next execution date executed late case")
+    void givenOrderExecutedLate_whenAdvanceNextExecutionDates_thenSkipMissedPeriods() {
+        // given
+        Integer weeklyOrderId = saveOrder(1, EXECUTION_DATE);
+        Integer biweeklyOrderId = saveOrder(2, EXECUTION_DATE);
+        LocalDate executionDate = LocalDate.of(2024, 1, 20);
+
+        // when
+        int actual = regularTransferOrderRepository.advanceNextExecutionDates(List.of(weeklyOrderId, biweeklyOrderId), executionDate);
+
+        // then
+        assertEquals(2, actual);
+        assertEquals(LocalDate.of(2024, 1, 22), findNextExecutionDate(weeklyOrderId)); // 2024-01-08 and 2024-01-15 are not repeated
+        assertEquals(LocalDate.of(2024, 1, 29), findNextExecutionDate(biweeklyOrderId));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Advance next execution date of order which is not due case")
+    void givenOrderWhichIsNotDue_whenAdvanceNextExecutionDates_thenKeepNextExecutionDate() {
+        // given
+        LocalDate nextExecutionDate = EXECUTION_DATE.plusDays(3);
+        Integer id = saveOrder(1, nextExecutionDate);
+
+        // when
+        int actual = regularTransferOrderRepository.advanceNextExecutionDates(List.of(id), EXECUTION_DATE);
+
+        // then
+        assertEquals(0, actual);
+        assertEquals(nextExecutionDate, findNextExecutionDate(id));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Find due orders of lane case")
+    void givenOrdersOfSeveralSenders_whenFindDueOrders_thenReturnDueOrdersOfLane() {
+        // given
+        final int laneCount = 2;
+        List<Integer> dueOrderIds = List.of(saveOrder(1, EXECUTION_DATE), saveOrder(1, EXECUTION_DATE.minusDays(7)), saveOrder(1, EXECUTION_DATE), saveOrder(1, EXECUTION_DATE));
+        saveOrder(1, EXECUTION_DATE.plusDays(1));
+        Map<Integer, DueOrder> allOrders = findAllOrders();
+
+        for (int lane = 0; lane < laneCount; lane++) {
+            // when
+            List<DueOrder> actual = regularTransferOrderRepository.findDueOrders(EXECUTION_DATE, lane, laneCount, 0, Limit.unlimited());
+
+            // then
+            final int expectedLane = lane;
+            List<Integer> expected = dueOrderIds.stream()
+                    .filter(id -> Math.floorMod(allOrders.get(id).getSenderAccountId(), laneCount) == expectedLane)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, actual.stream().map(DueOrder::getId).toList());
+            assertTrue(actual.stream().allMatch(dueOrder -> receiverAccount.getId().equals(dueOrder.getReceiverAccountId())));
+        }
+    }
+
+    @Test
+    @DisplayName("Happy path test: Find due orders from last read id case")
+    void givenFromId_whenFindDueOrders_thenContinueFromFromId() {
+        // given
+        List<Integer> ids = List.of(saveOrder(1, EXECUTION_DATE), saveOrder(1, EXECUTION_DATE), saveOrder(1, EXECUTION_DATE));
+
+        // when
+        List<DueOrder> actual = regularTransferOrderRepository.findDueOrders(EXECUTION_DATE, 0, 1, ids.get(1), Limit.of(1));
+
+        // then
+        assertEquals(List.of(ids.get(1)), actual.stream().map(DueOrder::getId).toList());
+    }
+
+    /* Each order has a sender of its own, so the senders are spread over the lanes */
+    private Integer saveOrder(int period, LocalDate nextExecutionDate) {
+        Account senderAccount = accountRepository.saveAndFlush(generateAccount());
+        RegularTransferOrder regularTransferOrder = new RegularTransferOrder();
+        regularTransferOrder.setSenderAccount(senderAccount);
+        regularTransferOrder.setPeriod(period);
+        regularTransferOrder.setRegularTransfer(new RegularTransfer(receiverAccount, BigDecimal.valueOf(100), "Rent"));
+        regularTransferOrder.setNextExecutionDate(nextExecutionDate);
+        regularTransferOrderRepository.saveAndFlush(regularTransferOrder);
+
+        /* Id is read through the projection, since the sender account is unique to the order */
+        return findAllOrders().values()
+                .stream()
+                .filter(dueOrder -> senderAccount.getId().equals(dueOrder.getSenderAccountId()))
+                .findFirst()
+                .map(DueOrder::getId)
+                .orElseThrow();
+    }
+
+    private Map<Integer, DueOrder> findAllOrders() {
+        return regularTransferOrderRepository.findDueOrders(LocalDate.of(9999, 12, 31), 0, 1, 0, Limit.unlimited())
+                .stream()
+                .collect(Collectors.toMap(DueOrder::getId, Function.identity()));
+    }
+
+    private LocalDate findNextExecutionDate(Integer id) {
+        testEntityManager.clear(); // Update statement bypasses the persistence context
+        return regularTransferOrderRepository.findById(id)
+                .orElseThrow()
+                .getNextExecutionDate();
+    }
+
+    private static Account generateAccount() {
+        Account account = new Account();
+        account.setType(AccountType.CURRENT);
+        account.setCity(City.ISTANBUL);
+        account.setCurrency(Currency.TL);
+        account.setBalance(BigDecimal.valueOf(1_000));
+        return account;
+    }
+}
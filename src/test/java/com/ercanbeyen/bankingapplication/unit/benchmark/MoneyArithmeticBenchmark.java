@@ -0,0 +1,84 @@
+package com.ercanbeyen.bankingapplication.unit.benchmark;
+
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former boxed double arithmetic with the fixed-point minor unit arithmetic. Run with -Dbenchmark=true.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MoneyArithmeticBenchmark {
+    private Double amount;
+    private Double balance;
+    private Double rate;
+    private Double interestRatio;
+    private long amountInMinorUnits;
+    private long balanceInMinorUnits;
+    private long scaledRate;
+
+    @Setup
+    public void setUp() {
+        amount = 1_234.56;
+        balance = 98_765.43;
+        rate = 32.4871;
+        interestRatio = 45.5;
+        amountInMinorUnits = MoneyUtils.toMinorUnits(amount);
+        balanceInMinorUnits = MoneyUtils.toMinorUnits(balance);
+        scaledRate = MoneyUtils.toScaledRate(rate);
+    }
+
+    @Benchmark
+    public Double convertWithDouble() {
+        return amount * Math.pow(rate, -1);
+    }
+
+    @Benchmark
+    public long convertWithMinorUnits() {
+        return MoneyUtils.divide(amountInMinorUnits, scaledRate);
+    }
+
+    @Benchmark
+    public Double calculateInterestWithDouble() {
+        return (interestRatio * balance) / 100;
+    }
+
+    @Benchmark
+    public long calculateInterestWithMinorUnits() {
+        return MoneyUtils.percentage(balanceInMinorUnits, interestRatio);
+    }
+
+    @Benchmark
+    public Double transferWithDouble() {
+        Double senderBalance = balance - amount;
+        return senderBalance + amount;
+    }
+
+    @Benchmark
+    public long transferWithMinorUnits() {
+        long senderBalance = balanceInMinorUnits - amountInMinorUnits;
+        return senderBalance + amountInMinorUnits;
+    }
+
+    @Test
+    @DisplayName("Money arithmetic benchmark")
+    void runBenchmark() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyArithmeticBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
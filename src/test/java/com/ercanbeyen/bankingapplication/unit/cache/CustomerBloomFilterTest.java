@@ -0,0 +1,181 @@
+package com.ercanbeyen.bankingapplication.unit.cache;
+
+import com.ercanbeyen.bankingapplication.cache.CustomerBloomFilter;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class CustomerBloomFilterTest {
+    public static final String TESTED_CLASS = "Customer Bloom Filter";
+    private static final int EXPECTED_CUSTOMERS = 2_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int WARM_UP_CHUNK_SIZE = 1_000;
+    @Mock
+    private CustomerRepository customerRepository;
+    private CustomerBloomFilter customerBloomFilter;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        customerBloomFilter = new CustomerBloomFilter(customerRepository, EXPECTED_CUSTOMERS, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Might contain before warm up case")
+    void givenFilterIsNotWarmedUp_whenMightContain_thenReturnTrue() {
+        // when
+        boolean actual = customerBloomFilter.mightContain("11111111111", "+905551111111", "unknown@email.com");
+
+        // then
+        assertTrue(actual);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Warm up in chunks case")
+    void givenExistingCustomers_whenWarmUp_thenContainEveryCustomer() {
+        // given
+        List<CustomerRepository.UniqueFields> customers = generateCustomers(1, WARM_UP_CHUNK_SIZE + 500);
+        List<CustomerRepository.UniqueFields> firstChunk = customers.subList(0, WARM_UP_CHUNK_SIZE);
+        List<CustomerRepository.UniqueFields> secondChunk = customers.subList(WARM_UP_CHUNK_SIZE, customers.size());
+
+        doReturn(firstChunk)
+                .when(customerRepository)
+                .findByIdGreaterThanOrderByIdAsc(eq(0), any(Limit.class));
+        doReturn(secondChunk)
+                .when(customerRepository)
+                .findByIdGreaterThanOrderByIdAsc(eq(firstChunk.getLast().getId()), any(Limit.class));
+
+        // when
+        customerBloomFilter.warmUp();
+
+        // then
+        verify(customerRepository, times(2))
+                .findByIdGreaterThanOrderByIdAsc(anyInt(), any(Limit.class));
+
+        customers.forEach(customer -> {
+            assertTrue(customerBloomFilter.mightContain(customer.getNationalId(), null, null));
+            assertTrue(customerBloomFilter.mightContain(null, customer.getPhoneNumber(), null));
+            assertTrue(customerBloomFilter.mightContain(null, null, customer.getEmail()));
+        });
+    }
+
+    @Test
+    @DisplayName("Happy path test: Might contain after put case")
+    void givenPutCustomers_whenMightContain_thenReturnNoFalseNegative() {
+        // given
+        warmUpEmpty();
+        List<CustomerRepository.UniqueFields> customers = generateCustomers(1, EXPECTED_CUSTOMERS);
+
+        // when
+        customers.forEach(customer -> customerBloomFilter.put(customer.getNationalId(), customer.getPhoneNumber(), customer.getEmail()));
+
+        // then
+        customers.forEach(customer -> assertTrue(customerBloomFilter.mightContain(customer.getNationalId(), customer.getPhoneNumber(), customer.getEmail())));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Might contain unknown customers case")
+    void givenPutCustomers_whenMightContainUnknownCustomers_thenFalsePositivesAreBounded() {
+        // given
+        warmUpEmpty();
+        generateCustomers(1, EXPECTED_CUSTOMERS)
+                .forEach(customer -> customerBloomFilter.put(customer.getNationalId(), customer.getPhoneNumber(), customer.getEmail()));
+        List<CustomerRepository.UniqueFields> unknownCustomers = generateCustomers(EXPECTED_CUSTOMERS + 1, EXPECTED_CUSTOMERS);
+
+        // when
+        long falsePositives = unknownCustomers.stream()
+                .filter(customer -> customerBloomFilter.mightContain(customer.getNationalId(), customer.getPhoneNumber(), customer.getEmail()))
+                .count();
+
+        // then
+        /* Each unknown customer is 3 independent probes, so the expected rate is about 3% and 10% leaves room for variance */
+        assertTrue(falsePositives < unknownCustomers.size() / 10, "False positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Might contain null fields case")
+    void givenNullFields_whenMightContain_thenReturnFalse() {
+        // given
+        warmUpEmpty();
+
+        // when
+        boolean actual = customerBloomFilter.mightContain(null, null, null);
+
+        // then
+        assertFalse(actual);
+    }
+
+    private void warmUpEmpty() {
+        doReturn(List.of())
+                .when(customerRepository)
+                .findByIdGreaterThanOrderByIdAsc(anyInt(), any(Limit.class));
+        customerBloomFilter.warmUp();
+    }
+
+    private static List<CustomerRepository.UniqueFields> generateCustomers(int firstId, int count) {
+        List<CustomerRepository.UniqueFields> customers = new ArrayList<>(count);
+
+        IntStream.range(firstId, firstId + count)
+                .forEach(id -> customers.add(new MockUniqueFields(
+                        id,
+                        String.format("%011d", id),
+                        String.format("+90%010d", id),
+                        "customer" + id + "@email.com")));
+
+        return customers;
+    }
+
+    private record MockUniqueFields(Integer id, String nationalId, String phoneNumber, String email) implements CustomerRepository.UniqueFields {
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getNationalId() {
+            return nationalId;
+        }
+
+        @Override
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+}
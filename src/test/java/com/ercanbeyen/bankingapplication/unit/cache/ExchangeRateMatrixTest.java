@@ -0,0 +1,186 @@
+package com.ercanbeyen.bankingapplication.unit.cache;
+
+import com.ercanbeyen.bankingapplication.cache.ExchangeRateMatrix;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.exception.ResourceConflictException;
+import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.bankingapplication.repository.ExchangeViewRepository;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import com.ercanbeyen.bankingapplication.view.ExchangeView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateMatrixTest {
+    public static final String TESTED_CLASS = "Exchange Rate Matrix";
+    private static final double DELTA = 1e-9;
+    @InjectMocks
+    private ExchangeRateMatrix exchangeRateMatrix;
+    @Mock
+    private ExchangeViewRepository exchangeViewRepository;
+    private List<ExchangeView> exchangeViews;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+
+        /* Only the lira pairs are exchanged, so dollar and euro are converted through lira */
+        exchangeViews = new ArrayList<>();
+        exchangeViews.add(new ExchangeView(1, Currency.USD, Currency.TL, 30D, 32D));
+        exchangeViews.add(new ExchangeView(2, Currency.EUR, Currency.TL, 33D, 35D));
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Convert triangulated pair through lira case")
+    void givenPairWithoutExchange_whenConvert_thenConvertThroughLira() {
+        // given
+        rebuild();
+
+        // when
+        long actual = exchangeRateMatrix.convert(10_000, Currency.USD, Currency.EUR);
+
+        // then
+        assertEquals(8_571, actual); // 100 USD -> 3000 TL -> 85.714 EUR
+        assertEquals(30D / 35D, exchangeRateMatrix.getCrossRate(Currency.USD, Currency.EUR), DELTA);
+        assertEquals(Currency.TL.ordinal(), exchangeRateMatrix.getSnapshot().nextHops()[Currency.USD.ordinal()][Currency.EUR.ordinal()]);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Convert triangulated pair in reverse direction case")
+    void givenPairWithoutExchange_whenConvertInReverse_thenConvertThroughLira() {
+        // given
+        rebuild();
+
+        // when
+        long actual = exchangeRateMatrix.convert(10_000, Currency.EUR, Currency.USD);
+
+        // then
+        assertEquals(10_312, actual); // 100 EUR -> 3300 TL -> 103.125 USD, half even
+        assertEquals(33D / 32D, exchangeRateMatrix.getCrossRate(Currency.EUR, Currency.USD), DELTA);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Round each leg of triangulated pair case")
+    void givenTriangulatedPair_whenConvert_thenRoundEachLeg() {
+        // given
+        exchangeViews.set(0, new ExchangeView(1, Currency.USD, Currency.TL, 30.5, 32D));
+        rebuild();
+        long amount = 7;
+
+        // when
+        long actual = exchangeRateMatrix.convert(amount, Currency.USD, Currency.EUR);
+
+        // then
+        long liraAmount = MoneyUtils.multiply(amount, MoneyUtils.toScaledRate(30.5)); // 213.5 -> 214
+        long expected = MoneyUtils.divide(liraAmount, MoneyUtils.toScaledRate(35));
+        assertEquals(214, liraAmount);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Convert direct pairs case")
+    void givenDirectPairs_whenConvert_thenUseExchangeRates() {
+        // given
+        rebuild();
+
+        // when
+        long bought = exchangeRateMatrix.convert(32_00, Currency.TL, Currency.USD);
+        long sold = exchangeRateMatrix.convert(1_00, Currency.USD, Currency.TL);
+
+        // then
+        assertEquals(1_00, bought);
+        assertEquals(30_00, sold);
+        assertEquals(5_00, exchangeRateMatrix.convert(5_00, Currency.EUR, Currency.EUR));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Direct pair is not overridden by a better path case")
+    void givenDirectPairWorseThanTriangulation_whenConvert_thenUseDirectPair() {
+        // given
+        exchangeViews.add(new ExchangeView(3, Currency.EUR, Currency.USD, 0.8, 1.5));
+        rebuild();
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateMatrix.getSnapshot();
+
+        // when
+        long actual = exchangeRateMatrix.convert(10_000, Currency.USD, Currency.EUR);
+
+        // then
+        assertEquals(6_667, actual); // 100 USD / 1.5, although lira path gives 85.714 EUR
+        assertEquals(1 / 1.5, exchangeRateMatrix.getCrossRate(Currency.USD, Currency.EUR), DELTA);
+        assertEquals(Currency.EUR.ordinal(), snapshot.nextHops()[Currency.USD.ordinal()][Currency.EUR.ordinal()]);
+        assertEquals(Currency.USD.ordinal(), snapshot.nextHops()[Currency.EUR.ordinal()][Currency.USD.ordinal()]);
+        assertEquals(8_000, exchangeRateMatrix.convert(10_000, Currency.EUR, Currency.USD));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Convert pair without path case")
+    void givenPairWithoutPath_whenConvert_thenThrowResourceNotFoundException() {
+        // given
+        exchangeViews.removeLast();
+        rebuild();
+
+        // when
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateMatrix.getSnapshot();
+
+        // then
+        assertThrows(ResourceNotFoundException.class, () -> exchangeRateMatrix.convert(10_000, Currency.USD, Currency.EUR));
+        assertThrows(ResourceNotFoundException.class, () -> snapshot.convert(10_000, Currency.EUR.ordinal(), Currency.TL.ordinal()));
+        assertFalse(snapshot.isConvertible(Currency.TL.ordinal(), Currency.EUR.ordinal()));
+        assertTrue(Double.isNaN(exchangeRateMatrix.getCrossRate(Currency.USD, Currency.EUR)));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Convert pair whose path loops case")
+    void givenCyclicPath_whenConvert_thenThrowResourceConflictException() {
+        // given
+        rebuild();
+        ExchangeRateMatrix.Snapshot snapshot = exchangeRateMatrix.getSnapshot();
+        int[][] nextHops = snapshot.nextHops();
+        nextHops[Currency.USD.ordinal()][Currency.EUR.ordinal()] = Currency.TL.ordinal();
+        nextHops[Currency.TL.ordinal()][Currency.EUR.ordinal()] = Currency.USD.ordinal(); // Lira and dollar point to each other
+        ExchangeRateMatrix.Snapshot cyclicSnapshot = new ExchangeRateMatrix.Snapshot(snapshot.buyRates(), snapshot.sellRates(),
+                snapshot.multipliers(), snapshot.divisors(), snapshot.crossRates(), nextHops);
+
+        // when
+        int from = Currency.USD.ordinal();
+        int to = Currency.EUR.ordinal();
+
+        // then
+        assertThrows(ResourceConflictException.class, () -> cyclicSnapshot.convert(10_000, from, to));
+    }
+
+    private void rebuild() {
+        doReturn(exchangeViews)
+                .when(exchangeViewRepository)
+                .findAll();
+        exchangeRateMatrix.rebuild();
+        verify(exchangeViewRepository, times(1)).findAll();
+    }
+}
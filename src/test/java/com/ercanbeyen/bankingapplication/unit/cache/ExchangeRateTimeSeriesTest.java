@@ -0,0 +1,109 @@
+package com.ercanbeyen.bankingapplication.unit.cache;
+
+import com.ercanbeyen.bankingapplication.cache.ExchangeRateTimeSeries;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.entity.ExchangeRateHistory;
+import com.ercanbeyen.bankingapplication.repository.ExchangeRateHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateTimeSeriesTest {
+    public static final String TESTED_CLASS = "Exchange Rate Time Series";
+    private static final Duration GRACE_PERIOD = Duration.ofMinutes(5);
+    private static final LocalDateTime FIRST_EFFECTIVE_FROM = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final LocalDateTime SECOND_EFFECTIVE_FROM = FIRST_EFFECTIVE_FROM.plusSeconds(1);
+    @Mock
+    private ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private ExchangeRateTimeSeries exchangeRateTimeSeries;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        exchangeRateTimeSeries = new ExchangeRateTimeSeries(exchangeRateHistoryRepository, GRACE_PERIOD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Load record which is committed after a later record case")
+    void givenRecordCommittedLate_whenLoad_thenInsertRecordBeforeLaterRecord() {
+        // given
+        ExchangeRateHistory earlierRecord = generateExchangeRateHistory(10L, 30D, FIRST_EFFECTIVE_FROM);
+        ExchangeRateHistory laterRecord = generateExchangeRateHistory(11L, 31D, SECOND_EFFECTIVE_FROM);
+        doReturn(List.of(laterRecord))
+                .doReturn(List.of(earlierRecord, laterRecord))
+                .when(exchangeRateHistoryRepository)
+                .findNextRecords(any(LocalDateTime.class), anyLong(), any(Limit.class));
+        exchangeRateTimeSeries.load();
+
+        // when
+        exchangeRateTimeSeries.load();
+
+        // then
+        /* Second load starts the grace period before the last loaded record */
+        verify(exchangeRateHistoryRepository, times(1)).findNextRecords(eq(SECOND_EFFECTIVE_FROM.minus(GRACE_PERIOD)), eq(0L), any(Limit.class));
+        assertEquals(30D, getBuyRate(FIRST_EFFECTIVE_FROM));
+        assertEquals(31D, getBuyRate(SECOND_EFFECTIVE_FROM));
+        assertTrue(Double.isNaN(getBuyRate(FIRST_EFFECTIVE_FROM.minusSeconds(1))));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Load records of grace period again case")
+    void givenLoadedRecords_whenLoad_thenSkipLoadedRecords() {
+        // given
+        ExchangeRateHistory firstRecord = generateExchangeRateHistory(10L, 30D, FIRST_EFFECTIVE_FROM);
+        ExchangeRateHistory secondRecord = generateExchangeRateHistory(11L, 31D, SECOND_EFFECTIVE_FROM);
+        ExchangeRateHistory thirdRecord = generateExchangeRateHistory(12L, 32D, SECOND_EFFECTIVE_FROM.plusSeconds(1));
+        doReturn(List.of(firstRecord, secondRecord))
+                .doReturn(List.of(firstRecord, secondRecord, thirdRecord))
+                .when(exchangeRateHistoryRepository)
+                .findNextRecords(any(LocalDateTime.class), anyLong(), any(Limit.class));
+        exchangeRateTimeSeries.load();
+
+        // when
+        exchangeRateTimeSeries.load();
+
+        // then
+        assertEquals(30D, getBuyRate(FIRST_EFFECTIVE_FROM));
+        assertEquals(31D, getBuyRate(SECOND_EFFECTIVE_FROM));
+        assertEquals(32D, getBuyRate(SECOND_EFFECTIVE_FROM.plusSeconds(1)));
+    }
+
+    private double getBuyRate(LocalDateTime at) {
+        return exchangeRateTimeSeries.getSnapshot(at).buyRates()[Currency.USD.ordinal()][Currency.TL.ordinal()];
+    }
+
+    private static ExchangeRateHistory generateExchangeRateHistory(Long id, Double buyRate, LocalDateTime effectiveFrom) {
+        ExchangeRateHistory exchangeRateHistory = new ExchangeRateHistory(Currency.USD, Currency.TL, buyRate, buyRate + 2, effectiveFrom);
+        exchangeRateHistory.setId(id);
+        return exchangeRateHistory;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ercanbeyen.bankingapplication.unit.cache;
+
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UnreadNotificationCounterTest {
+    public static final String TESTED_CLASS = "Unread Notification Counter";
+    private static final String NATIONAL_ID = "12345678912";
+    private UnreadNotificationCounter unreadNotificationCounter;
+    private AtomicInteger loads;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        unreadNotificationCounter = new UnreadNotificationCounter(100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Get cached count case")
+    void givenLoadedCount_whenGet_thenReturnCachedCount() {
+        // given
+        unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(3));
+        unreadNotificationCounter.add(NATIONAL_ID, 2);
+
+        // when
+        long actual = unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(0));
+
+        // then
+        assertEquals(5, actual);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Happy path test: Do not cache count which is changed while it is loaded case")
+    void givenChangeDuringLoad_whenGet_thenDoNotCacheLoadedCount() {
+        // given
+        long loaded = unreadNotificationCounter.get(NATIONAL_ID, nationalId -> {
+            unreadNotificationCounter.add(nationalId, 1); // Notification which is committed after the count is read
+            return load(3);
+        });
+
+        // when
+        long actual = unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(4));
+
+        // then
+        assertEquals(3, loaded);
+        assertEquals(4, actual);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Happy path test: Do not cache count which is evicted while it is loaded case")
+    void givenEvictionDuringLoad_whenGet_thenDoNotCacheLoadedCount() {
+        // given
+        unreadNotificationCounter.get(NATIONAL_ID, nationalId -> {
+            unreadNotificationCounter.evictAll();
+            return load(3);
+        });
+
+        // when
+        long actual = unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(7));
+
+        // then
+        assertEquals(7, actual);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Exception path test: Failed load does not block later loads case")
+    void givenFailedLoad_whenGet_thenCacheNextLoad() {
+        // given
+        assertThrows(IllegalStateException.class, () -> unreadNotificationCounter.get(NATIONAL_ID, nationalId -> {
+            throw new IllegalStateException("Database is unavailable");
+        }));
+
+        // when
+        unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(2));
+        long actual = unreadNotificationCounter.get(NATIONAL_ID, nationalId -> load(0));
+
+        // then
+        assertEquals(2, actual);
+        assertEquals(1, loads.get());
+    }
+
+    private long load(long count) {
+        loads.incrementAndGet();
+        return count;
+    }
+}
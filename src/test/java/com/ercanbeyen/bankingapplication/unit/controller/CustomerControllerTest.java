@@ -3,6 +3,7 @@ package com.ercanbeyen.bankingapplication.unit.controller;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.controller.CustomerController;
 import com.ercanbeyen.bankingapplication.dto.CustomerDto;
+import com.ercanbeyen.bankingapplication.dto.response.CursorPageResponse;
 import com.ercanbeyen.bankingapplication.factory.MockCustomerFactory;
 import com.ercanbeyen.bankingapplication.option.CustomerFilteringOptions;
 import com.ercanbeyen.bankingapplication.service.impl.CustomerService;
@@ -67,12 +68,12 @@ class CustomerControllerTest {
                 .getEntities(any());
 
         // when
-        ResponseEntity<List<CustomerDto>> responseEntity = customerController.getEntities(filteringOptions);
+        ResponseEntity<CursorPageResponse<CustomerDto>> responseEntity = customerController.getEntities(filteringOptions);
 
         verify(customerService, times(1)).getEntities(any());
 
         assumeFalse(responseEntity.getBody() == null);
-        assertEquals(customerDtos.size(), responseEntity.getBody().size());
+        assertEquals(customerDtos.size(), responseEntity.getBody().content().size());
 
     }
 
@@ -0,0 +1,104 @@
+package com.ercanbeyen.bankingapplication.unit.job;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.job.IdRangePartitioner;
+import com.ercanbeyen.bankingapplication.repository.BaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class IdRangePartitionerTest {
+    public static final String TESTED_CLASS = "Id Range Partitioner";
+    @InjectMocks
+    private IdRangePartitioner idRangePartitioner;
+    @Mock
+    private BaseRepository<Account> repository;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Happy path test: Split ids into contiguous ranges case")
+    @CsvSource({"1, 10, 4, 4", "1, 1000, 4, 4", "5, 5, 4, 1", "1, 3, 8, 3", "100, 107, 2, 2"})
+    void givenIds_whenPartition_thenCoverIdsWithoutOverlap(int minimumId, int maximumId, int gridSize, int expectedPartitions) {
+        // given
+        doReturn(Optional.of(minimumId))
+                .when(repository)
+                .findMinimumId();
+        doReturn(Optional.of(maximumId))
+                .when(repository)
+                .findMaximumId();
+
+        // when
+        Map<String, ExecutionContext> partitions = idRangePartitioner.partition(gridSize);
+
+        // then
+        assertEquals(expectedPartitions, partitions.size());
+
+        List<ExecutionContext> ranges = partitions.values()
+                .stream()
+                .sorted(Comparator.comparingInt(range -> range.getInt(IdRangePartitioner.MINIMUM_ID)))
+                .toList();
+        int nextId = minimumId;
+
+        for (ExecutionContext range : ranges) {
+            assertEquals(nextId, range.getInt(IdRangePartitioner.MINIMUM_ID));
+            assertTrue(range.getInt(IdRangePartitioner.MINIMUM_ID) <= range.getInt(IdRangePartitioner.MAXIMUM_ID));
+            nextId = range.getInt(IdRangePartitioner.MAXIMUM_ID) + 1;
+        }
+
+        assertEquals(maximumId + 1, nextId);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Partition empty table case")
+    void givenNoEntities_whenPartition_thenReturnNoPartitions() {
+        // given
+        doReturn(Optional.empty())
+                .when(repository)
+                .findMinimumId();
+        doReturn(Optional.empty())
+                .when(repository)
+                .findMaximumId();
+
+        // when
+        Map<String, ExecutionContext> partitions = idRangePartitioner.partition(4);
+
+        // then
+        assertTrue(partitions.isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ercanbeyen.bankingapplication.unit.job;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.job.SenderHashPartitioner;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class SenderHashPartitionerTest {
+    public static final String TESTED_CLASS = "Sender Hash Partitioner";
+    private static final int LANE_COUNT = 4;
+    private SenderHashPartitioner senderHashPartitioner;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        senderHashPartitioner = new SenderHashPartitioner();
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Create one partition per lane case")
+    void givenLaneCount_whenPartition_thenCreateOnePartitionPerLane() {
+        // when
+        Map<String, ExecutionContext> partitions = senderHashPartitioner.partition(LANE_COUNT);
+
+        // then
+        assertEquals(LANE_COUNT, partitions.size());
+
+        for (int lane = 0; lane < LANE_COUNT; lane++) {
+            ExecutionContext executionContext = partitions.get(SenderHashPartitioner.LANE + lane);
+            assertNotNull(executionContext);
+            assertEquals(lane, executionContext.getInt(SenderHashPartitioner.LANE));
+            assertEquals(LANE_COUNT, executionContext.getInt(SenderHashPartitioner.LANE_COUNT));
+        }
+    }
+
+    @Test
+    @DisplayName("Happy path test: Assign each sender to exactly one lane case")
+    void givenSenders_whenPartition_thenAssignEachSenderToOneLane() {
+        // given
+        Map<String, ExecutionContext> partitions = senderHashPartitioner.partition(LANE_COUNT);
+
+        // when & then
+        for (int senderAccountId = 1; senderAccountId <= 1_000; senderAccountId++) {
+            int id = senderAccountId;
+            long numberOfLanes = partitions.values()
+                    .stream()
+                    .filter(executionContext -> id % executionContext.getInt(SenderHashPartitioner.LANE_COUNT) == executionContext.getInt(SenderHashPartitioner.LANE)) // MOD of the due order query
+                    .count();
+            assertEquals(1, numberOfLanes);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ercanbeyen.bankingapplication.unit.job.reader;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.job.reader.KeysetItemReader;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class KeysetItemReaderTest {
+    public static final String TESTED_CLASS = "Keyset Item Reader";
+    private static final int PAGE_SIZE = 2;
+    private TreeSet<Integer> pendingIds;
+    private List<Integer> fromIds;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        pendingIds = new TreeSet<>(List.of(1, 2, 3, 5, 8, 13, 21));
+        fromIds = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Read every item while processed items leave the result set case")
+    void givenProcessedItemsLeaveResultSet_whenRead_thenReadEveryItemOnce() throws Exception {
+        // given
+        KeysetItemReader<Integer> reader = newReader();
+        reader.open(new ExecutionContext());
+        List<Integer> readIds = new ArrayList<>();
+
+        // when
+        Integer id;
+
+        while ((id = reader.read()) != null) {
+            readIds.add(id);
+            pendingIds.remove(id); // Processed item no longer matches the query, which would shift an offset
+        }
+
+        reader.close();
+
+        // then
+        assertEquals(List.of(1, 2, 3, 5, 8, 13, 21), readIds);
+        assertTrue(pendingIds.isEmpty());
+        assertEquals(List.of(0, 3, 6, 14, 22), fromIds); // Each page seeks after the last read id
+    }
+
+    @Test
+    @DisplayName("Happy path test: Read empty result set case")
+    void givenNoItems_whenRead_thenReturnNull() throws Exception {
+        // given
+        pendingIds.clear();
+        KeysetItemReader<Integer> reader = newReader();
+        reader.open(new ExecutionContext());
+
+        // when
+        Integer actual = reader.read();
+
+        // then
+        assertNull(actual);
+        assertEquals(List.of(0), fromIds);
+    }
+
+    private KeysetItemReader<Integer> newReader() {
+        return new KeysetItemReader<>(
+                "keysetItemReader",
+                (fromId, limit) -> query(fromId, limit),
+                Integer::intValue,
+                PAGE_SIZE);
+    }
+
+    /* Ids which are greater than or equal to the given id, in ascending order */
+    private List<Integer> query(Integer fromId, Limit limit) {
+        fromIds.add(fromId);
+        return pendingIds.tailSet(fromId, true)
+                .stream()
+                .limit(limit.max())
+                .toList();
+    }
+}
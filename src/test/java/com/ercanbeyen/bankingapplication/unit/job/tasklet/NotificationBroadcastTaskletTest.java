@@ -0,0 +1,143 @@
+package com.ercanbeyen.bankingapplication.unit.job.tasklet;
+
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.job.tasklet.NotificationBroadcastTasklet;
+import com.ercanbeyen.bankingapplication.metric.NotificationBroadcastMetrics;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class NotificationBroadcastTaskletTest {
+    public static final String TESTED_CLASS = "Notification Broadcast Tasklet";
+    private static final String MESSAGE = "Happy new year";
+    private static final int MINIMUM_ID = 1;
+    private static final int MAXIMUM_ID = 25;
+    private static final int SLICE_SIZE = 10;
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private NotificationBroadcastMetrics notificationBroadcastMetrics;
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+    private StepExecution stepExecution;
+    private StepContribution contribution;
+    private ChunkContext chunkContext;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        stepExecution = new StepExecution("notificationBroadcastStep", new JobExecution(new JobInstance(1L, "notificationBroadcastJob"), new JobParameters()));
+        contribution = new StepContribution(stepExecution);
+        chunkContext = new ChunkContext(new StepContext(stepExecution));
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Insert notifications slice by slice case")
+    void givenNewExecution_whenExecute_thenInsertSlicesUntilMaximumId() {
+        // given
+        NotificationBroadcastTasklet tasklet = newTasklet(null);
+        doReturn(10)
+                .when(notificationRepository)
+                .insertForCustomers(eq(MESSAGE), anyInt(), anyInt());
+
+        // when
+        RepeatStatus firstStatus = tasklet.execute(contribution, chunkContext);
+        RepeatStatus secondStatus = tasklet.execute(contribution, chunkContext);
+        RepeatStatus lastStatus = tasklet.execute(contribution, chunkContext);
+
+        // then
+        assertEquals(RepeatStatus.CONTINUABLE, firstStatus);
+        assertEquals(RepeatStatus.CONTINUABLE, secondStatus);
+        assertEquals(RepeatStatus.FINISHED, lastStatus);
+        verify(notificationRepository, times(1)).insertForCustomers(MESSAGE, 1, 10);
+        verify(notificationRepository, times(1)).insertForCustomers(MESSAGE, 11, 20);
+        verify(notificationRepository, times(1)).insertForCustomers(MESSAGE, 21, 25);
+        verify(unreadNotificationCounter, times(3)).evictAll();
+        assertEquals(MAXIMUM_ID + 1, stepExecution.getExecutionContext().getInt(NotificationBroadcastTasklet.NEXT_ID));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Resume after the last committed slice case")
+    void givenRestartedExecution_whenExecute_thenResumeFromNextId() {
+        // given
+        stepExecution.getExecutionContext().putInt(NotificationBroadcastTasklet.NEXT_ID, 21);
+        NotificationBroadcastTasklet tasklet = newTasklet(null);
+        doReturn(5)
+                .when(notificationRepository)
+                .insertForCustomers(MESSAGE, 21, 25);
+
+        // when
+        RepeatStatus actual = tasklet.execute(contribution, chunkContext);
+
+        // then
+        assertEquals(RepeatStatus.FINISHED, actual);
+        verify(notificationRepository, times(1)).insertForCustomers(anyString(), anyInt(), anyInt());
+        assertEquals(5, contribution.getWriteCount());
+    }
+
+    @Test
+    @DisplayName("Happy path test: Restart completed partition case")
+    void givenCompletedPartition_whenExecute_thenInsertNothing() {
+        // given
+        stepExecution.getExecutionContext().putInt(NotificationBroadcastTasklet.NEXT_ID, MAXIMUM_ID + 1);
+        NotificationBroadcastTasklet tasklet = newTasklet(null);
+
+        // when
+        RepeatStatus actual = tasklet.execute(contribution, chunkContext);
+
+        // then
+        assertEquals(RepeatStatus.FINISHED, actual);
+        verifyNoInteractions(notificationRepository, unreadNotificationCounter);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Insert notifications for birthdays case")
+    void givenBirthDate_whenExecute_thenInsertForCustomersBornOnSameDay() {
+        // given
+        NotificationBroadcastTasklet tasklet = newTasklet(LocalDate.of(2000, 4, 6));
+        doReturn(1)
+                .when(notificationRepository)
+                .insertForCustomersBornOn(MESSAGE, 4, 6, 1, 10);
+
+        // when
+        RepeatStatus actual = tasklet.execute(contribution, chunkContext);
+
+        // then
+        assertEquals(RepeatStatus.CONTINUABLE, actual);
+        verify(notificationRepository, never()).insertForCustomers(anyString(), anyInt(), anyInt());
+    }
+
+    private NotificationBroadcastTasklet newTasklet(LocalDate birthDate) {
+        return new NotificationBroadcastTasklet(notificationRepository, notificationBroadcastMetrics, unreadNotificationCounter, MESSAGE, birthDate, MINIMUM_ID, MAXIMUM_ID, SLICE_SIZE);
+    }
+}
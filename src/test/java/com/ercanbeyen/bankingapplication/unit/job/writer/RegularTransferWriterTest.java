@@ -0,0 +1,152 @@
+package com.ercanbeyen.bankingapplication.unit.job.writer;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
+import com.ercanbeyen.bankingapplication.job.writer.RegularTransferWriter;
+import com.ercanbeyen.bankingapplication.metric.RegularTransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository;
+import com.ercanbeyen.bankingapplication.repository.RegularTransferOrderRepository.DueOrder;
+import com.ercanbeyen.bankingapplication.service.impl.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class RegularTransferWriterTest {
+    public static final String TESTED_CLASS = "Regular Transfer Writer";
+    private static final LocalDate EXECUTION_DATE = LocalDate.of(2024, 1, 15);
+    private static final int LANE = 1;
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private RegularTransferOrderRepository regularTransferOrderRepository;
+    @Mock
+    private RegularTransferMetrics regularTransferMetrics;
+    private RegularTransferWriter regularTransferWriter;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        regularTransferWriter = new RegularTransferWriter(transactionService, regularTransferOrderRepository, regularTransferMetrics, EXECUTION_DATE, LANE, LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Write chunk with completed and rejected transfers case")
+    @SuppressWarnings("unchecked")
+    void givenCompletedAndRejectedTransfers_whenWrite_thenAdvanceEveryOrder() {
+        // given
+        Chunk<DueOrder> dueOrders = new Chunk<>(List.of(
+                generateDueOrder(10, 1, 2, 50),
+                generateDueOrder(11, 3, 4, 75)));
+        List<TransferResult> transferResults = List.of(
+                new TransferResult(0, 1, 2, true, "Success"),
+                new TransferResult(1, 3, 4, false, "Insufficient funds"));
+        doReturn(transferResults)
+                .when(transactionService)
+                .transferMoneyInBatch(anyList(), anyList());
+        doReturn(2)
+                .when(regularTransferOrderRepository)
+                .advanceNextExecutionDates(anyList(), any());
+        ArgumentCaptor<List<TransferRequest>> transferRequestsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<String>> idempotencyKeysCaptor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        regularTransferWriter.write(dueOrders);
+
+        // then
+        verify(transactionService, times(1))
+                .transferMoneyInBatch(transferRequestsCaptor.capture(), idempotencyKeysCaptor.capture());
+        assertEquals(
+                List.of(new TransferRequest(1, 2, BigDecimal.valueOf(50), "Order 10"), new TransferRequest(3, 4, BigDecimal.valueOf(75), "Order 11")),
+                transferRequestsCaptor.getValue());
+        assertEquals(List.of("regular-transfer:10:2024-01-15", "regular-transfer:11:2024-01-15"), idempotencyKeysCaptor.getValue());
+
+        /* Rejected order is advanced as well, so it is tried again in its next period */
+        verify(regularTransferOrderRepository, times(1))
+                .advanceNextExecutionDates(List.of(10, 11), EXECUTION_DATE);
+        verify(regularTransferMetrics, times(1))
+                .incrementExecutions(LANE, true, 1);
+        verify(regularTransferMetrics, times(1))
+                .incrementExecutions(LANE, false, 1);
+        verify(regularTransferMetrics, times(1))
+                .recordLag(eq(LANE), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Failed batch does not advance orders case")
+    void givenFailedBatch_whenWrite_thenDoNotAdvanceOrders() {
+        // given
+        Chunk<DueOrder> dueOrders = new Chunk<>(List.of(generateDueOrder(10, 1, 2, 50)));
+        doThrow(new IllegalStateException("Lock wait timeout exceeded"))
+                .when(transactionService)
+                .transferMoneyInBatch(anyList(), anyList());
+
+        // when
+        assertThrows(IllegalStateException.class, () -> regularTransferWriter.write(dueOrders));
+
+        // then
+        verifyNoInteractions(regularTransferOrderRepository, regularTransferMetrics);
+    }
+
+    private static DueOrder generateDueOrder(Integer id, Integer senderAccountId, Integer receiverAccountId, long amount) {
+        return new DueOrder() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getSenderAccountId() {
+                return senderAccountId;
+            }
+
+            @Override
+            public Integer getReceiverAccountId() {
+                return receiverAccountId;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return BigDecimal.valueOf(amount);
+            }
+
+            @Override
+            public String getExplanation() {
+                return "Order " + id;
+            }
+        };
+    }
+}
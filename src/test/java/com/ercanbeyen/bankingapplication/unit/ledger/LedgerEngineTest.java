@@ -0,0 +1,245 @@
+package com.ercanbeyen.bankingapplication.unit.ledger;
+
+import com.ercanbeyen.bankingapplication.constant.enums.AccountActivityType;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.bankingapplication.ledger.LedgerEngine;
+import com.ercanbeyen.bankingapplication.metric.TransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.repository.LedgerCheckpointRepository;
+import com.ercanbeyen.bankingapplication.repository.LedgerSubmissionRepository;
+import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class LedgerEngineTest {
+    public static final String TESTED_CLASS = "Ledger Engine";
+    private static final int SHARD_COUNT = 2;
+    private static final int WAL_CAPACITY = 4 * 1024 * 1024;
+    private static final Integer SENDER_ACCOUNT_ID = 1;
+    private static final Integer RECEIVER_ACCOUNT_ID = 2; // Amounts and balances are in minor units
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+    @Mock
+    private LedgerSubmissionRepository ledgerSubmissionRepository;
+    @Mock
+    private AccountActivityService accountActivityService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    private Path walDirectory;
+    private AtomicLong flushedSequence;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        flushedSequence = new AtomicLong();
+
+        /* Checkpoint row of the database */
+        lenient().doAnswer(invocation -> Optional.of(flushedSequence.get()))
+                .when(ledgerCheckpointRepository)
+                .findSequenceById(anyInt());
+        lenient().doAnswer(invocation -> {
+                    flushedSequence.set(invocation.getArgument(1));
+                    return 1;
+                })
+                .when(ledgerCheckpointRepository)
+                .upsertSequence(anyInt(), anyLong());
+        lenient().doReturn(Optional.of(generateAccount(SENDER_ACCOUNT_ID, 100)))
+                .when(accountRepository)
+                .findById(SENDER_ACCOUNT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Recover after crash between flush commit and log checkpoint case")
+    void givenFlushedButNotCheckpointedEntries_whenStart_thenSkipFlushedEntries() throws Exception {
+        // given
+        LedgerEngine ledgerEngine = newLedgerEngine();
+        ledgerEngine.start();
+        ledgerEngine.apply(AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 30, null, 30, "Withdrawal");
+        assertTrue(ledgerEngine.flush());
+        ledgerEngine.stop();
+
+        /* Crash before the log is checkpointed: the database has the entry, the log header does not */
+        resetWalCheckpoint();
+
+        // when
+        LedgerEngine recoveredLedgerEngine = newLedgerEngine();
+        recoveredLedgerEngine.start();
+
+        // then
+        verify(accountRepository, times(1))
+                .updateBalanceById(eq(SENDER_ACCOUNT_ID), anyString(), any());
+        verify(accountActivityService, times(1))
+                .createAccountActivities(anyList());
+        assertEquals(1, flushedSequence.get());
+
+        /* New entries are numbered after the flushed ones, so they are not skipped by a later recovery */
+        recoveredLedgerEngine.apply(AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 20, null, 20, "Withdrawal");
+        assertTrue(recoveredLedgerEngine.flush());
+        recoveredLedgerEngine.stop();
+
+        verify(accountRepository, times(2))
+                .updateBalanceById(eq(SENDER_ACCOUNT_ID), anyString(), any());
+        assertEquals(2, flushedSequence.get());
+    }
+
+    @Test
+    @DisplayName("Happy path test: Recover entries which are not flushed case")
+    void givenLoggedButNotFlushedEntries_whenStart_thenFlushEntries() throws Exception {
+        // given
+        LedgerEngine ledgerEngine = newLedgerEngine();
+        ledgerEngine.start();
+        doThrow(new IllegalStateException("Database is down"))
+                .when(accountActivityService)
+                .createAccountActivities(anyList());
+        ledgerEngine.apply(AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 30, null, 30, "Withdrawal");
+        assertFalse(ledgerEngine.flush());
+        ledgerEngine.stop();
+        doNothing()
+                .when(accountActivityService)
+                .createAccountActivities(anyList());
+
+        // when
+        LedgerEngine recoveredLedgerEngine = newLedgerEngine();
+        recoveredLedgerEngine.start();
+        recoveredLedgerEngine.stop();
+
+        // then
+        verify(accountActivityService, times(3)) // failed flush, failed flush on stop and recovery
+                .createAccountActivities(anyList());
+        assertEquals(1, flushedSequence.get());
+    }
+
+    @Test
+    @DisplayName("Exception path test: Transfer to unknown receiver case")
+    void givenUnknownReceiver_whenApply_thenThrowResourceNotFoundExceptionWithoutDebit() throws Exception {
+        // given
+        doReturn(Optional.empty())
+                .when(accountRepository)
+                .findById(RECEIVER_ACCOUNT_ID);
+        LedgerEngine ledgerEngine = newLedgerEngine();
+        ledgerEngine.start();
+
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> ledgerEngine.apply(AccountActivityType.MONEY_TRANSFER, SENDER_ACCOUNT_ID, 100, RECEIVER_ACCOUNT_ID, 100, "Transfer"));
+
+        // then
+        /* Whole balance is still available, so nothing was debited */
+        ledgerEngine.apply(AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 100, null, 100, "Withdrawal");
+        assertTrue(ledgerEngine.flush());
+        ledgerEngine.stop();
+
+        verify(ledgerCheckpointRepository, times(1))
+                .upsertSequence(anyInt(), anyLong());
+        assertEquals(1, flushedSequence.get()); // Only the withdrawal is logged
+    }
+
+    @Test
+    @DisplayName("Happy path test: Submit same operation twice case")
+    void givenSubmittedIdempotencyKey_whenSubmit_thenApplyOnce() throws Exception {
+        // given
+        final String idempotencyKey = "deposit-interest:1:2024-01-01";
+        LedgerEngine ledgerEngine = newLedgerEngine();
+        ledgerEngine.start();
+        ledgerEngine.submit(idempotencyKey, AccountActivityType.FEE, null, 10, SENDER_ACCOUNT_ID, 10, "Fee").join();
+
+        // when
+        ledgerEngine.submit(idempotencyKey, AccountActivityType.FEE, null, 10, SENDER_ACCOUNT_ID, 10, "Fee").join();
+
+        // then
+        assertEquals(110, ledgerEngine.readBalance(SENDER_ACCOUNT_ID));
+        assertTrue(ledgerEngine.flush());
+        verify(ledgerSubmissionRepository, times(1))
+                .insertSubmission(eq(idempotencyKey), anyLong());
+
+        /* Key of the flushed entry is only in the database */
+        doReturn(true)
+                .when(ledgerSubmissionRepository)
+                .existsById(idempotencyKey);
+        ledgerEngine.submit(idempotencyKey, AccountActivityType.FEE, null, 10, SENDER_ACCOUNT_ID, 10, "Fee").join();
+        assertEquals(110, ledgerEngine.readBalance(SENDER_ACCOUNT_ID));
+        ledgerEngine.stop();
+    }
+
+    @Test
+    @DisplayName("Exception path test: Submit rejected operation again case")
+    void givenRejectedIdempotencyKey_whenSubmit_thenApplyAgain() throws Exception {
+        // given
+        final String idempotencyKey = "regular-transfer:1:2024-01-01";
+        LedgerEngine ledgerEngine = newLedgerEngine();
+        ledgerEngine.start();
+        assertThrows(CompletionException.class, () -> ledgerEngine.submit(idempotencyKey, AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 1_000, null, 1_000, "Withdrawal").join());
+
+        // when
+        ledgerEngine.submit(idempotencyKey, AccountActivityType.WITHDRAWAL, SENDER_ACCOUNT_ID, 40, null, 40, "Withdrawal").join();
+
+        // then
+        assertEquals(60, ledgerEngine.readBalance(SENDER_ACCOUNT_ID));
+        ledgerEngine.stop();
+    }
+
+    private LedgerEngine newLedgerEngine() throws IOException {
+        return new LedgerEngine(
+                accountRepository,
+                ledgerCheckpointRepository,
+                ledgerSubmissionRepository,
+                accountActivityService,
+                new TransferMetrics(new SimpleMeterRegistry()),
+                transactionManager,
+                SHARD_COUNT,
+                walDirectory.resolve("ledger.wal").toString(),
+                WAL_CAPACITY);
+    }
+
+    private void resetWalCheckpoint() throws IOException {
+        try (RandomAccessFile wal = new RandomAccessFile(walDirectory.resolve("ledger.wal").toFile(), "rw")) {
+            wal.seek(0);
+            wal.writeLong(0);
+        }
+    }
+
+    private static Account generateAccount(Integer id, long balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(MoneyUtils.toDecimal(balance));
+        return account;
+    }
+}
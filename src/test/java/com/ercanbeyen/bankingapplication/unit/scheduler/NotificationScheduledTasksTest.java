@@ -0,0 +1,96 @@
+package com.ercanbeyen.bankingapplication.unit.scheduler;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.scheduler.NotificationScheduledTasks;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class NotificationScheduledTasksTest {
+    public static final String TESTED_CLASS = "Notification Scheduled Tasks";
+    private static final int RELAY_BATCH_SIZE = 500;
+    private static final int PURGE_BATCH_SIZE = 1_000;
+    @Mock
+    private NotificationService notificationService;
+    private NotificationScheduledTasks notificationScheduledTasks;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        notificationScheduledTasks = new NotificationScheduledTasks(notificationService, RELAY_BATCH_SIZE, Duration.ofDays(180), PURGE_BATCH_SIZE, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Relay outbox backlog batch by batch case")
+    void givenOutboxBacklog_whenRelayNotificationOutbox_thenRelayUntilShortBatch() {
+        // given
+        doReturn(RELAY_BATCH_SIZE, RELAY_BATCH_SIZE, 20)
+                .when(notificationService)
+                .relayNotifications(RELAY_BATCH_SIZE);
+
+        // when
+        notificationScheduledTasks.relayNotificationOutbox();
+
+        // then
+        verify(notificationService, times(3)).relayNotifications(RELAY_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Purge expired notifications in bounded batches case")
+    void givenExpiredNotifications_whenDeleteExpiredNotifications_thenDeleteUntilShortBatch() {
+        // given
+        doReturn(PURGE_BATCH_SIZE, PURGE_BATCH_SIZE, 10)
+                .when(notificationService)
+                .deleteExpiredNotifications(any(LocalDateTime.class), anyInt());
+
+        // when
+        notificationScheduledTasks.deleteExpiredNotifications();
+
+        // then
+        /* Every batch is bounded and uses the same cut-off time */
+        verify(notificationService, times(3)).deleteExpiredNotifications(any(LocalDateTime.class), eq(PURGE_BATCH_SIZE));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Stop purge on failed batch case")
+    void givenFailedBatch_whenDeleteExpiredNotifications_thenStopPurge() {
+        // given
+        doReturn(PURGE_BATCH_SIZE)
+                .doThrow(new IllegalStateException("Lock wait timeout exceeded"))
+                .when(notificationService)
+                .deleteExpiredNotifications(any(LocalDateTime.class), anyInt());
+
+        // when
+        notificationScheduledTasks.deleteExpiredNotifications();
+
+        // then
+        verify(notificationService, times(2)).deleteExpiredNotifications(any(LocalDateTime.class), eq(PURGE_BATCH_SIZE));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ercanbeyen.bankingapplication.unit.service.impl;
 
+import com.ercanbeyen.bankingapplication.cache.CustomerBloomFilter;
 import com.ercanbeyen.bankingapplication.constant.enums.Entity;
 import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
 import com.ercanbeyen.bankingapplication.constant.message.ResponseMessages;
@@ -24,6 +25,8 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -47,6 +50,8 @@ class CustomerServiceTest {
     private CustomerMapper customerMapper;
     @Mock
     private FileStorageServiceImpl fileStorageService;
+    @Mock
+    private CustomerBloomFilter customerBloomFilter;
     private List<Customer> customers;
     private List<CustomerDto> customerDtos;
 
@@ -80,9 +85,9 @@ class CustomerServiceTest {
         CustomerFilteringOptions filteringOptions = new CustomerFilteringOptions();
         filteringOptions.setBirthDate(LocalDate.of(2005, 8, 15));
 
-        doReturn(customers)
+        doReturn(List.of(customers.getFirst()))
                 .when(customerRepository)
-                .findAll();
+                .findBy(any(Specification.class), any());
         doReturn(expected.getFirst())
                 .when(customerMapper)
                 .entityToDto(any());
@@ -92,7 +97,7 @@ class CustomerServiceTest {
 
         // then
         verify(customerRepository, times(1))
-                .findAll();
+                .findBy(any(Specification.class), any());
         verify(customerMapper, times(1))
                 .entityToDto(any());
 
@@ -160,7 +165,7 @@ class CustomerServiceTest {
                 .dtoToEntity(any());
         doReturn(customer)
                 .when(customerRepository)
-                .save(any());
+                .saveAndFlush(any());
         doReturn(expected)
                 .when(customerMapper)
                 .entityToDto(any());
@@ -169,12 +174,16 @@ class CustomerServiceTest {
         CustomerDto actual = customerService.createEntity(request);
 
         // then
-        verify(customerRepository, times(1))
-                .findAll();
+        verify(customerBloomFilter, times(1))
+                .mightContain(anyString(), anyString(), anyString());
+        verify(customerRepository, never())
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
+        verify(customerBloomFilter, times(1))
+                .put(anyString(), anyString(), anyString());
         verify(customerMapper, times(1))
                 .dtoToEntity(any());
         verify(customerRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
         verify(customerMapper, times(1))
                 .entityToDto(any());
 
@@ -188,7 +197,12 @@ class CustomerServiceTest {
         CustomerDto request = MockCustomerFactory.generateCustomerDtoRequests().getFirst();
         String expected = String.format(ResponseMessages.ALREADY_EXISTS, Entity.CUSTOMER.getValue());
 
-        doReturn(customers).when(customerRepository).findAll();
+        doReturn(true)
+                .when(customerBloomFilter)
+                .mightContain(anyString(), anyString(), anyString());
+        doReturn(true)
+                .when(customerRepository)
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
 
         // when
         RuntimeException exception = assertThrows(ResourceConflictException.class, () -> customerService.createEntity(request));
@@ -196,12 +210,42 @@ class CustomerServiceTest {
 
         // then
         verify(customerRepository, times(1))
-                .findAll();
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
         verifyNoMoreInteractions(customerRepository, customerMapper);
 
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Exception path test: Create customer which is created by another instance case")
+    void givenCustomerDtoMissedByBloomFilter_whenCreateEntity_thenThrowResourceConflictException() {
+        // given
+        Customer customer = customers.getFirst();
+        CustomerDto request = MockCustomerFactory.generateCustomerDtoRequests().getFirst();
+        String expected = String.format(ResponseMessages.ALREADY_EXISTS, Entity.CUSTOMER.getValue());
+
+        doReturn(customer)
+                .when(customerMapper)
+                .dtoToEntity(any());
+        doThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .when(customerRepository)
+                .saveAndFlush(any());
+
+        // when
+        RuntimeException exception = assertThrows(ResourceConflictException.class, () -> customerService.createEntity(request));
+        String actual = exception.getMessage();
+
+        // then
+        verify(customerRepository, never())
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
+        verify(customerRepository, times(1))
+                .saveAndFlush(any());
+        verify(customerBloomFilter, never())
+                .put(anyString(), anyString(), anyString());
+
+        assertEquals(expected, actual);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"test@email.com", "test_updated@email.com"})
     @DisplayName("Happy path: Update customer case")
@@ -220,7 +264,7 @@ class CustomerServiceTest {
                 .dtoToEntity(any());
         doReturn(customer)
                 .when(customerRepository)
-                .save(any());
+                .saveAndFlush(any());
         doReturn(request)
                 .when(customerMapper)
                 .entityToDto(any());
@@ -234,7 +278,7 @@ class CustomerServiceTest {
         verify(customerMapper, times(1))
                 .dtoToEntity(any());
         verify(customerRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
         verify(customerMapper, times(1))
                 .entityToDto(any());
 
@@ -252,9 +296,12 @@ class CustomerServiceTest {
         doReturn(Optional.of(customers.getFirst()))
                 .when(customerRepository)
                 .findById(anyInt());
-        doReturn(customers)
+        doReturn(true)
+                .when(customerBloomFilter)
+                .mightContain(anyString(), anyString(), anyString());
+        doReturn(true)
                 .when(customerRepository)
-                .findAll();
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
 
         // when
         RuntimeException exception = assertThrows(ResourceConflictException.class, () -> customerService.updateEntity(1, request));
@@ -264,7 +311,7 @@ class CustomerServiceTest {
         verify(customerRepository, times(1))
                 .findById(anyInt());
         verify(customerRepository, times(1))
-                .findAll();
+                .existsByNationalIdOrPhoneNumberOrEmail(anyString(), anyString(), anyString());
         verifyNoMoreInteractions(customerRepository, customerMapper);
 
         assertEquals(expected, actual);
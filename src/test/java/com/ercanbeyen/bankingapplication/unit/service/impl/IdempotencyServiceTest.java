@@ -0,0 +1,81 @@
+package com.ercanbeyen.bankingapplication.unit.service.impl;
+
+import com.ercanbeyen.bankingapplication.cache.IdempotencyCache;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.entity.IdempotentResponse;
+import com.ercanbeyen.bankingapplication.repository.IdempotentResponseRepository;
+import com.ercanbeyen.bankingapplication.service.impl.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    public static final String TESTED_CLASS = "Idempotency Service";
+    @Mock
+    private IdempotencyCache idempotencyCache;
+    @Mock
+    private IdempotentResponseRepository idempotentResponseRepository;
+    private IdempotencyService idempotencyService;
+    private IdempotentResponse response;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        idempotencyService = new IdempotencyService(idempotencyCache, idempotentResponseRepository, Duration.ofMinutes(5));
+        response = new IdempotentResponse("key", new byte[]{1}, 200, "application/json", new byte[]{2}, LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Save response of pending claim case")
+    void givenPendingClaim_whenSaveResponse_thenCacheResponse() {
+        // given
+        doReturn(1)
+                .when(idempotentResponseRepository)
+                .completePending(response, IdempotentResponse.PENDING_STATUS);
+
+        // when
+        idempotencyService.saveResponse(response);
+
+        // then
+        verify(idempotencyCache, times(1)).put(response);
+    }
+
+    @Test
+    @DisplayName("Exception path test: Save response of reclaimed key case")
+    void givenReclaimedKey_whenSaveResponse_thenDoNotCacheResponse() {
+        // given
+        doReturn(0)
+                .when(idempotentResponseRepository)
+                .completePending(response, IdempotentResponse.PENDING_STATUS);
+
+        // when
+        idempotencyService.saveResponse(response);
+
+        // then
+        verify(idempotencyCache, never()).put(any(IdempotentResponse.class));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ercanbeyen.bankingapplication.unit.service.impl;
+
+import com.ercanbeyen.bankingapplication.cache.UnreadNotificationCounter;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.mapper.NotificationMapper;
+import com.ercanbeyen.bankingapplication.repository.NotificationOutboxRepository;
+import com.ercanbeyen.bankingapplication.repository.NotificationOutboxRepository.PendingEntry;
+import com.ercanbeyen.bankingapplication.repository.NotificationRepository;
+import com.ercanbeyen.bankingapplication.service.impl.CustomerService;
+import com.ercanbeyen.bankingapplication.service.impl.NotificationServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+    public static final String TESTED_CLASS = "Notification Service";
+    private static final int LIMIT = 3;
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+    @Mock
+    private NotificationMapper notificationMapper;
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Relay outbox entries case")
+    void givenPendingEntries_whenRelayNotifications_thenInsertNotificationsAndDeleteEntries() {
+        // given
+        List<PendingEntry> pendingEntries = List.of(
+                generatePendingEntry("1", "12345678911"),
+                generatePendingEntry("2", "12345678912"),
+                generatePendingEntry("3", "12345678911"));
+        List<String> ids = List.of("1", "2", "3");
+        doReturn(pendingEntries)
+                .when(notificationOutboxRepository)
+                .lockOldestEntries(LIMIT);
+        doReturn(3)
+                .when(notificationOutboxRepository)
+                .insertNotifications(ids);
+
+        // when
+        int actual = notificationService.relayNotifications(LIMIT);
+
+        // then
+        assertEquals(LIMIT, actual);
+        verify(notificationOutboxRepository, times(1)).deleteAllByIdInBatch(ids);
+        verify(unreadNotificationCounter, times(1)).add("12345678911", 2L);
+        verify(unreadNotificationCounter, times(1)).add("12345678912", 1L);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Relay empty outbox case")
+    void givenNoPendingEntries_whenRelayNotifications_thenReturnZero() {
+        // given
+        doReturn(List.of())
+                .when(notificationOutboxRepository)
+                .lockOldestEntries(LIMIT);
+
+        // when
+        int actual = notificationService.relayNotifications(LIMIT);
+
+        // then
+        assertEquals(0, actual);
+        verify(notificationOutboxRepository, never()).insertNotifications(anyList());
+        verify(notificationOutboxRepository, never()).deleteAllByIdInBatch(anyList());
+        verifyNoInteractions(unreadNotificationCounter);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Delete bounded batch of expired notifications case")
+    void givenExpiredNotifications_whenDeleteExpiredNotifications_thenDeleteOneBatchAndEvictCounts() {
+        // given
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(180);
+        doReturn(LIMIT)
+                .when(notificationRepository)
+                .deleteOldest(createdBefore, LIMIT);
+
+        // when
+        int actual = notificationService.deleteExpiredNotifications(createdBefore, LIMIT);
+
+        // then
+        assertEquals(LIMIT, actual);
+        verify(unreadNotificationCounter, times(1)).evictAll();
+    }
+
+    @Test
+    @DisplayName("Happy path test: Delete when no notification is expired case")
+    void givenNoExpiredNotifications_whenDeleteExpiredNotifications_thenKeepCounts() {
+        // given
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(180);
+        doReturn(0)
+                .when(notificationRepository)
+                .deleteOldest(createdBefore, LIMIT);
+
+        // when
+        int actual = notificationService.deleteExpiredNotifications(createdBefore, LIMIT);
+
+        // then
+        assertEquals(0, actual);
+        verifyNoInteractions(unreadNotificationCounter);
+    }
+
+    private static PendingEntry generatePendingEntry(String id, String customerNationalId) {
+        return new PendingEntry() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getCustomerNationalId() {
+                return customerNationalId;
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.ercanbeyen.bankingapplication.unit.service.impl;
+
+import com.ercanbeyen.bankingapplication.constant.enums.BalanceActivity;
+import com.ercanbeyen.bankingapplication.constant.enums.Currency;
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.dto.request.TransferRequest;
+import com.ercanbeyen.bankingapplication.dto.response.TransferResult;
+import com.ercanbeyen.bankingapplication.entity.Account;
+import com.ercanbeyen.bankingapplication.entity.Customer;
+import com.ercanbeyen.bankingapplication.metric.TransferMetrics;
+import com.ercanbeyen.bankingapplication.repository.AccountRepository;
+import com.ercanbeyen.bankingapplication.service.AccountActivityService;
+import com.ercanbeyen.bankingapplication.service.NotificationService;
+import com.ercanbeyen.bankingapplication.service.impl.ExchangeService;
+import com.ercanbeyen.bankingapplication.service.impl.TransactionService;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    public static final String TESTED_CLASS = "Transaction Service";
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountActivityService accountActivityService;
+    @Mock
+    private ExchangeService exchangeService;
+    @Mock
+    private NotificationService notificationService;
+    private TransactionService transactionService;
+    private List<Account> accounts;
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info(LogMessages.Test.SETUP);
+        transactionService = new TransactionService(accountRepository, accountActivityService, exchangeService, notificationService, new TransferMetrics(new SimpleMeterRegistry()), Optional.empty());
+        accounts = new ArrayList<>(List.of(generateAccount(1, 100), generateAccount(2, 20), generateAccount(3, 0)));
+        doReturn(accounts)
+                .when(accountRepository)
+                .findByIdInOrderByIdAsc(anyCollection());
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.info(LogMessages.Test.TEAR_DOWN);
+    }
+
+    @Test
+    @DisplayName("Happy path test: Transfer money in batch case")
+    void givenTransferRequests_whenTransferMoneyInBatch_thenUpdateEachBalanceOnceInIdOrder() {
+        // given
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(1, 2, BigDecimal.valueOf(30), "Transfer 1"),
+                new TransferRequest(2, 3, BigDecimal.valueOf(50), "Transfer 2"), // spends the credit of the first transfer
+                new TransferRequest(1, 3, BigDecimal.valueOf(80), "Transfer 3")); // exceeds the remaining balance
+
+        // when
+        List<TransferResult> actual = transactionService.transferMoneyInBatch(requests);
+
+        // then
+        assertEquals(List.of(true, true, false), actual.stream().map(TransferResult::completed).toList());
+
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).updateBalanceById(1, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(-3_000));
+        inOrder.verify(accountRepository).updateBalanceById(2, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(-2_000));
+        inOrder.verify(accountRepository).updateBalanceById(3, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(5_000));
+        verify(accountRepository, times(3)).updateBalanceById(anyInt(), anyString(), any());
+
+        /* Entities are not dirtied, so their update times and deposit terms are kept */
+        assertEquals(List.of(BigDecimal.valueOf(100), BigDecimal.valueOf(20), BigDecimal.valueOf(0)), accounts.stream().map(Account::getBalance).toList());
+        verify(accountActivityService, times(1)).createAccountActivities(argThat(activities -> activities.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Transfer without amount in batch case")
+    void givenRequestWithoutAmount_whenTransferMoneyInBatch_thenRejectOnlyThatTransfer() {
+        // given
+        List<TransferRequest> requests = Arrays.asList(
+                new TransferRequest(1, 2, null, "Transfer 1"),
+                new TransferRequest(1, 3, BigDecimal.valueOf(10), "Transfer 2"));
+
+        // when
+        List<TransferResult> actual = transactionService.transferMoneyInBatch(requests);
+
+        // then
+        assertEquals(List.of(false, true), actual.stream().map(TransferResult::completed).toList());
+        verify(accountRepository, times(1)).updateBalanceById(1, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(-1_000));
+        verify(accountRepository, times(1)).updateBalanceById(3, BalanceActivity.INCREASE.name(), MoneyUtils.toDecimal(1_000));
+        verify(accountRepository, never()).updateBalanceById(eq(2), anyString(), any());
+    }
+
+    private static Account generateAccount(Integer id, long balance) {
+        Customer customer = new Customer();
+        customer.setNationalId("1234567891" + id);
+
+        Account account = new Account();
+        account.setId(id);
+        account.setCustomer(customer);
+        account.setCurrency(Currency.TL);
+        account.setBalance(BigDecimal.valueOf(balance));
+        return account;
+    }
+}
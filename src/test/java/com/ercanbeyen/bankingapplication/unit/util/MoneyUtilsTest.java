@@ -0,0 +1,152 @@
+package com.ercanbeyen.bankingapplication.unit.util;
+
+import com.ercanbeyen.bankingapplication.constant.message.LogMessages;
+import com.ercanbeyen.bankingapplication.util.MoneyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class MoneyUtilsTest {
+    public static final String TESTED_CLASS = "Money Utils";
+
+    @BeforeAll
+    static void start() {
+        log.info(LogMessages.Test.START, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @AfterAll
+    static void end() {
+        log.info(LogMessages.Test.END, LogMessages.Test.UNIT, TESTED_CLASS);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "12.34, 1234",
+            "-12.34, -1234",
+            "0.01, 1",
+            "0, 0"
+    })
+    @DisplayName("Happy path test: Amount to minor units case")
+    void givenAmount_whenToMinorUnits_thenReturnMinorUnits(double amount, long expected) {
+        assertEquals(expected, MoneyUtils.toMinorUnits(amount));
+        assertEquals(amount, MoneyUtils.toDouble(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "12.34, 1234",
+            "-12.34, -1234",
+            "100, 10000",
+            "0.005, 0",
+            "0.015, 2"
+    })
+    @DisplayName("Happy path test: Decimal amount to minor units case")
+    void givenDecimalAmount_whenToMinorUnits_thenRoundHalfEven(BigDecimal amount, long expected) {
+        assertEquals(expected, MoneyUtils.toMinorUnits(amount));
+    }
+
+    @Test
+    @DisplayName("Happy path test: Minor units to decimal case")
+    void givenMinorUnits_whenToDecimal_thenReturnDecimalWithTwoFractionDigits() {
+        assertEquals(new BigDecimal("12.34"), MoneyUtils.toDecimal(1234));
+        assertEquals(new BigDecimal("-0.05"), MoneyUtils.toDecimal(-5));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 100000000",
+            "1.2345, 123450000",
+            "36.12345678, 3612345678",
+            "0.00000001, 1",
+            "0.000000004, 0"
+    })
+    @DisplayName("Happy path test: Rate to scaled rate case")
+    void givenRate_whenToScaledRate_thenReturnRateScaledByEightDigits(double rate, long expected) {
+        assertEquals(expected, MoneyUtils.toScaledRate(rate));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "250, 0.5, 125",     // exact
+            "1, 0.6, 1",         // above half
+            "1, 0.4, 0",         // below half
+            "1, 0.5, 0",         // half to even (0)
+            "3, 0.5, 2",         // half to even (2)
+            "5, 0.5, 2",         // half to even (2)
+            "-1, 0.6, -1",
+            "-1, 0.5, 0",
+            "-3, 0.5, -2",
+            "-5, 0.5, -2"
+    })
+    @DisplayName("Happy path test: Multiply with half even rounding case")
+    void givenMinorUnitsAndRate_whenMultiply_thenRoundHalfEven(long minorUnits, double rate, long expected) {
+        assertEquals(expected, MoneyUtils.multiply(minorUnits, MoneyUtils.toScaledRate(rate)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "100, 0.5, 200",     // exact
+            "1, 8, 0",           // 0.125
+            "5, 2, 2",           // half to even (2)
+            "7, 2, 4",           // half to even (4)
+            "-5, 2, -2",
+            "-7, 2, -4",
+            "10, -4, -2",        // negative rate, half to even (-2)
+            "-10, -4, 2"
+    })
+    @DisplayName("Happy path test: Divide with half even rounding case")
+    void givenMinorUnitsAndRate_whenDivide_thenRoundHalfEven(long minorUnits, double rate, long expected) {
+        assertEquals(expected, MoneyUtils.divide(minorUnits, MoneyUtils.toScaledRate(rate)));
+    }
+
+    /* Products which do not fit into 64 bits fall back to BigDecimal, which must round the same way */
+    @ParameterizedTest
+    @CsvSource({
+            "1000000000000, 1.5, 1500000000000",
+            "1000000000001, 0.5, 500000000000",
+            "1000000000003, 0.5, 500000000002",
+            "-1000000000003, 0.5, -500000000002"
+    })
+    @DisplayName("Happy path test: Multiply with overflowing product case")
+    void givenLargeMinorUnits_whenMultiply_thenFallBackToDecimal(long minorUnits, double rate, long expected) {
+        long scaledRate = MoneyUtils.toScaledRate(rate);
+        assertTrue(Math.abs((double) minorUnits * scaledRate) > Long.MAX_VALUE); // product overflows
+        assertEquals(expected, MoneyUtils.multiply(minorUnits, scaledRate));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "200000000001, 2, 100000000000",
+            "200000000003, 2, 100000000002",
+            "-200000000003, 2, -100000000002"
+    })
+    @DisplayName("Happy path test: Divide with overflowing dividend case")
+    void givenLargeMinorUnits_whenDivide_thenFallBackToDecimal(long minorUnits, double rate, long expected) {
+        assertEquals(expected, MoneyUtils.divide(minorUnits, MoneyUtils.toScaledRate(rate)));
+    }
+
+    @Test
+    @DisplayName("Exception path test: Multiply with result out of range case")
+    void givenResultOutOfRange_whenMultiply_thenThrowArithmeticException() {
+        long scaledRate = MoneyUtils.toScaledRate(2);
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.multiply(Long.MAX_VALUE, scaledRate));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10000, 12.5, 1250",
+            "333, 10, 33",       // 33.3
+            "25, 10, 2",         // 2.5, half to even (2)
+            "35, 10, 4"          // 3.5, half to even (4)
+    })
+    @DisplayName("Happy path test: Percentage case")
+    void givenMinorUnitsAndPercentage_whenPercentage_thenReturnMinorUnits(long minorUnits, double percentage, long expected) {
+        assertEquals(expected, MoneyUtils.percentage(minorUnits, percentage));
+    }
+}